@@ -26,7 +26,6 @@ package ca.mcgill.cs.jetuml.application;
  */
 public final class DiagramSizeUtils
 {
-	public static final int MAX_SIZE = 5000;
 	public static final int MIN_SIZE = 250;
 	
 	private DiagramSizeUtils()
@@ -38,7 +37,7 @@ public final class DiagramSizeUtils
 	 */
 	public static boolean isValid(int pValue)
 	{
-		return pValue >= MIN_SIZE && pValue <= MAX_SIZE;
+		return pValue >= MIN_SIZE;
 	}
 	
 	/**
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2015-2018 by the contributors of the JetUML project.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+
+package ca.mcgill.cs.jetuml.diagram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.diagram.edges.CallEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+
+/**
+ * An index of the call edges of a sequence diagram, kept up to
+ * date by the diagram as edges are added and removed. For each node
+ * the index stores its outgoing and incoming call edges, in the
+ * order in which they appear in the list of edges of the diagram.
+ * Nesting depths are computed on demand and cached until the next
+ * change to the call edges.
+ *
+ * The nesting depth cache assumes that call nodes are only moved
+ * between implicit parameter nodes while they are not connected
+ * to any call edge, which is what the diagram builders guarantee.
+ */
+final class CallGraph
+{
+	private final Map<Node, List<CallEdge>> aCalls = new HashMap<>();
+	private final Map<Node, List<CallEdge>> aCallers = new HashMap<>();
+	private final Map<CallNode, Integer> aNestingDepths = new HashMap<>();
+
+	/**
+	 * Records pEdge as the last call edge of the diagram.
+	 *
+	 * @param pEdge The edge that was appended to the diagram.
+	 * @pre pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null
+	 */
+	void append(CallEdge pEdge)
+	{
+		assert pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null;
+		edgesFrom(aCalls, pEdge.getStart()).add(pEdge);
+		edgesFrom(aCallers, pEdge.getEnd()).add(pEdge);
+		aNestingDepths.clear();
+	}
+
+	/**
+	 * Records pEdge, which was inserted somewhere in the middle of the
+	 * edges of a diagram. Requires a scan of the diagram's edges to
+	 * find the position of pEdge relative to the other calls of
+	 * its start and end nodes.
+	 *
+	 * @param pEdge The edge that was inserted in the diagram.
+	 * @param pEdges All the edges of the diagram, including pEdge, in order.
+	 * @pre pEdge != null && pEdges != null
+	 */
+	void insert(CallEdge pEdge, Iterable<Edge> pEdges)
+	{
+		assert pEdge != null && pEdges != null;
+		int callIndex = 0;
+		int callerIndex = 0;
+		for( Edge edge : pEdges )
+		{
+			if( edge == pEdge )
+			{
+				break;
+			}
+			if( edge instanceof CallEdge )
+			{
+				if( edge.getStart() == pEdge.getStart() )
+				{
+					callIndex++;
+				}
+				if( edge.getEnd() == pEdge.getEnd() )
+				{
+					callerIndex++;
+				}
+			}
+		}
+		edgesFrom(aCalls, pEdge.getStart()).add(callIndex, pEdge);
+		edgesFrom(aCallers, pEdge.getEnd()).add(callerIndex, pEdge);
+		aNestingDepths.clear();
+	}
+
+	/**
+	 * Removes pEdge from the index.
+	 *
+	 * @param pEdge The edge that was removed from the diagram.
+	 * @pre pEdge != null
+	 */
+	void remove(CallEdge pEdge)
+	{
+		assert pEdge != null;
+		removeFrom(aCalls, pEdge.getStart(), pEdge);
+		removeFrom(aCallers, pEdge.getEnd(), pEdge);
+		aNestingDepths.clear();
+	}
+
+	/**
+	 * @param pCaller The node whose calls we want.
+	 * @return An unmodifiable list of the call edges starting at pCaller,
+	 * in call order.
+	 * @pre pCaller != null
+	 */
+	List<CallEdge> callsFrom(Node pCaller)
+	{
+		assert pCaller != null;
+		return Collections.unmodifiableList(aCalls.getOrDefault(pCaller, Collections.emptyList()));
+	}
+
+	/**
+	 * @param pCallee The node whose incoming calls we want.
+	 * @return An unmodifiable list of the call edges ending at pCallee,
+	 * in diagram order.
+	 * @pre pCallee != null
+	 */
+	List<CallEdge> callsTo(Node pCallee)
+	{
+		assert pCallee != null;
+		return Collections.unmodifiableList(aCallers.getOrDefault(pCallee, Collections.emptyList()));
+	}
+
+	/**
+	 * @param pNode The node to check.
+	 * @return The number of call nodes upstream in the control-flow
+	 * that are on the same implicit parameter node as pNode.
+	 * @pre pNode != null
+	 */
+	int nestingDepth(CallNode pNode)
+	{
+		assert pNode != null;
+		Integer depth = aNestingDepths.get(pNode);
+		if( depth == null )
+		{
+			depth = computeNestingDepth(pNode);
+			aNestingDepths.put(pNode, depth);
+		}
+		return depth;
+	}
+
+	private int computeNestingDepth(CallNode pNode)
+	{
+		int result = 0;
+		List<CallEdge> callers = callsTo(pNode);
+		while( !callers.isEmpty() )
+		{
+			Node caller = callers.get(0).getStart();
+			if( caller instanceof CallNode && ((CallNode)caller).getParent() == pNode.getParent() )
+			{
+				result++;
+			}
+			callers = callsTo(caller);
+		}
+		return result;
+	}
+
+	private static List<CallEdge> edgesFrom(Map<Node, List<CallEdge>> pIndex, Node pNode)
+	{
+		List<CallEdge> result = pIndex.get(pNode);
+		if( result == null )
+		{
+			result = new ArrayList<>();
+			pIndex.put(pNode, result);
+		}
+		return result;
+	}
+
+	private static void removeFrom(Map<Node, List<CallEdge>> pIndex, Node pNode, CallEdge pEdge)
+	{
+		List<CallEdge> edges = pIndex.get(pNode);
+		if( edges == null )
+		{
+			return;
+		}
+		edges.remove(pEdge);
+		if( edges.isEmpty() )
+		{
+			pIndex.remove(pNode);
+		}
+	}
+}
@@ -32,11 +32,14 @@ import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
 /**
  * An immutable wrapper around a SequenceDiagram that can answer
  * various queries about the control-flow represented by 
- * the wrapped sequence diagram.
+ * the wrapped sequence diagram. Queries are answered from the
+ * call graph index maintained by the diagram, so creating a 
+ * ControlFlow object is cheap.
  */
 public final class ControlFlow
 {
 	private final SequenceDiagram aDiagram;
+	private final CallGraph aCallGraph;
 	
 	/**
 	 * Creates a new ControlFlow to query pDiagram.
@@ -48,6 +51,7 @@ public final class ControlFlow
 	{
 		assert pDiagram != null;
 		aDiagram = pDiagram;
+		aCallGraph = pDiagram.callGraph();
 	}
 	
 	/**
@@ -63,12 +67,9 @@ public final class ControlFlow
 	{
 		assert pNode != null && aDiagram.contains(pNode);
 		List<Node> callees = new ArrayList<Node>();
-		for(Edge edge : aDiagram.edges() )
+		for( CallEdge edge : aCallGraph.callsFrom(pNode) )
 		{
-			if ( edge.getStart() == pNode && edge.getClass() == CallEdge.class )
-			{
-				callees.add(edge.getEnd());
-			}
+			callees.add(edge.getEnd());
 		}
 		return callees;
 	}
@@ -81,15 +82,7 @@ public final class ControlFlow
 	public List<CallEdge> getCalls(Node pCaller)
 	{
 		assert pCaller != null;
-		ArrayList<CallEdge> result = new ArrayList<>();
-		for( Edge edge : aDiagram.edges() )
-		{
-			if( edge.getClass() == CallEdge.class && edge.getStart() == pCaller )
-			{
-				result.add((CallEdge)edge);
-			}
-		}
-		return result;
+		return new ArrayList<>(aCallGraph.callsFrom(pCaller));
 	}
 	
 	/**
@@ -103,14 +96,12 @@ public final class ControlFlow
 	public Optional<CallNode> getCaller(Node pNode)
 	{
 		assert pNode != null && aDiagram.contains(pNode);
-		for( Edge edge : aDiagram.edges() )
+		List<CallEdge> callers = aCallGraph.callsTo(pNode);
+		if( callers.isEmpty() )
 		{
-			if( edge.getEnd() == pNode  && edge.getClass() == CallEdge.class )
-			{
-				return Optional.of((CallNode) edge.getStart());
-			}
+			return Optional.empty();
 		}
-		return Optional.empty();
+		return Optional.of((CallNode) callers.get(0).getStart());
 	}
 	
 	/**
@@ -126,8 +117,7 @@ public final class ControlFlow
 		assert pNode != null;
 		Optional<CallNode> caller = getCaller(pNode);
 		assert caller.isPresent();
-		List<Node> callees = getCallees(caller.get());
-		return callees.get(0) == pNode;
+		return aCallGraph.callsFrom(caller.get()).get(0).getEnd() == pNode;
 	}
 	
 	/**
@@ -174,17 +164,7 @@ public final class ControlFlow
 	public int getNestingDepth(CallNode pNode)
 	{
 		assert pNode != null;
-		int result = 0;
-		Optional<CallNode> node = getCaller(pNode);
-		while(node.isPresent())
-		{
-			if(node.get().getParent() == pNode.getParent())
-			{
-				result++;
-			}
-			node = getCaller(node.get());
-		}
-		return result;
+		return aCallGraph.nestingDepth(pNode);
 	}
 	
 	/**
@@ -210,7 +190,7 @@ public final class ControlFlow
 	public boolean hasNoCallees(CallNode pNode)
 	{
 		assert pNode != null;
-		return getCallees(pNode).isEmpty();
+		return aCallGraph.callsFrom(pNode).isEmpty();
 	}
 	
 	/**
@@ -220,7 +200,7 @@ public final class ControlFlow
 	 */
 	public boolean onlyConnectedToOneCall(CallNode pNode, CallEdge pCallee)
 	{
-		List<CallEdge> calls = getCalls(pNode);
+		List<CallEdge> calls = aCallGraph.callsFrom(pNode);
 		return !getCaller(pNode).isPresent() &&
 				calls.size() == 1 &&
 				calls.contains(pCallee);
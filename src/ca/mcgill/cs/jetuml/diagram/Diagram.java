@@ -22,8 +22,10 @@ package ca.mcgill.cs.jetuml.diagram;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import ca.mcgill.cs.jetuml.diagram.nodes.ParentNode;
+import ca.mcgill.cs.jetuml.views.DiagramView;
 
 /**
  *  Stores the logical structure of a diagram. This class hierarchy
@@ -43,14 +45,27 @@ public abstract class Diagram implements DiagramData
 	 */
 	private ArrayList<Node> aRootNodes;
 	private ArrayList<Edge> aEdges;
+	private int aEdgeVersion = 0;
+	private int aRootNodeVersion = 0;
+	private final ParallelEdges aParallelEdges = new ParallelEdges();
+	private final DiagramView aView;
 
 	/**
-	 * Creates an empty diagram.
+	 * Creates an empty diagram and the view that computes its geometry.
 	 */
 	public Diagram()
 	{
 		aRootNodes = new ArrayList<>();
 		aEdges = new ArrayList<>();
+		aView = DiagramType.newViewInstanceFor(this);
+	}
+	
+	/**
+	 * @return The view that draws this diagram and computes its geometry.
+	 */
+	public DiagramView getView()
+	{
+		return aView;
 	}
 	
 	@Override
@@ -161,6 +176,23 @@ public abstract class Diagram implements DiagramData
 		}
 		return lReturn;
 	}
+	
+	/**
+	 * Gets the edges of a given class from one node to another
+	 * without scanning all the edges of the diagram.
+	 * 
+	 * @param pStart The start node of the edges.
+	 * @param pEnd The end node of the edges.
+	 * @param pType The exact class of the edges.
+	 * @return An unmodifiable list of the edges of class pType from pStart to 
+	 * pEnd, in the order in which they appear in the list of edges.
+	 * @pre pStart != null && pEnd != null && pType != null
+	 */
+	public List<Edge> edgesBetween(Node pStart, Node pEnd, Class<? extends Edge> pType)
+	{
+		assert pStart != null && pEnd != null && pType != null;
+		return aParallelEdges.between(pStart, pEnd, pType);
+	}
 
 	/**
 	 * Adds pNode as a root node in this diagram. Callers of this method 
@@ -173,6 +205,7 @@ public abstract class Diagram implements DiagramData
 	{
 		assert pNode != null;
 		aRootNodes.add(pNode);
+		aRootNodeVersion++;
 	}
 	
 	/**
@@ -187,6 +220,7 @@ public abstract class Diagram implements DiagramData
 	{
 		assert pNode != null && aRootNodes.contains(pNode);
 		aRootNodes.remove(pNode);
+		aRootNodeVersion++;
 	}
 	
 	/**
@@ -200,6 +234,8 @@ public abstract class Diagram implements DiagramData
 	{
 		assert pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null && pEdge.getDiagram() != null;
 		aEdges.add(pEdge);
+		aParallelEdges.append(pEdge);
+		aEdgeVersion++;
 	}
 	
 	/**
@@ -225,6 +261,8 @@ public abstract class Diagram implements DiagramData
 	{
 		assert pEdge != null && pIndex >=0 && pIndex <= aEdges.size();
 		aEdges.add(pIndex, pEdge);
+		aParallelEdges.insert(pEdge, aEdges);
+		aEdgeVersion++;
 	}
 	
 	/**
@@ -246,5 +284,35 @@ public abstract class Diagram implements DiagramData
 	{
 		assert pEdge != null && aEdges.contains(pEdge);
 		aEdges.remove(pEdge);
+		aParallelEdges.remove(pEdge);
+		aEdgeVersion++;
+	}
+	
+	/**
+	 * Records that a property of one of the edges of this diagram was set.
+	 */
+	public void edgePropertyChanged()
+	{
+		aEdgeVersion++;
+	}
+	
+	/**
+	 * @return A number that changes every time an edge is added to or removed 
+	 * from this diagram, or a property of one of its edges is set. Views that 
+	 * cache geometry derived from the edges can compare it with a previous value
+	 * to detect changes.
+	 */
+	public int getEdgeVersion()
+	{
+		return aEdgeVersion;
+	}
+	
+	/**
+	 * @return A number that changes every time a root node is added to or
+	 * removed from this diagram.
+	 */
+	public int getRootNodeVersion()
+	{
+		return aRootNodeVersion;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+
+package ca.mcgill.cs.jetuml.diagram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An index of the edges of a diagram by start node, end node, and 
+ * class of edge, kept up to date by the diagram as edges are added 
+ * and removed. For each such triple, the index stores the edges in
+ * the order in which they appear in the list of edges of the diagram.
+ *
+ * The index assumes that edges are connected to their nodes before 
+ * they are added to the diagram, and not reconnected while they are 
+ * in it, which is what the diagram builders guarantee.
+ */
+final class ParallelEdges
+{
+	private final Map<Key, List<Edge>> aEdges = new HashMap<>();
+
+	/**
+	 * Records pEdge as the last edge of the diagram.
+	 *
+	 * @param pEdge The edge that was appended to the diagram.
+	 * @pre pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null
+	 */
+	void append(Edge pEdge)
+	{
+		assert pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null;
+		edgesFor(pEdge).add(pEdge);
+	}
+
+	/**
+	 * Records pEdge, which was inserted somewhere in the middle of the
+	 * edges of a diagram. Requires a scan of the diagram's edges to
+	 * find the position of pEdge relative to the other edges with the
+	 * same nodes and class.
+	 *
+	 * @param pEdge The edge that was inserted in the diagram.
+	 * @param pEdges All the edges of the diagram, including pEdge, in order.
+	 * @pre pEdge != null && pEdges != null
+	 */
+	void insert(Edge pEdge, Iterable<Edge> pEdges)
+	{
+		assert pEdge != null && pEdges != null;
+		int index = 0;
+		for( Edge edge : pEdges )
+		{
+			if( edge == pEdge )
+			{
+				break;
+			}
+			if( edge.getClass() == pEdge.getClass() && edge.getStart() == pEdge.getStart() && 
+					edge.getEnd() == pEdge.getEnd() )
+			{
+				index++;
+			}
+		}
+		edgesFor(pEdge).add(index, pEdge);
+	}
+
+	/**
+	 * Removes pEdge from the index.
+	 *
+	 * @param pEdge The edge that was removed from the diagram.
+	 * @pre pEdge != null
+	 */
+	void remove(Edge pEdge)
+	{
+		assert pEdge != null;
+		Key key = new Key(pEdge.getStart(), pEdge.getEnd(), pEdge.getClass());
+		List<Edge> edges = aEdges.get(key);
+		if( edges == null )
+		{
+			return;
+		}
+		edges.remove(pEdge);
+		if( edges.isEmpty() )
+		{
+			aEdges.remove(key);
+		}
+	}
+
+	/**
+	 * @param pStart The start node.
+	 * @param pEnd The end node.
+	 * @param pType The exact class of the edges.
+	 * @return An unmodifiable list of the edges of class pType from pStart
+	 * to pEnd, in diagram order.
+	 * @pre pStart != null && pEnd != null && pType != null
+	 */
+	List<Edge> between(Node pStart, Node pEnd, Class<? extends Edge> pType)
+	{
+		assert pStart != null && pEnd != null && pType != null;
+		return Collections.unmodifiableList(aEdges.getOrDefault(new Key(pStart, pEnd, pType), Collections.emptyList()));
+	}
+
+	private List<Edge> edgesFor(Edge pEdge)
+	{
+		return aEdges.computeIfAbsent(new Key(pEdge.getStart(), pEdge.getEnd(), pEdge.getClass()), 
+				pKey -> new ArrayList<>());
+	}
+
+	private static final class Key
+	{
+		private final Node aStart;
+		private final Node aEnd;
+		private final Class<? extends Edge> aType;
+
+		Key(Node pStart, Node pEnd, Class<? extends Edge> pType)
+		{
+			aStart = pStart;
+			aEnd = pEnd;
+			aType = pType;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(System.identityHashCode(aStart), System.identityHashCode(aEnd), aType);
+		}
+
+		@Override
+		public boolean equals(Object pObject)
+		{
+			if( this == pObject )
+			{
+				return true;
+			}
+			if( pObject == null || pObject.getClass() != getClass() )
+			{
+				return false;
+			}
+			Key other = (Key) pObject;
+			return aStart == other.aStart && aEnd == other.aEnd && aType == other.aType;
+		}
+	}
+}
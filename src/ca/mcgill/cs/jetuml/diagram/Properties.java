@@ -45,6 +45,28 @@ import java.util.function.Supplier;
 public class Properties implements Iterable<Property>
 {
 	private final List<Property> aProperties = new ArrayList<>();
+	private final Runnable aListener;
+	
+	/**
+	 * Creates an empty list of properties.
+	 */
+	public Properties()
+	{
+		this(() -> {});
+	}
+	
+	/**
+	 * Creates an empty list of properties that runs pListener every 
+	 * time the value of one of its properties is set.
+	 * 
+	 * @param pListener The code to run after a property is set.
+	 * @pre pListener != null
+	 */
+	public Properties(Runnable pListener)
+	{
+		assert pListener != null;
+		aListener = pListener;
+	}
 	
 	/**
 	 * Adds a visible property to the list. The property is added at the end of the list.
@@ -59,10 +81,22 @@ public class Properties implements Iterable<Property>
 		assert pName != null && pGetter != null & pSetter != null;
 		if( !contains(pName) )
 		{
-			aProperties.add(new Property(pName, pGetter, pSetter, true));
+			aProperties.add(new Property(pName, pGetter, notifying(pSetter), true));
 		}
 	}
 	
+	/*
+	 * Wraps pSetter so that the listener is informed of the change.
+	 */
+	private Consumer<Object> notifying(Consumer<Object> pSetter)
+	{
+		return pValue -> 
+		{
+			pSetter.accept(pValue);
+			aListener.run();
+		};
+	}
+	
 	/**
 	 * @param pName The name to check
 	 * @return True if there is already a property with this name in the list.
@@ -111,7 +145,7 @@ public class Properties implements Iterable<Property>
 		assert pName != null && pGetter != null & pSetter != null;
 		if( !contains(pName) )
 		{
-			aProperties.add(new Property(pName, pGetter, pSetter, false));
+			aProperties.add(new Property(pName, pGetter, notifying(pSetter), false));
 		}
 	}
 	
@@ -131,7 +165,7 @@ public class Properties implements Iterable<Property>
 		assert pIndex >=0 && pIndex <= aProperties.size();
 		if( !contains(pName) )
 		{
-			aProperties.add(pIndex, new Property(pName, pGetter, pSetter, true));
+			aProperties.add(pIndex, new Property(pName, pGetter, notifying(pSetter), true));
 		}
 	}
 
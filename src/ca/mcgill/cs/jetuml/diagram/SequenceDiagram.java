@@ -37,6 +37,8 @@ public final class SequenceDiagram extends Diagram
 	private static final Node[] NODE_PROTOTYPES = new Node[]{new ImplicitParameterNode(), new NoteNode()};
 	private static final Edge[] EDGE_PROTOTYPES = new Edge[]{new CallEdge(), new ReturnEdge(), new NoteEdge()};
 	
+	private final CallGraph aCallGraph = new CallGraph();
+	
 	@Override
 	public Node[] getNodePrototypes()
 	{
@@ -60,4 +62,42 @@ public final class SequenceDiagram extends Diagram
 	{
 		return RESOURCES.getString("sequencediagram.file.name");
 	}
+	
+	@Override
+	public void addEdge(Edge pEdge)
+	{
+		super.addEdge(pEdge);
+		if( pEdge instanceof CallEdge )
+		{
+			aCallGraph.append((CallEdge)pEdge);
+		}
+	}
+	
+	@Override
+	public void addEdge(int pIndex, Edge pEdge)
+	{
+		super.addEdge(pIndex, pEdge);
+		if( pEdge instanceof CallEdge )
+		{
+			aCallGraph.insert((CallEdge)pEdge, edges());
+		}
+	}
+	
+	@Override
+	public void removeEdge(Edge pEdge)
+	{
+		super.removeEdge(pEdge);
+		if( pEdge instanceof CallEdge )
+		{
+			aCallGraph.remove((CallEdge)pEdge);
+		}
+	}
+	
+	/**
+	 * @return The index of the call edges in this diagram.
+	 */
+	CallGraph callGraph()
+	{
+		return aCallGraph;
+	}
 }
@@ -21,9 +21,6 @@
 
 package ca.mcgill.cs.jetuml.diagram.builder;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import ca.mcgill.cs.jetuml.diagram.ClassDiagram;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Edge;
@@ -60,7 +57,7 @@ public class ClassDiagramBuilder extends DiagramBuilder
 		DiagramOperation result = null;
 		if( validChild(pNode))
 		{
-			PackageNode container = findContainer(aDiagram.rootNodes(), pRequestedPosition);
+			PackageNode container = findContainer(pRequestedPosition);
 			if( container != null )
 			{
 				positionNode(pNode, pRequestedPosition);
@@ -91,39 +88,10 @@ public class ClassDiagramBuilder extends DiagramBuilder
 	}
 	
 	/* Find if the node to be added should be added to a package. Returns null if not. 
-	 * If packages overlap, select the last one added, which by default should be on
-	 * top. This could be fixed if we ever add a z coordinate to the diagram.
+	 * If packages overlap, select the one drawn last, which is on top.
 	 */
-	private PackageNode findContainer( Iterable<Node> pNodes, Point pPoint)
+	private PackageNode findContainer(Point pPoint)
 	{
-		PackageNode container = null;
-		for( Node node : pNodes )
-		{
-			if( node instanceof PackageNode && node.view().contains(pPoint) )
-			{
-				container = (PackageNode) node;
-			}
-		}
-		if( container == null )
-		{
-			return null;
-		}
-		List<Node> children = new ArrayList<>(container.getChildren());
-		if( children.size() == 0 )
-		{
-			return container;
-		}
-		else
-		{
-			PackageNode deeperContainer = findContainer( children, pPoint );
-			if( deeperContainer == null )
-			{
-				return container;
-			}
-			else
-			{
-				return deeperContainer;
-			}
-		}
+		return (PackageNode) getView().findNode(pPoint, node -> node instanceof PackageNode).orElse(null);
 	}
 }
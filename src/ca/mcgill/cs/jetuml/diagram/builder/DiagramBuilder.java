@@ -32,7 +32,6 @@ import java.util.Optional;
 
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramElement;
-import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.builder.constraints.ConstraintSet;
@@ -76,7 +75,7 @@ public abstract class DiagramBuilder
 	{
 		assert pDiagram != null;
 		aDiagram = pDiagram;
-		aDiagramView = DiagramType.newViewInstanceFor(aDiagram);
+		aDiagramView = aDiagram.getView();
 	}
 	
 	/**
@@ -21,8 +21,6 @@
 
 package ca.mcgill.cs.jetuml.diagram.builder;
 
-import java.util.ArrayList;
-
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
@@ -89,36 +87,29 @@ public class ObjectDiagramBuilder extends DiagramBuilder
 	
 	/* Find if the node to be added can be added to an object. Returns null if not. 
 	 * If a node is already the parent of the field (from a previously undone operation),
-	 * return this node. Otherwise, find if a node is at the point
+	 * return this node. Otherwise, find the object drawn last at the point.
 	 */
 	private ObjectNode findObject(FieldNode pNode, Point pPoint)
 	{
-		ArrayList<ObjectNode> candidates = new ArrayList<>();
+		if( pNode.getParent() != null && isRootNode(pNode.getParent()) )
+		{
+			return (ObjectNode) pNode.getParent();
+		}
+		// canAddNodeAsChild ensures the downcast is valid
+		return (ObjectNode) getView().findNode(pPoint, 
+				node -> node != pNode && canAddNodeAsChild(node, pNode)).orElse(null);
+	}
+	
+	private boolean isRootNode(Node pNode)
+	{
 		for( Node node : aDiagram.rootNodes() )
 		{
 			if( node == pNode )
 			{
-				continue;
-			}
-			else if( pNode.getParent() == node )
-			{
-				return (ObjectNode)node;
+				return true;
 			}
-			else if( node.view().contains(pPoint) && canAddNodeAsChild(node, pNode))
-			{
-				candidates.add((ObjectNode)node); // canAddNodeAsChild ensures the downcast is valid
-			}
-		}
-		// Pick the last node in the list as some inexact but simple
-		// heuristic for choosing the top node. We'll need a z-coordinate to do better.
-		if( candidates.size() > 0 )
-		{
-			return candidates.get(candidates.size()-1);
-		}
-		else
-		{
-			return null;
 		}
+		return false;
 	}
 	
 	private static boolean canAddNodeAsChild(Node pParent, Node pPotentialChild)
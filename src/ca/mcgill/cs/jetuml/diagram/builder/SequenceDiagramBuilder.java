@@ -127,20 +127,11 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 	{
 		if( pElement instanceof CallEdge )
 		{
-			Edge returnEdge = null;
 			Edge input = (CallEdge) pElement;
-			for( Edge edge : aDiagram.edges() )
+			List<Edge> returnEdges = aDiagram.edgesBetween(input.getEnd(), input.getStart(), ReturnEdge.class);
+			if( !returnEdges.isEmpty() )
 			{
-				if( edge instanceof ReturnEdge && edge.getStart() == input.getEnd() && edge.getEnd() == input.getStart())
-				{
-					returnEdge = edge;
-					break;
-				}
-			}
-			if( returnEdge != null )
-			{
-				final Edge target = returnEdge;
-				pElements.add(target);
+				pElements.add(returnEdges.get(0));
 			}
 		}
 	}
@@ -90,14 +90,6 @@ public final class EdgeConstraints
 	private static int numberOfEdges(Class<? extends Edge> pType, Node pStart, Node pEnd, Diagram pDiagram)
 	{
 		assert pType != null && pStart != null && pEnd != null && pDiagram != null;
-		int result = 0;
-		for(Edge edge : pDiagram.edges())
-		{
-			if(edge.getClass() == pType && edge.getStart() == pStart && edge.getEnd() == pEnd)
-			{
-				result++;
-			}
-		}
-		return result;
+		return pDiagram.edgesBetween(pStart, pEnd, pType).size();
 	}
 }
@@ -106,6 +106,20 @@ public abstract class AbstractEdge extends AbstractDiagramElement implements Edg
 		return aView;
 	}
 	
+	/*
+	 * The properties of an edge can affect the layout of the other 
+	 * edges connected to the same nodes.
+	 */
+	@Override
+	protected void propertyChanged()
+	{
+		aView.invalidate();
+		if( aDiagram != null )
+		{
+			aDiagram.edgePropertyChanged();
+		}
+	}
+	
 	@Override
 	public String toString()
 	{
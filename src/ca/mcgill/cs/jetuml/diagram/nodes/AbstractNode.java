@@ -46,6 +46,40 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public void translate(int pDeltaX, int pDeltaY)
 	{
 		aPosition = new Point( aPosition.getX() + pDeltaX, aPosition.getY() + pDeltaY );
+		invalidateViews();
+	}
+	
+	/**
+	 * Informs the view of this node, and the views of all its ancestors,
+	 * that the geometry of this node may have changed. Must be called
+	 * by any method that changes how this node is drawn.
+	 */
+	protected final void invalidateViews()
+	{
+		aView.invalidate();
+		ParentNode parent = null;
+		if( this instanceof ChildNode )
+		{
+			parent = ((ChildNode)this).getParent();
+		}
+		while( parent != null )
+		{
+			parent.view().invalidate();
+			if( parent instanceof ChildNode )
+			{
+				parent = ((ChildNode)parent).getParent();
+			}
+			else
+			{
+				parent = null;
+			}
+		}
+	}
+	
+	@Override
+	protected void propertyChanged()
+	{
+		invalidateViews();
 	}
 	
 	/**
@@ -73,6 +107,7 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public void moveTo(Point pPoint)
 	{
 		aPosition = pPoint;
+		invalidateViews();
 	}
 
 	@Override
@@ -45,6 +45,7 @@ public final class FieldNode extends NamedNode implements ChildNode
 	public void setValue(String pNewValue)
 	{
 		aValue = pNewValue;
+		invalidateViews();
 	}
 
 	/**
@@ -83,6 +83,7 @@ public final class ImplicitParameterNode extends NamedNode implements ParentNode
 		}
 		aCallNodes.add(pNode);
 		pNode.setParent(this);
+		invalidateViews();
 	}
 
 	@Override
@@ -94,6 +95,7 @@ public final class ImplicitParameterNode extends NamedNode implements ParentNode
 		}
 		aCallNodes.remove(pNode);
 		pNode.setParent(null);
+		invalidateViews();
 	}
 	
 	/**
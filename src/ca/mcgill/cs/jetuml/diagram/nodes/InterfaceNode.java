@@ -55,6 +55,7 @@ public class InterfaceNode extends NamedNode implements ChildNode
 	public void setMethods(String pMethods)
 	{
 		aMethods = pMethods;
+		invalidateViews();
 	}
 	
 	/**
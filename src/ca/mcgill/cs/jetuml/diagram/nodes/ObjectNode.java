@@ -88,6 +88,7 @@ public final class ObjectNode extends NamedNode implements ParentNode
 		}
 		aFields.add(pIndex, pNode);
 		pNode.setParent(this);
+		invalidateViews();
 	}
 
 	@Override
@@ -106,5 +107,6 @@ public final class ObjectNode extends NamedNode implements ParentNode
 		}
 		aFields.remove(pNode);
 		pNode.setParent(null);
+		invalidateViews();
 	}
 }
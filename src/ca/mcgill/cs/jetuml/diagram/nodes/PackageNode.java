@@ -51,6 +51,7 @@ public final class PackageNode extends AbstractNode implements ParentNode, Child
 	public void setName(String pName)
 	{
 		aName = pName;
+		invalidateViews();
 	}
 
 	/**
@@ -69,6 +70,7 @@ public final class PackageNode extends AbstractNode implements ParentNode, Child
 	public void setContents(String pContents)
 	{
 		aContents = pContents;
+		invalidateViews();
 	}
 	
 	@Override
@@ -137,6 +139,7 @@ public final class PackageNode extends AbstractNode implements ParentNode, Child
 		}
 		aContainedNodes.add(pIndex, pNode);
 		pNode.setParent(this);
+		invalidateViews();
 	}
 
 	@Override
@@ -151,6 +154,7 @@ public final class PackageNode extends AbstractNode implements ParentNode, Child
 	{
 		aContainedNodes.remove(pNode);
 		pNode.setParent(null);
+		invalidateViews();
 	}
 	
 	@Override
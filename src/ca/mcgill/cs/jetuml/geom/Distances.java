@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.geom;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Computes the distance between a point and various geometric figures.
+ * Used to test whether a point hits a figure without having to build
+ * and query a JavaFX shape.
+ */
+public final class Distances
+{
+	private static final double EPSILON = 1e-9;
+	private static final int DEGREE_3 = 3;
+	private static final int CUBE_DENOMINATOR = 27;
+	
+	private Distances()
+	{}
+	
+	/**
+	 * @param pPoint The point to test.
+	 * @param pStart One end of the segment.
+	 * @param pEnd The other end of the segment.
+	 * @return The shortest distance between pPoint and any point of the segment.
+	 * @pre pPoint != null && pStart != null && pEnd != null
+	 */
+	public static double pointToSegment(Point2D pPoint, Point2D pStart, Point2D pEnd)
+	{
+		assert pPoint != null && pStart != null && pEnd != null;
+		double dx = pEnd.getX() - pStart.getX();
+		double dy = pEnd.getY() - pStart.getY();
+		double lengthSquared = dx * dx + dy * dy;
+		if( lengthSquared < EPSILON )
+		{
+			return pPoint.distance(pStart);
+		}
+		double t = ((pPoint.getX() - pStart.getX()) * dx + (pPoint.getY() - pStart.getY()) * dy) / lengthSquared;
+		t = Math.max(0, Math.min(1, t));
+		return Math.hypot(pPoint.getX() - (pStart.getX() + t * dx), pPoint.getY() - (pStart.getY() + t * dy));
+	}
+	
+	/**
+	 * @param pPoint The point to test.
+	 * @param pVertices The vertices of a polyline, in order.
+	 * @return The shortest distance between pPoint and any segment of the polyline,
+	 * or Double.POSITIVE_INFINITY if the polyline has no vertex.
+	 * @pre pPoint != null && pVertices != null
+	 */
+	public static double pointToPolyline(Point2D pPoint, Point2D[] pVertices)
+	{
+		assert pPoint != null && pVertices != null;
+		if( pVertices.length == 1 )
+		{
+			return pPoint.distance(pVertices[0]);
+		}
+		double result = Double.POSITIVE_INFINITY;
+		for( int i = 1; i < pVertices.length; i++ )
+		{
+			result = Math.min(result, pointToSegment(pPoint, pVertices[i-1], pVertices[i]));
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes the distance between a point and a quadratic Bezier curve. The
+	 * closest point of the curve is either one of its ends or a point where the 
+	 * tangent of the curve is perpendicular to the direction of pPoint, which
+	 * is found by solving a cubic equation.
+	 * 
+	 * @param pPoint The point to test.
+	 * @param pStart The start point of the curve.
+	 * @param pControl The control point of the curve.
+	 * @param pEnd The end point of the curve.
+	 * @return The shortest distance between pPoint and any point of the curve.
+	 * @pre pPoint != null && pStart != null && pControl != null && pEnd != null
+	 */
+	public static double pointToQuadraticCurve(Point2D pPoint, Point2D pStart, Point2D pControl, Point2D pEnd)
+	{
+		assert pPoint != null && pStart != null && pControl != null && pEnd != null;
+		// B(t) = pStart + 2t * a + t^2 * b
+		double ax = pControl.getX() - pStart.getX();
+		double ay = pControl.getY() - pStart.getY();
+		double bx = pEnd.getX() - 2 * pControl.getX() + pStart.getX();
+		double by = pEnd.getY() - 2 * pControl.getY() + pStart.getY();
+		double mx = pStart.getX() - pPoint.getX();
+		double my = pStart.getY() - pPoint.getY();
+		
+		// (B(t) - pPoint) . B'(t) = 0
+		double[] roots = solveCubic(bx * bx + by * by, DEGREE_3 * (ax * bx + ay * by), 
+				2 * (ax * ax + ay * ay) + mx * bx + my * by, mx * ax + my * ay);
+		
+		double result = Math.min(pPoint.distance(pStart), pPoint.distance(pEnd));
+		for( double t : roots )
+		{
+			if( t > 0 && t < 1 )
+			{
+				double x = mx + 2 * t * ax + t * t * bx;
+				double y = my + 2 * t * ay + t * t * by;
+				result = Math.min(result, Math.hypot(x, y));
+			}
+		}
+		return result;
+	}
+	
+	/*
+	 * Returns the real roots of pA t^3 + pB t^2 + pC t + pD = 0, degrading to lower 
+	 * degree equations when the leading coefficients are zero.
+	 */
+	private static double[] solveCubic(double pA, double pB, double pC, double pD)
+	{
+		if( Math.abs(pA) < EPSILON )
+		{
+			return solveQuadratic(pB, pC, pD);
+		}
+		double b = pB / pA;
+		double c = pC / pA;
+		double d = pD / pA;
+		double offset = b / DEGREE_3;
+		// Depressed cubic u^3 + pu + q = 0 with t = u - offset
+		double p = c - b * b / DEGREE_3;
+		double q = 2 * b * b * b / CUBE_DENOMINATOR - b * c / DEGREE_3 + d;
+		double discriminant = q * q / 4 + p * p * p / CUBE_DENOMINATOR;
+		if( discriminant > EPSILON )
+		{
+			double root = Math.sqrt(discriminant);
+			return new double[] { Math.cbrt(-q / 2 + root) + Math.cbrt(-q / 2 - root) - offset };
+		}
+		if( discriminant > -EPSILON )
+		{
+			double u = Math.cbrt(-q / 2);
+			return new double[] { 2 * u - offset, -u - offset };
+		}
+		double radius = 2 * Math.sqrt(-p / DEGREE_3);
+		double cosine = Math.max(-1, Math.min(1, DEGREE_3 * q / (p * radius)));
+		double angle = Math.acos(cosine) / DEGREE_3;
+		double[] roots = new double[DEGREE_3];
+		for( int k = 0; k < DEGREE_3; k++ )
+		{
+			roots[k] = radius * Math.cos(angle - 2 * Math.PI * k / DEGREE_3) - offset;
+		}
+		return roots;
+	}
+	
+	private static double[] solveQuadratic(double pA, double pB, double pC)
+	{
+		if( Math.abs(pA) < EPSILON )
+		{
+			if( Math.abs(pB) < EPSILON )
+			{
+				return new double[0];
+			}
+			return new double[] { -pC / pB };
+		}
+		double discriminant = pB * pB - 4 * pA * pC;
+		if( discriminant < 0 )
+		{
+			return new double[0];
+		}
+		double root = Math.sqrt(discriminant);
+		return new double[] { (-pB + root) / (2 * pA), (-pB - root) / (2 * pA) };
+	}
+}
@@ -20,41 +20,87 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.gui;
 
+import java.util.Optional;
+
 import ca.mcgill.cs.jetuml.application.UserPreferences;
 import ca.mcgill.cs.jetuml.application.UserPreferences.BooleanPreference;
 import ca.mcgill.cs.jetuml.application.UserPreferences.BooleanPreferenceChangeHandler;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.DiagramView;
 import ca.mcgill.cs.jetuml.views.Grid;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
+import ca.mcgill.cs.jetuml.views.ViewUtils;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
- * A canvas on which to view diagrams.
+ * A canvas on which to view diagrams. The diagram is drawn on this canvas,
+ * which keeps it from one paint to the next, while the selection handles and 
+ * the rubberband and lasso tools are drawn on a transparent overlay canvas that
+ * must be stacked on top of it. Changes to the selection or to the tools only 
+ * redraw the overlay.
+ * 
+ * The canvas is only as large as the viewport in which it is shown, so its
+ * memory footprint does not depend on the size of the diagram. The diagram is
+ * drawn through a transform that scales it by the zoom factor and translates 
+ * it so that the scrolled-to part of the zoomed diagram is visible. 
  */
 public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanPreferenceChangeHandler
 {	
 	private static final double LINE_WIDTH = 0.6;
+	private static final int VISIBLE_AREA_MARGIN = 2;
+	private static final int DAMAGE_MARGIN = 10;
+	private static final double MIN_ZOOM = 0.1;
+	private static final double MAX_ZOOM = 4;
 	
 	private DiagramView aDiagramView;
+	private final Canvas aOverlay;
+	private final int aDiagramWidth;
+	private final int aDiagramHeight;
+	private double aZoom = 1;
+	private int aScrollX = 0;
+	private int aScrollY = 0;
 	private DiagramCanvasController aController;
+	private Optional<Rectangle> aPaintedDecorations = Optional.empty();
+	private final RepaintScheduler aRepaintScheduler = new RepaintScheduler(this::paintRequested);
+	private boolean aFullPaintRequested = false;
+	private boolean aDraft = false;
+	private boolean aDraftPainted = false;
 	
 	/**
-	 * Constructs the canvas, assigns the diagram view to it.
+	 * Constructs the canvas, assigns the diagram view to it. The canvas is
+	 * initially empty: it must be sized to fit the viewport in which it is shown.
 	 * 
-	 * @param pDiagramView Rhe diagram view to draw on this canvas.
-	 * @param pWidth The fixed width of the canvas.
-	 * @param pHeight The fixed height of the canvas.
+	 * @param pDiagramView The diagram view to draw on this canvas.
+	 * @param pDiagramWidth The fixed width of the diagram, at a zoom of 1.
+	 * @param pDiagramHeight The fixed height of the diagram, at a zoom of 1.
 	 */
-	public DiagramCanvas(DiagramView pDiagramView, int pWidth, int pHeight)
+	public DiagramCanvas(DiagramView pDiagramView, int pDiagramWidth, int pDiagramHeight)
 	{
-		super(pWidth, pHeight);
 		getGraphicsContext2D().setLineWidth(LINE_WIDTH);
 		getGraphicsContext2D().setFill(Color.WHITE);
 		aDiagramView = pDiagramView;
+		aDiagramWidth = pDiagramWidth;
+		aDiagramHeight = pDiagramHeight;
+		aOverlay = new Canvas();
+		aOverlay.widthProperty().bind(widthProperty());
+		aOverlay.heightProperty().bind(heightProperty());
+		aOverlay.getGraphicsContext2D().setLineWidth(LINE_WIDTH);
+		aOverlay.setMouseTransparent(true);
+	}
+	
+	/**
+	 * @return The canvas on which the selection and the tools are drawn, which must 
+	 * be placed exactly on top of this canvas. It lets mouse events through and 
+	 * always has the same size as this canvas.
+	 */
+	public Canvas getOverlay()
+	{
+		return aOverlay;
 	}
 	
 	/**
@@ -82,29 +128,276 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	}
 	
 	/**
-	 * Paints the panel and all the graph elements in aDiagramView.
+	 * @return The width of the diagram, at a zoom of 1.
+	 */
+	public int getDiagramWidth()
+	{
+		return aDiagramWidth;
+	}
+	
+	/**
+	 * @return The height of the diagram, at a zoom of 1.
+	 */
+	public int getDiagramHeight()
+	{
+		return aDiagramHeight;
+	}
+	
+	/**
+	 * @return The width of the diagram, in pixels, at the current zoom.
+	 */
+	public int getZoomedDiagramWidth()
+	{
+		return zoomed(aDiagramWidth);
+	}
+	
+	/**
+	 * @return The height of the diagram, in pixels, at the current zoom.
+	 */
+	public int getZoomedDiagramHeight()
+	{
+		return zoomed(aDiagramHeight);
+	}
+	
+	private int zoomed(int pLength)
+	{
+		return (int) Math.min(Integer.MAX_VALUE, Math.round(pLength * aZoom));
+	}
+	
+	/**
+	 * @return The factor by which the diagram is scaled when it is drawn.
+	 */
+	public double getZoom()
+	{
+		return aZoom;
+	}
+	
+	/**
+	 * Sets the factor by which the diagram is scaled when it is drawn, and
+	 * requests that the canvas be painted again. The zoom is limited to the
+	 * range from MIN_ZOOM to MAX_ZOOM.
+	 * 
+	 * @param pZoom The new zoom factor.
+	 * @pre pZoom > 0
+	 */
+	public void setZoom(double pZoom)
+	{
+		assert pZoom > 0;
+		aZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, pZoom));
+		paintPanel();
+	}
+	
+	/**
+	 * Shows the part of the zoomed diagram whose top left corner is at pX, pY,
+	 * and requests that the canvas be painted again.
+	 * 
+	 * @param pX The number of pixels of the zoomed diagram hidden on the left of the canvas.
+	 * @param pY The number of pixels of the zoomed diagram hidden above the canvas.
+	 * @pre pX >= 0 && pY >= 0
+	 */
+	public void scrollTo(int pX, int pY)
+	{
+		assert pX >= 0 && pY >= 0;
+		aScrollX = pX;
+		aScrollY = pY;
+		paintPanel();
+	}
+	
+	/**
+	 * @param pX An x-coordinate on this canvas.
+	 * @param pY A y-coordinate on this canvas.
+	 * @return The point of the diagram drawn at pX, pY.
+	 */
+	public Point toDiagramPoint(double pX, double pY)
+	{
+		return new Point((int) Math.floor((pX + aScrollX) / aZoom), (int) Math.floor((pY + aScrollY) / aZoom));
+	}
+	
+	/**
+	 * While in draft mode, and if the user prefers it, the diagram is drawn 
+	 * without effects such as drop shadows, which are expensive. Leaving
+	 * draft mode requests a full-quality paint if anything was drawn
+	 * in draft mode. 
+	 * 
+	 * @param pDraft True to enter draft mode, false to leave it.
+	 */
+	public void setDraft(boolean pDraft)
+	{
+		if( aDraft && !pDraft && aDraftPainted )
+		{
+			paintPanel();
+		}
+		aDraft = pDraft;
+		aDraftPainted = false;
+	}
+	
+	/**
+	 * @return The scheduler that coalesces the requests to paint this canvas.
+	 */
+	public RepaintScheduler getRepaintScheduler()
+	{
+		return aRepaintScheduler;
+	}
+	
+	/**
+	 * Requests that the panel and all the graph elements in aDiagramView
+	 * that are in the visible area of the panel be painted at the next pulse.
 	 * Called after the panel is resized.
 	 */
 	public void paintPanel()
 	{
-		GraphicsContext context = getGraphicsContext2D();
-		context.setFill(Color.WHITE); 
-		context.fillRect(0, 0, getWidth(), getHeight());
-		if(UserPreferences.instance().getBoolean(BooleanPreference.showGrid)) 
+		aFullPaintRequested = true;
+		aRepaintScheduler.requestRepaint();
+	}
+	
+	/**
+	 * Requests that only the part of the panel that changed since it was last
+	 * painted, that is, the old and new bounds of the diagram elements that changed,
+	 * be painted again at the next pulse, with the selection handles, rubberband,
+	 * and lasso on the overlay.
+	 */
+	public void paintChanges()
+	{
+		aRepaintScheduler.requestRepaint();
+	}
+	
+	private void paintRequested()
+	{
+		if( aFullPaintRequested )
+		{
+			aFullPaintRequested = false;
+			aDiagramView.collectDamage();
+			getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+			aOverlay.getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+			aPaintedDecorations = Optional.empty();
+			getVisibleArea().ifPresent(this::paint);
+		}
+		else
 		{
-			Grid.draw(context, new Rectangle(0, 0, (int) getWidth(), (int) getHeight()));
+			Optional<Rectangle> damage = aDiagramView.collectDamage();
+			if( damage.isPresent() && getVisibleArea().isPresent() )
+			{
+				intersection(grow(damage.get(), DAMAGE_MARGIN), getVisibleArea().get()).ifPresent(this::paint);
+			}
 		}
-		aDiagramView.draw(context);
+		paintOverlay();
+	}
+	
+	/*
+	 * Only clears the parts of the overlay where something was drawn.
+	 */
+	private void paintOverlay()
+	{
 		aController.synchronizeSelectionModel();
+		GraphicsContext context = aOverlay.getGraphicsContext2D();
+		context.save();
+		applyTransform(context);
+		Optional<Rectangle> decorations = getDecorationBounds();
+		union(aPaintedDecorations, decorations).map(area -> grow(area, DAMAGE_MARGIN)).ifPresent(
+				area -> context.clearRect(area.getX(), area.getY(), area.getWidth(), area.getHeight()));
+		aPaintedDecorations = decorations;
 		aController.getSelectionModel().forEach( selected -> selected.view().drawSelectionHandles(context));
 		aController.getSelectionModel().getRubberband().ifPresent( rubberband -> ToolGraphics.drawRubberband(context, rubberband));
 		aController.getSelectionModel().getLasso().ifPresent( lasso -> ToolGraphics.drawLasso(context, lasso));
+		context.restore();
+	}
+	
+	private void applyTransform(GraphicsContext pContext)
+	{
+		pContext.setTransform(aZoom, 0, 0, aZoom, -aScrollX, -aScrollY);
+	}
+	
+	/*
+	 * The part of the diagram shown on the canvas, in diagram coordinates. The margin
+	 * accounts for rounding. The visible area is empty if the canvas is scrolled past
+	 * the end of the diagram, which can happen briefly while the zoom is changed.
+	 */
+	private Optional<Rectangle> getVisibleArea()
+	{
+		Point origin = toDiagramPoint(0, 0);
+		Rectangle viewport = grow(new Rectangle(origin.getX(), origin.getY(), 
+				(int) Math.ceil(getWidth() / aZoom), (int) Math.ceil(getHeight() / aZoom)), VISIBLE_AREA_MARGIN);
+		return intersection(viewport, new Rectangle(0, 0, aDiagramWidth, aDiagramHeight));
+	}
+	
+	/*
+	 * Everything is drawn as usual, but only the pixels inside pArea, in diagram
+	 * coordinates, are changed.
+	 */
+	private void paint(Rectangle pArea)
+	{
+		GraphicsContext context = getGraphicsContext2D();
+		context.save();
+		applyTransform(context);
+		context.beginPath();
+		context.rect(pArea.getX(), pArea.getY(), pArea.getWidth(), pArea.getHeight());
+		context.clip();
+		context.setFill(Color.WHITE); 
+		context.fillRect(pArea.getX(), pArea.getY(), pArea.getWidth(), pArea.getHeight());
+		if(UserPreferences.instance().getBoolean(BooleanPreference.showGrid)) 
+		{
+			Grid.draw(context, pArea);
+		}
+		boolean draft = aDraft && UserPreferences.instance().getBoolean(BooleanPreference.adaptiveRendering);
+		aDraftPainted |= draft;
+		ViewUtils.setEffectsEnabled(!draft);
+		aDiagramView.draw(context, pArea);
+		ViewUtils.setEffectsEnabled(true);
+		context.restore();
+	}
+	
+	/*
+	 * The selection handles are drawn around the bounds of the selected elements.
+	 */
+	private Optional<Rectangle> getDecorationBounds()
+	{
+		SelectionModel selection = aController.getSelectionModel();
+		Optional<Rectangle> result = Optional.empty();
+		for( DiagramElement selected : selection )
+		{
+			result = union(result, Optional.of(selected.view().getBounds()));
+		}
+		result = union(result, selection.getRubberband().map(
+				line -> new Rectangle(line.getX1(), line.getY1(), 0, 0).add(line.getPoint2())));
+		return union(result, selection.getLasso());
+	}
+	
+	private static Optional<Rectangle> union(Optional<Rectangle> pRectangle1, Optional<Rectangle> pRectangle2)
+	{
+		if( !pRectangle1.isPresent() )
+		{
+			return pRectangle2;
+		}
+		if( !pRectangle2.isPresent() )
+		{
+			return pRectangle1;
+		}
+		return Optional.of(pRectangle1.get().add(pRectangle2.get()));
+	}
+	
+	private static Optional<Rectangle> intersection(Rectangle pRectangle1, Rectangle pRectangle2)
+	{
+		int x = Math.max(pRectangle1.getX(), pRectangle2.getX());
+		int y = Math.max(pRectangle1.getY(), pRectangle2.getY());
+		int maxX = Math.min(pRectangle1.getMaxX(), pRectangle2.getMaxX());
+		int maxY = Math.min(pRectangle1.getMaxY(), pRectangle2.getMaxY());
+		if( maxX < x || maxY < y )
+		{
+			return Optional.empty();
+		}
+		return Optional.of(new Rectangle(x, y, maxX - x, maxY - y));
+	}
+	
+	private static Rectangle grow(Rectangle pRectangle, int pAmount)
+	{
+		return new Rectangle(pRectangle.getX() - pAmount, pRectangle.getY() - pAmount, 
+				pRectangle.getWidth() + 2 * pAmount, pRectangle.getHeight() + 2 * pAmount);
 	}
 	
 	@Override
 	public void selectionModelChanged()
 	{
-		paintPanel();		
+		paintChanges();		
 	}
 
 	@Override
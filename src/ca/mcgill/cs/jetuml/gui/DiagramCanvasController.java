@@ -80,7 +80,7 @@ public class DiagramCanvasController
 	{
 		aCanvas = pCanvas;
 		aDiagramBuilder = DiagramType.newBuilderInstanceFor(aCanvas.getDiagram());
-		aDiagramBuilder.setCanvasDimension(new Dimension((int) aCanvas.getWidth(), (int)aCanvas.getHeight()));
+		aDiagramBuilder.setCanvasDimension(new Dimension(aCanvas.getDiagramWidth(), aCanvas.getDiagramHeight()));
 		aSelectionModel = new SelectionModel(aCanvas);
 		aToolBar = pToolBar;
 		aCanvas.setOnMousePressed(e -> mousePressed(e));
@@ -142,7 +142,7 @@ public class DiagramCanvasController
 		if( edited.isPresent() )
 		{
 			PropertyEditorDialog dialog = new PropertyEditorDialog((Stage)aCanvas.getScene().getWindow(), 
-					edited.get(), ()-> aCanvas.paintPanel());
+					edited.get(), ()-> aCanvas.paintChanges());
 			
 			CompoundOperation operation = dialog.show();
 			if(!operation.isEmpty())
@@ -170,7 +170,7 @@ public class DiagramCanvasController
 			newElementList.add(element);
 		}
 		aSelectionModel.setSelectionTo(newElementList);
-		aCanvas.paintPanel();
+		aCanvas.paintChanges();
 	}
 	
 	/**
@@ -183,7 +183,7 @@ public class DiagramCanvasController
 		if( aProcessor.canUndo() )
 		{
 			aProcessor.undoLastExecutedOperation();
-			aCanvas.paintPanel();
+			aCanvas.paintChanges();
 		}
 	}
 	
@@ -197,7 +197,7 @@ public class DiagramCanvasController
 		if( aProcessor.canRedo() )
 		{
 			aProcessor.redoLastUndoneOperation();
-			aCanvas.paintPanel();
+			aCanvas.paintChanges();
 		}
 	}
 	
@@ -216,7 +216,7 @@ public class DiagramCanvasController
 	{
 		aProcessor.executeNewOperation(aDiagramBuilder.createRemoveElementsOperation(aSelectionModel));
 		aSelectionModel.clearSelection();
-		aCanvas.paintPanel();
+		aCanvas.paintChanges();
 	}
 	
 	/**
@@ -245,7 +245,7 @@ public class DiagramCanvasController
 	
 	private Point getMousePoint(MouseEvent pEvent)
 	{
-		return new Point((int)pEvent.getX(), (int)pEvent.getY());
+		return aCanvas.toDiagramPoint(pEvent.getX(), pEvent.getY());
 	}
 
 	private Optional<? extends DiagramElement> getSelectedElement(MouseEvent pEvent)
@@ -320,7 +320,7 @@ public class DiagramCanvasController
 			aProcessor.executeNewOperation(aDiagramBuilder.createAddNodeOperation(newNode, new Point(point.getX(), point.getY())));
 			setModified(true);
 			aSelectionModel.set(newNode);
-			aCanvas.paintPanel();
+			aCanvas.paintChanges();
 		}
 		else // Special behavior, if we can't add a node, we select any element at the point
 		{
@@ -390,7 +390,7 @@ public class DiagramCanvasController
 		Point point = getMousePoint(pEvent);
 		aLastMousePoint = new Point(point.getX(), point.getY()); 
 		aMouseDownPoint = aLastMousePoint;
-		aCanvas.paintPanel();
+		aCanvas.paintChanges();
 	}
 
 	private void mouseReleased(MouseEvent pEvent)
@@ -409,6 +409,7 @@ public class DiagramCanvasController
 			aSelectionModel.deactivateLasso();
 		}
 		aDragMode = DragMode.DRAG_NONE;
+		aCanvas.setDraft(false);
 	}
 	
 	/*
@@ -429,7 +430,7 @@ public class DiagramCanvasController
 			{
 				selected.translate(dx, dy);
 			}
-			aCanvas.paintPanel();
+			aCanvas.paintChanges();
 		}
 	}
 	
@@ -445,7 +446,7 @@ public class DiagramCanvasController
 						aMouseDownPoint, pMousePoint));
 				setModified(true);
 				aSelectionModel.set(newEdge);
-				aCanvas.paintPanel();
+				aCanvas.paintChanges();
 			}
 		}
 		aSelectionModel.deactivateRubberband();
@@ -459,13 +460,14 @@ public class DiagramCanvasController
 		{
 			aProcessor.storeAlreadyExecutedOperation(operation);
 		}
-		aCanvas.paintPanel();
+		aCanvas.paintChanges();
 	}
 
 	private void mouseDragged(MouseEvent pEvent)
 	{
 		Point mousePoint = getMousePoint(pEvent);
 		Point pointToReveal = mousePoint;
+		aCanvas.setDraft(aDragMode != DragMode.DRAG_NONE);
 		if(aDragMode == DragMode.DRAG_MOVE ) 
 		{
 			pointToReveal = computePointToReveal(mousePoint);
@@ -474,11 +476,7 @@ public class DiagramCanvasController
 		else if(aDragMode == DragMode.DRAG_LASSO)
 		{
 			aLastMousePoint = mousePoint;
-			if( !pEvent.isControlDown() )
-			{
-				aSelectionModel.clearSelection();
-			}
-			aSelectionModel.activateLasso(computeLasso(), aCanvas.getDiagram());
+			aSelectionModel.activateLasso(computeLasso(), aDiagramBuilder.getView());
 		}
 		else if(aDragMode == DragMode.DRAG_RUBBERBAND)
 		{
@@ -513,18 +511,18 @@ public class DiagramCanvasController
 		int dx = (int)(pMousePoint.getX() - aLastMousePoint.getX());
 		int dy = (int)(pMousePoint.getY() - aLastMousePoint.getY());
 
-		// Ensure the selection does not exceed the canvas bounds
+		// Ensure the selection does not exceed the diagram bounds
 		Rectangle bounds = aSelectionModel.getSelectionBounds();
 		dx = Math.max(dx, -bounds.getX());
 		dy = Math.max(dy, -bounds.getY());
-		dx = Math.min(dx, (int) aCanvas.getWidth() - bounds.getMaxX());
-		dy = Math.min(dy, (int) aCanvas.getHeight() - bounds.getMaxY());
+		dx = Math.min(dx, aCanvas.getDiagramWidth() - bounds.getMaxX());
+		dy = Math.min(dy, aCanvas.getDiagramHeight() - bounds.getMaxY());
 
 		for(Node selected : aSelectionModel.getSelectedNodes())
 		{
 			selected.translate(dx, dy);
 		}
 		aLastMousePoint = pMousePoint; 
-		aCanvas.paintPanel();
+		aCanvas.paintChanges();
 	}
 }
\ No newline at end of file
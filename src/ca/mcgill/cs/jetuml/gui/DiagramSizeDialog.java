@@ -24,9 +24,6 @@ import static ca.mcgill.cs.jetuml.application.ApplicationResources.RESOURCES;
 import static ca.mcgill.cs.jetuml.application.DiagramSizeUtils.MIN_SIZE;
 
 import ca.mcgill.cs.jetuml.application.DiagramSizeUtils;
-
-import static ca.mcgill.cs.jetuml.application.DiagramSizeUtils.MAX_SIZE;
-
 import ca.mcgill.cs.jetuml.application.UserPreferences;
 import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
 import javafx.geometry.Insets;
@@ -54,6 +51,7 @@ public class DiagramSizeDialog
 {
 	private static final int SPACING = 10;
 	private static final int VSPACE = 20;
+	private static final int FIELD_COLUMNS = 5;
 	
 	private final Stage aStage = new Stage();
 	private final TextField aWidthField = new TextField();
@@ -86,7 +84,6 @@ public class DiagramSizeDialog
 		
 		String message = RESOURCES.getString("dialog.diagram_size.message");
 		message = message.replace("#1", Integer.toString(MIN_SIZE));
-		message = message.replace("#2", Integer.toString(MAX_SIZE));
 
 		HBox top = new HBox(new Text(message));
 		top.setAlignment(Pos.CENTER);
@@ -104,7 +101,7 @@ public class DiagramSizeDialog
 		pane.setPadding(new Insets(SPACING));
 		pane.setSpacing(SPACING);
 				
-		aWidthField.setPrefColumnCount((int)Math.log10(MAX_SIZE)+1);
+		aWidthField.setPrefColumnCount(FIELD_COLUMNS);
 		aWidthField.setText(Integer.toString(getDiagramWidth()));
 		HBox width = new HBox(new Label(RESOURCES.getString("dialog.diagram_size.width")), aWidthField);
 		width.setAlignment(Pos.CENTER);
@@ -118,7 +115,7 @@ public class DiagramSizeDialog
 			}
 		});
 		
-		aHeightField.setPrefColumnCount((int)Math.log10(MAX_SIZE)+1);
+		aHeightField.setPrefColumnCount(FIELD_COLUMNS);
 		aHeightField.setText(Integer.toString(getDiagramHeight()));
 		HBox height = new HBox(new Label(RESOURCES.getString("dialog.diagram_size.height")), aHeightField);
 		height.setAlignment(Pos.CENTER);
@@ -179,7 +176,6 @@ public class DiagramSizeDialog
 	{
 		String content = RESOURCES.getString("dialog.diagram_size.error_content");
 		content = content.replace("#1", Integer.toString(MIN_SIZE));
-		content = content.replace("#2", Integer.toString(MAX_SIZE));
 		Alert alert = new Alert(AlertType.ERROR, content, ButtonType.OK);
 		alert.setTitle(RESOURCES.getString("alert.error.title"));
 		alert.setHeaderText(RESOURCES.getString("dialog.diagram_size.error_header"));
@@ -28,21 +28,26 @@ import java.io.File;
 import ca.mcgill.cs.jetuml.application.UserPreferences;
 import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
-import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.views.DiagramView;
-import javafx.geometry.Bounds;
-import javafx.scene.control.ScrollPane;
+import javafx.geometry.Orientation;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.Tab;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.StackPane;
+import javafx.scene.layout.Pane;
 
 /**
  *A tab holding a single diagram.
  */
 public class DiagramTab extends Tab implements MouseDraggedGestureHandler
 {	
+	private static final double ZOOM_STEP = 1.25;
+	private static final int SCROLL_UNIT = 20;
+	
 	private DiagramCanvas aDiagramCanvas;
+	private final ScrollBar aHorizontalScrollBar = new ScrollBar();
+	private final ScrollBar aVerticalScrollBar = new ScrollBar();
 	private DiagramView aDiagramView;
 	private final DiagramCanvasController aDiagramCanvasController;
 	private File aFile; // The file associated with this diagram
@@ -53,7 +58,7 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler
 	 */
 	public DiagramTab(Diagram pDiagram)
 	{
-		aDiagramView = DiagramType.newViewInstanceFor(pDiagram);
+		aDiagramView = pDiagram.getView();
 		DiagramTabToolBar sideBar = new DiagramTabToolBar(pDiagram);
 		UserPreferences.instance().addBooleanPreferenceChangeHandler(sideBar);
 		aDiagramCanvas = new DiagramCanvas(aDiagramView, getDiagramWidth(), getDiagramHeight());
@@ -65,32 +70,33 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler
 		BorderPane layout = new BorderPane();
 		layout.setRight(sideBar);
 
-		// We put the diagram in a stack pane for the sole
-		// purpose of being able to decorate it with CSS
-		StackPane pane = new StackPane(aDiagramCanvas);
+		// The canvas is kept as large as the pane that holds it, which fills the space
+		// left by the scroll bars. We use a pane to be able to lay the overlay on top
+		// of the canvas.
+		Pane viewport = new Pane(aDiagramCanvas, aDiagramCanvas.getOverlay());
+		viewport.setMinSize(0, 0);
+		viewport.setPrefSize(aDiagramCanvas.getDiagramWidth(), aDiagramCanvas.getDiagramHeight());
+		aDiagramCanvas.widthProperty().bind(viewport.widthProperty());
+		aDiagramCanvas.heightProperty().bind(viewport.heightProperty());
+		viewport.widthProperty().addListener(pObservable -> updateViewport());
+		viewport.heightProperty().addListener(pObservable -> updateViewport());
+		viewport.setOnScroll(this::scroll);
+		
+		aVerticalScrollBar.setOrientation(Orientation.VERTICAL);
+		for( ScrollBar scrollBar : new ScrollBar[] {aHorizontalScrollBar, aVerticalScrollBar})
+		{
+			scrollBar.setMin(0);
+			scrollBar.setMax(1);
+			scrollBar.valueProperty().addListener(pObservable -> updateViewport());
+		}
+		
+		BorderPane pane = new BorderPane(viewport, null, aVerticalScrollBar, aHorizontalScrollBar, null);
 		final String cssDefault = "-fx-border-color: grey;\n"
 				+ "-fx-border-insets: 4;\n"
 				+ "-fx-border-width: 1;\n"
 				+ "-fx-border-style: solid;\n";
 		pane.setStyle(cssDefault);
-		ScrollPane scroll = new ScrollPane(pane);
-		
-		// The call below is necessary to removes the focus highlight around the Canvas
-		// See issue #250
-		scroll.setStyle("-fx-focus-color: transparent; -fx-faint-focus-color: transparent;"); 
-
-		// We need to set the max size of the scroll pane so it do not expand to fill 
-		// the entire center region of the BorderPane, as dictated by this layout for
-		// resizable nodes.
-		// Note that the following strategy will result in a slight annoyance, namely
-		// that if one scrollbar is showing, the other one will automatically show
-		// because the extra space occupied by the scrollbar will cause the viewport to
-		// shrink in the other dimension and the max size property, required for 
-		// centering, will prevent allowing more space for it. We will have to tolerate
-		// this until a straightforward solution that retains canvas centering can be found.
-		final int buffer = 12; // (border insets + border width + 1)*2
-		scroll.setMaxSize(aDiagramCanvas.getWidth() + buffer, aDiagramCanvas.getHeight() + buffer);
-		layout.setCenter(scroll);
+		layout.setCenter(pane);
 		
 		setTitle(false);
 		setContent(layout);
@@ -281,20 +287,133 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler
 		setTitle(false);
 	}
 
+	/**
+	 * @return The factor by which the diagram is scaled when it is drawn.
+	 */
+	public double getZoom()
+	{
+		return aDiagramCanvas.getZoom();
+	}
+	
+	/**
+	 * Makes the diagram look larger.
+	 */
+	public void zoomIn()
+	{
+		setZoom(aDiagramCanvas.getZoom() * ZOOM_STEP);
+	}
+	
+	/**
+	 * Makes the diagram look smaller.
+	 */
+	public void zoomOut()
+	{
+		setZoom(aDiagramCanvas.getZoom() / ZOOM_STEP);
+	}
+	
+	/**
+	 * Shows the diagram at its actual size.
+	 */
+	public void resetZoom()
+	{
+		setZoom(1);
+	}
+	
+	/*
+	 * The scroll bars hold relative positions, so the same part of the 
+	 * diagram stays in view when the zoom changes.
+	 */
+	private void setZoom(double pZoom)
+	{
+		aDiagramCanvas.setZoom(pZoom);
+		updateViewport();
+	}
+	
+	/*
+	 * The mouse wheel scrolls the diagram, or zooms it if the control key is down.
+	 */
+	private void scroll(ScrollEvent pEvent)
+	{
+		if( pEvent.isControlDown() )
+		{
+			if( pEvent.getDeltaY() > 0 )
+			{
+				zoomIn();
+			}
+			else if( pEvent.getDeltaY() < 0 )
+			{
+				zoomOut();
+			}
+		}
+		else
+		{
+			scrollBy(aHorizontalScrollBar, -pEvent.getDeltaX(), getHiddenWidth());
+			scrollBy(aVerticalScrollBar, -pEvent.getDeltaY(), getHiddenHeight());
+		}
+		pEvent.consume();
+	}
+	
+	private static void scrollBy(ScrollBar pScrollBar, double pPixels, int pHiddenPixels)
+	{
+		if( pHiddenPixels > 0 )
+		{
+			pScrollBar.setValue(Math.max(0, Math.min(1, pScrollBar.getValue() + pPixels / pHiddenPixels)));
+		}
+	}
+	
 	@Override
 	public void interactionTo(Point pTo)
 	{
 		ViewportProjection projection = getViewportProjection();
-		((ScrollPane)((BorderPane)getContent()).getCenter()).setHvalue(projection.getAdjustedHValueToRevealX(pTo.getX()));
-		((ScrollPane)((BorderPane)getContent()).getCenter()).setVvalue(projection.getAdjustedVValueToRevealY(pTo.getY()));
+		int x = Math.max(0, Math.min(aDiagramCanvas.getZoomedDiagramWidth(), (int) Math.round(pTo.getX() * aDiagramCanvas.getZoom())));
+		int y = Math.max(0, Math.min(aDiagramCanvas.getZoomedDiagramHeight(), (int) Math.round(pTo.getY() * aDiagramCanvas.getZoom())));
+		aHorizontalScrollBar.setValue(projection.getAdjustedHValueToRevealX(x));
+		aVerticalScrollBar.setValue(projection.getAdjustedVValueToRevealY(y));
 	}
 	
+	/*
+	 * The viewport can be larger than the zoomed diagram, in which
+	 * case the diagram is shown in the top left corner of the viewport.
+	 */
 	private ViewportProjection getViewportProjection()
 	{
-		ScrollPane scrollPane = (ScrollPane)((BorderPane)getContent()).getCenter();
-		Bounds bounds = scrollPane.getViewportBounds();
-		return new ViewportProjection((int) bounds.getWidth(), (int) bounds.getHeight(), 
-				(int) aDiagramCanvas.getWidth(), (int) aDiagramCanvas.getHeight(), 
-				scrollPane.getHvalue(), scrollPane.getVvalue());
+		int diagramWidth = aDiagramCanvas.getZoomedDiagramWidth();
+		int diagramHeight = aDiagramCanvas.getZoomedDiagramHeight();
+		return new ViewportProjection(Math.min((int) aDiagramCanvas.getWidth(), diagramWidth), 
+				Math.min((int) aDiagramCanvas.getHeight(), diagramHeight), diagramWidth, diagramHeight, 
+				aHorizontalScrollBar.getValue(), aVerticalScrollBar.getValue());
+	}
+	
+	private int getHiddenWidth()
+	{
+		return Math.max(0, aDiagramCanvas.getZoomedDiagramWidth() - (int) aDiagramCanvas.getWidth());
+	}
+	
+	private int getHiddenHeight()
+	{
+		return Math.max(0, aDiagramCanvas.getZoomedDiagramHeight() - (int) aDiagramCanvas.getHeight());
+	}
+	
+	/*
+	 * Adjusts the scroll bars to the size of the viewport and of the zoomed
+	 * diagram, and scrolls the canvas to the position of the scroll bars.
+	 */
+	private void updateViewport()
+	{
+		ViewportProjection projection = getViewportProjection();
+		updateScrollBar(aHorizontalScrollBar, projection.getWidthRatio(), getHiddenWidth());
+		updateScrollBar(aVerticalScrollBar, projection.getHeightRatio(), getHiddenHeight());
+		aDiagramCanvas.scrollTo(projection.getHiddenLeft(), projection.getHiddenTop());
+	}
+	
+	private static void updateScrollBar(ScrollBar pScrollBar, double pRatio, int pHiddenPixels)
+	{
+		pScrollBar.setDisable(pHiddenPixels <= 0);
+		pScrollBar.setVisibleAmount(pRatio);
+		if( pHiddenPixels > 0 )
+		{
+			pScrollBar.setUnitIncrement(Math.min(1, SCROLL_UNIT / (double) pHiddenPixels));
+			pScrollBar.setBlockIncrement(Math.min(1, pRatio / (1 - pRatio)));
+		}
 	}
-}	        
+}
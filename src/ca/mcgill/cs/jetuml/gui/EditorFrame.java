@@ -184,6 +184,15 @@ public class EditorFrame extends BorderPane
 				UserPreferences.instance().getBoolean(BooleanPreference.showToolHints),
 				pEvent -> UserPreferences.instance().setBoolean(BooleanPreference.showToolHints, 
 						((CheckMenuItem) pEvent.getSource()).isSelected())),
+				
+				factory.createCheckMenuItem("view.adaptive_rendering", false, 
+				UserPreferences.instance().getBoolean(BooleanPreference.adaptiveRendering),
+				pEvent -> UserPreferences.instance().setBoolean(BooleanPreference.adaptiveRendering, 
+						((CheckMenuItem) pEvent.getSource()).isSelected())),
+		
+				factory.createMenuItem("view.zoom_in", true, pEvent -> getSelectedDiagramTab().zoomIn()),
+				factory.createMenuItem("view.zoom_out", true, pEvent -> getSelectedDiagramTab().zoomOut()),
+				factory.createMenuItem("view.zoom_reset", true, pEvent -> getSelectedDiagramTab().resetZoom()),
 		
 				factory.createMenuItem("view.diagram_size", false, Event -> new DiagramSizeDialog(aMainStage).show())));
 	}
@@ -221,7 +230,7 @@ public class EditorFrame extends BorderPane
 		{
 			Diagram diagram2 = PersistenceService.read(new File(pName));
 			
-			Rectangle bounds = DiagramType.newViewInstanceFor(diagram2).getBounds();
+			Rectangle bounds = diagram2.getView().getBounds();
 			int viewWidth = UserPreferences.instance().getInteger(IntegerPreference.diagramWidth);
 			int viewHeight = UserPreferences.instance().getInteger(IntegerPreference.diagramHeight);
 			if( bounds.getMaxX() > viewWidth || bounds.getMaxY() > viewHeight )
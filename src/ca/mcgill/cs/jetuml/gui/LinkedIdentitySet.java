@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A set of objects compared by identity, which iterates over its
+ * elements in the order in which they were last added. Adding an
+ * element that is already in the set moves it to the end. Adding, 
+ * removing, and looking up an element, as well as accessing the 
+ * last element, are constant-time operations.
+ *
+ * @param <T> The type of the elements in the set.
+ */
+final class LinkedIdentitySet<T> implements Iterable<T>
+{
+	private final Map<T, Entry<T>> aEntries = new IdentityHashMap<>();
+	private Entry<T> aFirst;
+	private Entry<T> aLast;
+	private int aModifications = 0;
+	
+	/**
+	 * Adds pElement at the end of the set, or moves it to
+	 * the end if it is already in the set.
+	 * 
+	 * @param pElement The element to add.
+	 * @return True if pElement was not already in the set.
+	 * @pre pElement != null
+	 */
+	boolean add(T pElement)
+	{
+		assert pElement != null;
+		Entry<T> entry = aEntries.get(pElement);
+		boolean added = entry == null;
+		if( added )
+		{
+			entry = new Entry<>(pElement);
+			aEntries.put(pElement, entry);
+		}
+		else
+		{
+			unlink(entry);
+		}
+		entry.aPrevious = aLast;
+		if( aLast == null )
+		{
+			aFirst = entry;
+		}
+		else
+		{
+			aLast.aNext = entry;
+		}
+		aLast = entry;
+		aModifications++;
+		return added;
+	}
+	
+	/**
+	 * Removes pElement from the set, or does nothing if it is not in the set.
+	 * 
+	 * @param pElement The element to remove.
+	 * @return True if pElement was in the set.
+	 * @pre pElement != null
+	 */
+	boolean remove(T pElement)
+	{
+		assert pElement != null;
+		Entry<T> entry = aEntries.remove(pElement);
+		if( entry == null )
+		{
+			return false;
+		}
+		unlink(entry);
+		aModifications++;
+		return true;
+	}
+	
+	/**
+	 * @param pElement The element to look for.
+	 * @return True if pElement is in the set.
+	 */
+	boolean contains(T pElement)
+	{
+		return aEntries.containsKey(pElement);
+	}
+	
+	/**
+	 * @return The element that was added last, if the set is not empty.
+	 */
+	Optional<T> getLast()
+	{
+		if( aLast == null )
+		{
+			return Optional.empty();
+		}
+		return Optional.of(aLast.aElement);
+	}
+	
+	/**
+	 * @return The number of elements in the set.
+	 */
+	int size()
+	{
+		return aEntries.size();
+	}
+	
+	/**
+	 * @return True if there is no element in the set.
+	 */
+	boolean isEmpty()
+	{
+		return aEntries.isEmpty();
+	}
+	
+	/**
+	 * Removes all the elements from the set.
+	 */
+	void clear()
+	{
+		aEntries.clear();
+		aFirst = null;
+		aLast = null;
+		aModifications++;
+	}
+	
+	private void unlink(Entry<T> pEntry)
+	{
+		if( pEntry.aPrevious == null )
+		{
+			aFirst = pEntry.aNext;
+		}
+		else
+		{
+			pEntry.aPrevious.aNext = pEntry.aNext;
+		}
+		if( pEntry.aNext == null )
+		{
+			aLast = pEntry.aPrevious;
+		}
+		else
+		{
+			pEntry.aNext.aPrevious = pEntry.aPrevious;
+		}
+		pEntry.aPrevious = null;
+		pEntry.aNext = null;
+	}
+	
+	@Override
+	public Iterator<T> iterator()
+	{
+		return new Iterator<T>()
+		{
+			private Entry<T> aNextEntry = aFirst;
+			private final int aExpectedModifications = aModifications;
+			
+			@Override
+			public boolean hasNext()
+			{
+				return aNextEntry != null;
+			}
+
+			@Override
+			public T next()
+			{
+				if( aModifications != aExpectedModifications )
+				{
+					throw new ConcurrentModificationException();
+				}
+				if( aNextEntry == null )
+				{
+					throw new NoSuchElementException();
+				}
+				T result = aNextEntry.aElement;
+				aNextEntry = aNextEntry.aNext;
+				return result;
+			}
+		};
+	}
+	
+	private static final class Entry<T>
+	{
+		private final T aElement;
+		private Entry<T> aPrevious;
+		private Entry<T> aNext;
+		
+		Entry(T pElement)
+		{
+			aElement = pElement;
+		}
+	}
+}
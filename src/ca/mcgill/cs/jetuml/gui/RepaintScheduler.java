@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Coalesces the requests to repaint a canvas, so that it is painted 
+ * at most once per JavaFX pulse, whatever the number of requests made 
+ * while handling an event. Requests are counted, so that the number
+ * of paints saved can be monitored.
+ */
+public final class RepaintScheduler
+{
+	private final Runnable aPaint;
+	private final Runnable aStartPulses;
+	private final Runnable aStopPulses;
+	private boolean aPending = false;
+	private long aRequests = 0;
+	private long aPaints = 0;
+	
+	/**
+	 * Creates a scheduler that does not have any pending request.
+	 * 
+	 * @param pPaint The code that paints the canvas.
+	 * @pre pPaint != null
+	 */
+	public RepaintScheduler(Runnable pPaint)
+	{
+		this(pPaint, new PulseTimer());
+	}
+	
+	private RepaintScheduler(Runnable pPaint, PulseTimer pTimer)
+	{
+		this(pPaint, pTimer::start, pTimer::stop);
+		pTimer.aScheduler = this;
+	}
+	
+	/**
+	 * Creates a scheduler that receives pulses from a source other than
+	 * JavaFX. The source must call pulse() while it is started.
+	 * 
+	 * @param pPaint The code that paints the canvas.
+	 * @param pStartPulses Starts the source of pulses.
+	 * @param pStopPulses Stops the source of pulses.
+	 * @pre pPaint != null && pStartPulses != null && pStopPulses != null
+	 */
+	RepaintScheduler(Runnable pPaint, Runnable pStartPulses, Runnable pStopPulses)
+	{
+		assert pPaint != null && pStartPulses != null && pStopPulses != null;
+		aPaint = pPaint;
+		aStartPulses = pStartPulses;
+		aStopPulses = pStopPulses;
+	}
+	
+	/**
+	 * Marks the canvas as needing to be painted. The canvas is painted
+	 * at the next pulse, once for all the requests made until then.
+	 */
+	public void requestRepaint()
+	{
+		aRequests++;
+		if( !aPending )
+		{
+			aPending = true;
+			aStartPulses.run();
+		}
+	}
+	
+	/*
+	 * Called at each pulse. The pulses are stopped
+	 * so that they do not run while there is nothing to paint.
+	 */
+	void pulse()
+	{
+		aStopPulses.run();
+		if( aPending )
+		{
+			aPending = false;
+			aPaints++;
+			aPaint.run();
+		}
+	}
+	
+	/**
+	 * @return True if a repaint was requested and has not been done yet.
+	 */
+	public boolean isPending()
+	{
+		return aPending;
+	}
+	
+	/**
+	 * @return The number of times a repaint was requested.
+	 */
+	public long getRequestCount()
+	{
+		return aRequests;
+	}
+	
+	/**
+	 * @return The number of times the canvas was painted.
+	 */
+	public long getPaintCount()
+	{
+		return aPaints;
+	}
+	
+	/**
+	 * @return The number of requests that did not result in
+	 * a paint of their own because they were merged with another.
+	 */
+	public long getCoalescedCount()
+	{
+		return aRequests - aPaints - (aPending ? 1 : 0);
+	}
+	
+	/*
+	 * An animation timer is called once at every JavaFX pulse while it is started.
+	 */
+	private static final class PulseTimer extends AnimationTimer
+	{
+		private RepaintScheduler aScheduler;
+		
+		@Override
+		public void handle(long pNow)
+		{
+			aScheduler.pulse();
+		}
+	}
+}
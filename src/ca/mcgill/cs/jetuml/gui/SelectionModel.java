@@ -21,18 +21,22 @@
 package ca.mcgill.cs.jetuml.gui;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import ca.mcgill.cs.jetuml.diagram.DiagramData;
 import ca.mcgill.cs.jetuml.diagram.DiagramElement;
-import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.nodes.ChildNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ParentNode;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DiagramView;
 
 /**
  * Encapsulates all state related to the selection feature of a diagram canvas.
@@ -41,14 +45,29 @@ import ca.mcgill.cs.jetuml.geom.Rectangle;
  * 1. A list of selected elements.
  * 2. Optionally, a rubberband tool used to select two nodes for drawing an edge
  * 3. Optionally, a lasso tool used to select any element within a region on a canvas.
+ * 
+ * While the lasso is dragged, only the elements that enter or leave the lasso
+ * are added to or removed from the selection. Elements that were selected
+ * before the lasso was activated stay selected.
+ * 
+ * The selected elements are kept in an insertion-ordered identity set. For each
+ * selected node, the model also tracks the selected nodes it contains, so that 
+ * the rule that a node is not selected if one of its ancestors is can be enforced
+ * in time proportional to the depth of the node. 
  */
 public class SelectionModel implements Iterable<DiagramElement>
 {
 	private final SelectionObserver aObserver;
 	
-	private List<DiagramElement> aSelected = new ArrayList<>();
+	private final LinkedIdentitySet<DiagramElement> aSelected = new LinkedIdentitySet<>();
+	// For each selected child node, its ancestors at the time it was selected
+	private final Map<ChildNode, List<ParentNode>> aSelectedAncestors = new IdentityHashMap<>();
+	// For each ancestor of a selected child node, the selected nodes it contains
+	private final Map<ParentNode, Set<ChildNode>> aSelectedDescendants = new IdentityHashMap<>();
 	private Optional<Line> aRubberband = Optional.empty();
 	private Optional<Rectangle> aLasso = Optional.empty();
+	private DiagramView aLassoView; // null if the next lasso must be computed from scratch
+	private Set<DiagramElement> aSelectedBeforeLasso = newIdentitySet();
 	
 	/**
 	 * Creates a new selection model with a single observer.
@@ -110,44 +129,64 @@ public class SelectionModel implements Iterable<DiagramElement>
 	
 	/**
 	 * Records information about an active lasso selection tool, select all elements
-	 * in the lasso, and triggers a notification.
+	 * in the lasso, and triggers a notification. If the lasso was already active and
+	 * the selection was not otherwise changed since, the elements that left the previous
+	 * lasso are removed from the selection and the elements that entered it are added.
 	 * 
 	 * @param pLasso The bounds of the current lasso.
-	 * @param pDiagramData Data about the diagram whose elements are being selected with the lasso.
+	 * @param pDiagramView The view of the diagram whose elements are being selected with the lasso.
 	 * only the elements in the lasso are selected.
 	 * @pre pLasso != null;
-	 * @pre pDiagramData != null;
+	 * @pre pDiagramView != null;
 	 */
-	public void activateLasso(Rectangle pLasso, DiagramData pDiagramData)
+	public void activateLasso(Rectangle pLasso, DiagramView pDiagramView)
 	{
-		assert pLasso != null;
+		assert pLasso != null && pDiagramView != null;
+		if( aLasso.isPresent() && aLassoView == pDiagramView )
+		{
+			moveLasso(aLasso.get(), pLasso);
+		}
+		else
+		{
+			aSelectedBeforeLasso = newIdentitySet();
+			aSelected.forEach(aSelectedBeforeLasso::add);
+			pDiagramView.findElementsInside(pLasso).forEach(this::internalAddToSelection);
+		}
 		aLasso = Optional.of(pLasso);
-		pDiagramData.rootNodes().forEach( node -> selectNode(node, pLasso));
-		pDiagramData.edges().forEach( edge -> selectEdge(edge, pLasso));
+		aLassoView = pDiagramView;
 		aObserver.selectionModelChanged();
 	}
 	
-	private void selectNode(Node pNode, Rectangle pLasso)
+	private void moveLasso(Rectangle pOldLasso, Rectangle pNewLasso)
 	{
-		if(pLasso.contains(pNode.view().getBounds())) 
-		{
-			internalAddToSelection(pNode);
-		}
-		if(pNode instanceof ParentNode) // check whether any child node might be selectable
+		for( DiagramElement element : aLassoView.findElementsEntering(pNewLasso, pOldLasso) )
 		{
-			for(ChildNode child : ((ParentNode) pNode).getChildren())
+			if( !aSelectedBeforeLasso.contains(element) )
 			{
-				selectNode(child, pLasso);
+				internalRemoveFromSelection(element);
+				if( element instanceof ParentNode )
+				{
+					// Children were not selected because their parent was.
+					addChildrenInside((ParentNode) element, pNewLasso);
+				}
 			}
 		}
+		aLassoView.findElementsEntering(pOldLasso, pNewLasso).forEach(this::internalAddToSelection);
 	}
 	
-	private void selectEdge(Edge pEdge, Rectangle pLasso )
+	private void addChildrenInside(ParentNode pParent, Rectangle pLasso)
 	{
-		if(pLasso.contains(pEdge.view().getBounds()))
+		for( ChildNode child : pParent.getChildren() )
 		{
-			internalAddToSelection(pEdge);
-		}		
+			if( pLasso.contains(child.view().getBounds()) )
+			{
+				internalAddToSelection(child);
+			}
+			else if( child instanceof ParentNode )
+			{
+				addChildrenInside((ParentNode) child, pLasso);
+			}
+		}
 	}
 	
 	/**
@@ -164,6 +203,7 @@ public class SelectionModel implements Iterable<DiagramElement>
 	public void deactivateLasso()
 	{
 		aLasso = Optional.empty();
+		aLassoView = null;
 		aObserver.selectionModelChanged();
 	}
 	
@@ -226,6 +266,7 @@ public class SelectionModel implements Iterable<DiagramElement>
 	{
 		assert pElement != null;
 		internalAddToSelection(pElement);
+		aLassoView = null;
 		aObserver.selectionModelChanged();
 	}
 	
@@ -233,26 +274,57 @@ public class SelectionModel implements Iterable<DiagramElement>
 	{
 		if( !containsParent( pElement ))
 		{
-			aSelected.remove(pElement);
-			aSelected.add(pElement);
+			if( aSelected.add(pElement) && pElement instanceof ChildNode )
+			{
+				registerAncestors((ChildNode) pElement);
+			}
 			
 			// Remove children in case a parent was added.
-			ArrayList<DiagramElement> toRemove = new ArrayList<>();
-			for( DiagramElement element : aSelected )
+			Set<ChildNode> descendants = aSelectedDescendants.get(pElement);
+			if( descendants != null )
 			{
-				if( containsParent(element) )
-				{
-					toRemove.add(element);
-				}
+				new ArrayList<>(descendants).forEach(this::internalRemoveFromSelection);
 			}
-			for( DiagramElement element : toRemove )
+		}
+	}
+	
+	/*
+	 * Removes pElement from the selection without notifying the observer.
+	 */
+	private void internalRemoveFromSelection(DiagramElement pElement)
+	{
+		if( aSelected.remove(pElement) && pElement instanceof ChildNode )
+		{
+			for( ParentNode ancestor : aSelectedAncestors.remove(pElement) )
 			{
-				// Do no use removeFromSelection because it notifies the observer
-				aSelected.remove(element); 
+				Set<ChildNode> descendants = aSelectedDescendants.get(ancestor);
+				descendants.remove(pElement);
+				if( descendants.isEmpty() )
+				{
+					aSelectedDescendants.remove(ancestor);
+				}
 			}
 		}
 	}
 	
+	private void registerAncestors(ChildNode pNode)
+	{
+		List<ParentNode> ancestors = new ArrayList<>();
+		ParentNode parent = pNode.getParent();
+		while( parent != null )
+		{
+			ancestors.add(parent);
+			aSelectedDescendants.computeIfAbsent(parent, key -> newIdentitySet()).add(pNode);
+			parent = parent instanceof ChildNode ? ((ChildNode) parent).getParent() : null;
+		}
+		aSelectedAncestors.put(pNode, ancestors);
+	}
+	
+	private static <T> Set<T> newIdentitySet()
+	{
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+	
 	/*
 	 * Returns true if any of the parents of pElement is contained
 	 * (transitively).
@@ -290,6 +362,9 @@ public class SelectionModel implements Iterable<DiagramElement>
 	public void clearSelection()
 	{
 		aSelected.clear();
+		aSelectedAncestors.clear();
+		aSelectedDescendants.clear();
+		aLassoView = null;
 		aObserver.selectionModelChanged();
 	}
 	
@@ -298,14 +373,7 @@ public class SelectionModel implements Iterable<DiagramElement>
 	 */
 	public Optional<DiagramElement> getLastSelected()
 	{
-		if( aSelected.isEmpty() )
-		{
-			return Optional.empty();
-		}
-		else
-		{
-			return Optional.of(aSelected.get(aSelected.size()-1));
-		}
+		return aSelected.getLast();
 	}
 	
 	/**
@@ -327,7 +395,8 @@ public class SelectionModel implements Iterable<DiagramElement>
 	public void removeFromSelection(DiagramElement pElement)
 	{
 		assert pElement != null;
-		aSelected.remove(pElement);
+		internalRemoveFromSelection(pElement);
+		aLassoView = null;
 		aObserver.selectionModelChanged();
 	}
 	
@@ -341,7 +410,14 @@ public class SelectionModel implements Iterable<DiagramElement>
 	{
 		assert pElement != null;
 		aSelected.clear();
+		aSelectedAncestors.clear();
+		aSelectedDescendants.clear();
 		aSelected.add(pElement);
+		if( pElement instanceof ChildNode )
+		{
+			registerAncestors((ChildNode) pElement);
+		}
+		aLassoView = null;
 		aObserver.selectionModelChanged();
 	}
 
@@ -24,6 +24,7 @@ package ca.mcgill.cs.jetuml.views;
 import static ca.mcgill.cs.jetuml.views.ArrowHead.BLACK_DIAMOND;
 import static ca.mcgill.cs.jetuml.views.ArrowHead.BLACK_TRIANGLE;
 import static ca.mcgill.cs.jetuml.views.ArrowHead.DIAMOND;
+import static ca.mcgill.cs.jetuml.views.ArrowHead.HALF_V;
 import static ca.mcgill.cs.jetuml.views.ArrowHead.NONE;
 import static ca.mcgill.cs.jetuml.views.ArrowHead.TRIANGLE;
 import static ca.mcgill.cs.jetuml.views.ArrowHead.V;
@@ -36,14 +37,25 @@ import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
 
 /**
- * Defines how to draw arrow heads.
+ * Defines how to draw arrow heads. The outline of each arrowhead is 
+ * precomputed once as a template for an arrowhead pointing along the 
+ * x-axis, with its tip at the origin. The template is then rotated 
+ * and translated into a buffer of coordinates for each arrowhead to draw, 
+ * so that drawing an arrowhead does not create any Path object. The buffer
+ * is only used to draw, on the JavaFX application thread. The other queries,
+ * which can be made while edges are prepared in parallel, transform the
+ * vertices of the template one at a time instead.
  */
 public final class ArrowHeadView
 {
 	private static final double ARROW_ANGLE = Math.PI / 6; 
 	private static final double ARROW_LENGTH = 10;
+	private static final int STROKE_WIDTH = 2; // Accounts for the stroke in the width of an arrowhead
 	
 	private final ArrowHead aArrowHead;
+	private double[] aTemplate;
+	private double[] aBuffer;
+	private final SharpPath aPath = new SharpPath();
 	
 	/**
 	 * Creates a new view for pArrowHead.
@@ -55,6 +67,135 @@ public final class ArrowHeadView
 		aArrowHead = pArrowHead;
 	}
 	
+	/*
+	 * The template is created on first use because views are created
+	 * while the ArrowHead constants are initialized.
+	 */
+	private double[] template()
+	{
+		if( aTemplate == null )
+		{
+			aTemplate = createTemplate(aArrowHead);
+			aBuffer = new double[aTemplate.length];
+		}
+		return aTemplate;
+	}
+	
+	private double[] buffer()
+	{
+		template();
+		return aBuffer;
+	}
+	
+	/*
+	 * The vertices of the outline of an arrowhead whose tip is at the origin 
+	 * and which points in the direction of the x-axis, as x, y pairs. 
+	 */
+	private static double[] createTemplate(ArrowHead pArrowHead)
+	{
+		double back = -ARROW_LENGTH * Math.cos(ARROW_ANGLE);
+		double side = ARROW_LENGTH * Math.sin(ARROW_ANGLE);
+		if(pArrowHead == NONE) 
+		{
+			return new double[0];
+		}
+		else if(pArrowHead == V)
+		{
+			return new double[] {back, -side, 0, 0, back, side};
+		}
+		else if(pArrowHead == TRIANGLE || pArrowHead == BLACK_TRIANGLE)
+		{
+			return new double[] {0, 0, back, -side, back, side, 0, 0};
+		}
+		else if(pArrowHead == DIAMOND || pArrowHead == BLACK_DIAMOND)
+		{
+			return new double[] {0, 0, back, -side, 2 * back, 0, back, side, 0, 0};
+		}
+		else
+		{
+			assert pArrowHead == HALF_V;
+			return new double[] {0, 0, back, -side};
+		}
+	}
+	
+	/**
+	 * @return The number of vertices in the outline of the arrowhead.
+	 */
+	public int getNumberOfVertices()
+	{
+		return template().length / 2;
+	}
+	
+	/**
+	 * Writes the vertices of the lines that make up the arrowhead, 
+	 * as a polyline of x, y pairs, at the start of pBuffer.
+	 * 
+	 * @param pPoint1 a point on the axis of the arrow head
+	 * @param pEnd the end point of the arrow head
+	 * @param pBuffer The array in which to write the coordinates of the vertices.
+	 * @return The number of vertices written, 0 if there is no arrowhead.
+	 * @pre pBuffer != null && pBuffer.length >= 2 * getNumberOfVertices()
+	 */
+	public int getOutline(Point2D pPoint1, Point2D pEnd, double[] pBuffer)
+	{
+		double[] template = template();
+		assert pBuffer != null && pBuffer.length >= template.length;
+		double cos = cos(pPoint1, pEnd);
+		double sin = sin(pPoint1, pEnd);
+		for( int i = 0; i < template.length; i += 2 )
+		{
+			pBuffer[i] = x(template, i, pEnd, cos, sin);
+			pBuffer[i + 1] = y(template, i, pEnd, cos, sin);
+		}
+		return getNumberOfVertices();
+	}
+	
+	/*
+	 * The cosine of the angle between the x-axis and the direction 
+	 * from pPoint1 to pEnd, 1 if the points are the same.
+	 */
+	private static double cos(Point2D pPoint1, Point2D pEnd)
+	{
+		double length = pPoint1.distance(pEnd);
+		if( length == 0 )
+		{
+			return 1;
+		}
+		return (pEnd.getX() - pPoint1.getX()) / length;
+	}
+	
+	/*
+	 * The sine of the angle between the x-axis and the direction 
+	 * from pPoint1 to pEnd, 0 if the points are the same.
+	 */
+	private static double sin(Point2D pPoint1, Point2D pEnd)
+	{
+		double length = pPoint1.distance(pEnd);
+		if( length == 0 )
+		{
+			return 0;
+		}
+		return (pEnd.getY() - pPoint1.getY()) / length;
+	}
+	
+	/*
+	 * The x coordinate of the vertex of pTemplate at index pIndex, once rotated 
+	 * and translated so that the tip of the arrowhead is at pEnd.
+	 */
+	private static double x(double[] pTemplate, int pIndex, Point2D pEnd, double pCos, double pSin)
+	{
+		return pEnd.getX() + pTemplate[pIndex] * pCos - pTemplate[pIndex + 1] * pSin;
+	}
+	
+	/*
+	 * The y coordinate of the vertex of pTemplate at index pIndex, once rotated 
+	 * and translated so that the tip of the arrowhead is at pEnd.
+	 */
+	private static double y(double[] pTemplate, int pIndex, Point2D pEnd, double pCos, double pSin)
+	{
+		return pEnd.getY() + pTemplate[pIndex] * pSin + pTemplate[pIndex + 1] * pCos;
+	}
+	
 	/**
 	 * Draws the arrowhead.
 	 * @param pGraphics the graphics context
@@ -63,18 +204,64 @@ public final class ArrowHeadView
 	 */
 	public void draw(GraphicsContext pGraphics, Point2D pPoint1, Point2D pEnd)
 	{
-		if(aArrowHead == ArrowHead.BLACK_DIAMOND || aArrowHead == BLACK_TRIANGLE) 
+		if( aArrowHead == NONE )
+		{
+			return;
+		}
+		int vertices = getOutline(pPoint1, pEnd, buffer());
+		aPath.clear();
+		if( aArrowHead == V )
 		{
-			ToolGraphics.strokeAndFillSharpPath(pGraphics, getPath(pPoint1, pEnd), Color.BLACK, false);
+			// The two sides of a V are separate lines, drawn from the tip
+			aPath.moveTo(aBuffer[2], aBuffer[3]).lineTo(aBuffer[0], aBuffer[1])
+				.moveTo(aBuffer[4], aBuffer[5]).lineTo(aBuffer[2], aBuffer[3]);
+		}
+		else
+		{
+			aPath.moveTo(aBuffer[0], aBuffer[1]);
+			for( int i = 1; i < vertices; i++ )
+			{
+				aPath.lineTo(aBuffer[2 * i], aBuffer[2 * i + 1]);
+			}
+		}
+		if(aArrowHead == BLACK_DIAMOND || aArrowHead == BLACK_TRIANGLE) 
+		{
+			ToolGraphics.strokeAndFillSharpPath(pGraphics, aPath, Color.BLACK, false);
 		}
 		else 
 		{
-			ToolGraphics.strokeAndFillSharpPath(pGraphics, getPath(pPoint1, pEnd), Color.WHITE, false);
+			ToolGraphics.strokeAndFillSharpPath(pGraphics, aPath, Color.WHITE, false);
 		}
 	}
 	
+	/**
+	 * @param pPoint1 a point on the axis of the arrow head
+	 * @param pEnd the end point of the arrow head
+	 * @return The width of the arrowhead when it is drawn, 0 if there is no arrowhead.
+	 */
+	public double getWidth(Point2D pPoint1, Point2D pEnd)
+	{
+		if( aArrowHead == NONE )
+		{
+			return 0;
+		}
+		double[] template = template();
+		double cos = cos(pPoint1, pEnd);
+		double sin = sin(pPoint1, pEnd);
+		double minX = x(template, 0, pEnd, cos, sin);
+		double maxX = minX;
+		for( int i = 2; i < template.length; i += 2 )
+		{
+			double x = x(template, i, pEnd, cos, sin);
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+		}
+		return maxX - minX + STROKE_WIDTH;
+	}
+	
    	/**
-     * Gets the path of the arrowhead.
+     * Gets the path of the arrowhead. Only needed to obtain a Shape: 
+     * drawing an arrowhead does not require a path.
      * @param pPoint1 a point on the axis of the arrow head
      * @param pEnd the end point of the arrow head
      * @return the path
@@ -86,39 +273,42 @@ public final class ArrowHeadView
    		{
    			return path;
    		}
-   		
-   		double dx = pEnd.getX() - pPoint1.getX();
-   		double dy = pEnd.getY() - pPoint1.getY();
-   		double angle = Math.atan2(dy, dx);
-   		double x1 = pEnd.getX() - ARROW_LENGTH * Math.cos(angle + ARROW_ANGLE);
-   		double y1 = pEnd.getY() - ARROW_LENGTH * Math.sin(angle + ARROW_ANGLE);
-   		double x2 = pEnd.getX() - ARROW_LENGTH * Math.cos(angle - ARROW_ANGLE);
-   		double y2 = pEnd.getY() - ARROW_LENGTH * Math.sin(angle - ARROW_ANGLE);
-
-   		MoveTo moveToOrigin = new MoveTo(pEnd.getX(), pEnd.getY());
-   		LineTo lineTo1 = new LineTo(x1, y1);
-   		path.getElements().addAll(moveToOrigin, lineTo1);
+   		double[] template = template();
+   		double cos = cos(pPoint1, pEnd);
+   		double sin = sin(pPoint1, pEnd);
    		if(aArrowHead == V)
    		{
-   			MoveTo moveTo2 = new MoveTo(x2, y2);
-   			LineTo lineTo2 = new LineTo(pEnd.getX(), pEnd.getY());
-   			path.getElements().addAll(moveTo2, lineTo2);
+   			// The two sides of a V are separate lines, so the path is not filled
+   			path.getElements().addAll(new MoveTo(pEnd.getX(), pEnd.getY()), 
+   					new LineTo(x(template, 0, pEnd, cos, sin), y(template, 0, pEnd, cos, sin)),
+   					new MoveTo(x(template, 4, pEnd, cos, sin), y(template, 4, pEnd, cos, sin)), 
+   					new LineTo(pEnd.getX(), pEnd.getY()));
+   			return path;
    		}
-   		else if(aArrowHead == TRIANGLE || aArrowHead == BLACK_TRIANGLE)
+   		path.getElements().add(new MoveTo(x(template, 0, pEnd, cos, sin), y(template, 0, pEnd, cos, sin)));
+   		for( int i = 2; i < template.length; i += 2 )
    		{
-   			LineTo lineTo3 = new LineTo(x2, y2); 
-   			LineTo lineTo4 = new LineTo(moveToOrigin.getX(), moveToOrigin.getY());
-   			path.getElements().addAll(lineTo3, lineTo4);
+   			path.getElements().add(new LineTo(x(template, i, pEnd, cos, sin), y(template, i, pEnd, cos, sin)));
    		}
-   		else if(aArrowHead == DIAMOND || aArrowHead == BLACK_DIAMOND)
-   		{
-   			double x3 = x2 - ARROW_LENGTH * Math.cos(angle + ARROW_ANGLE);
-   			double y3 = y2 - ARROW_LENGTH * Math.sin(angle + ARROW_ANGLE);
-   			LineTo lineTo5 = new LineTo(x3, y3);
-   			LineTo lineTo6 = new LineTo(x2, y2);
-   			LineTo lineTo7 = new LineTo(moveToOrigin.getX(), moveToOrigin.getY());
-   			path.getElements().addAll(lineTo5, lineTo6, lineTo7);
-   		}      
    		return path;
    	}
+   	
+   	/**
+     * Gets the vertices of the lines that make up the arrowhead, as a polyline.
+     * @param pPoint1 a point on the axis of the arrow head
+     * @param pEnd the end point of the arrow head
+     * @return the vertices of the arrowhead, in order. Empty if there is no arrowhead.
+     */
+   	public Point2D[] getOutline(Point2D pPoint1, Point2D pEnd)
+   	{
+   		double[] template = template();
+   		double cos = cos(pPoint1, pEnd);
+   		double sin = sin(pPoint1, pEnd);
+   		Point2D[] result = new Point2D[getNumberOfVertices()];
+   		for( int i = 0; i < result.length; i++ )
+   		{
+   			result[i] = new Point2D(x(template, 2 * i, pEnd, cos, sin), y(template, 2 * i, pEnd, cos, sin));
+   		}
+   		return result;
+   	}
 }
@@ -43,6 +43,13 @@ public interface DiagramElementView
 	 */
    	void draw(GraphicsContext pGraphics);
    	
+   	/**
+     * Draw the element with the given level of detail. 
+     * @param pGraphics the graphics context
+     * @param pLevelOfDetail how much detail to draw
+	 */
+   	void draw(GraphicsContext pGraphics, LevelOfDetail pLevelOfDetail);
+   	
    	/**
      * Draw selection handles around the element.
      * @param pGraphics the graphics context
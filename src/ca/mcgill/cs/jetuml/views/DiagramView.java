@@ -21,23 +21,91 @@
 
 package ca.mcgill.cs.jetuml.views;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.nodes.ChildNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ParentNode;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.edges.EdgeView;
+import ca.mcgill.cs.jetuml.views.edges.PortLayout;
 import javafx.scene.canvas.GraphicsContext;
 
 /**
  * A wrapper for a diagram that can draw the diagram on a graphics context
  * and provide information about the geometry of the diagram.
+ * 
+ * Geometric queries are answered with a spatial index of the nodes and
+ * edges of the diagram, which is built the first time it is needed. After
+ * that, only the elements affected by a change are re-indexed: the views
+ * of the indexed nodes and edges report when they are invalidated, the index
+ * of nodes is rebuilt when root nodes are added or removed, and the edges that
+ * are added or removed are found by comparing the edges of the diagram with the
+ * indexed ones. The edges connected to the same nodes as an edge that changed
+ * are re-indexed with it, because their path can depend on it.
+ * The listeners are removed from the views of the elements that leave the index,
+ * so that removed elements, which can be kept by the undo stack, do not keep
+ * this view reachable.
+ * When several elements match a query, the one drawn last wins, which 
+ * means that children win over their parent, and edges over nodes.
+ * 
+ * Before edges are drawn or indexed, the edge views whose geometry is out of
+ * date are prepared. When there are many of them, they are prepared in parallel
+ * on the common fork-join pool. Before that, the bounds of all the nodes are
+ * computed on the calling thread, where node views that measure text cache 
+ * them, so that the workers only read cached bounds and never lay out text.
+ * 
+ * The level of detail with which elements are drawn depends on the scale
+ * of the transform of the graphics context: below the simplified threshold,
+ * elements are drawn in a simplified way, and below the outline threshold,
+ * without any text.
  */
 public class DiagramView
 {
+	private static final int CELL_SIZE = 128;
+	private static final int NODE_TOLERANCE = 5;
+	private static final int EDGE_TOLERANCE = 10;
+	private static final int DRAWING_MARGIN = 10;
+	private static final double DEFAULT_SIMPLIFIED_THRESHOLD = 0.5;
+	private static final double DEFAULT_OUTLINE_THRESHOLD = 0.2;
+	private static final int PARALLEL_PREPARATION_THRESHOLD = 16;
+	
 	protected final Diagram aDiagram;
+	private final PortLayout aPortLayout;
+	
+	private final SpatialIndex<Node> aNodeIndex = new SpatialIndex<>(CELL_SIZE);
+	private final Map<Node, Integer> aNodeOrder = new IdentityHashMap<>();
+	private final Map<Node, List<ChildNode>> aIndexedChildren = new IdentityHashMap<>();
+	private final Set<Node> aChangedNodes = newIdentitySet();
+	private int aNodeIndexRootNodeVersion = -1;
+	private int aNodeIndexEdgeVersion = -1;
+	
+	private final SpatialIndex<Edge> aEdgeIndex = new SpatialIndex<>(CELL_SIZE);
+	private final Map<Edge, Integer> aEdgeOrder = new IdentityHashMap<>();
+	private final Map<Node, List<Edge>> aConnectedEdges = new IdentityHashMap<>();
+	private final Set<Node> aChangedEndNodes = newIdentitySet();
+	private final Set<Edge> aChangedEdges = newIdentitySet();
+	private int aEdgeIndexEdgeVersion = -1;
+	
+	private final Consumer<Node> aInvalidationListener = this::nodeInvalidated;
+	private final Consumer<Edge> aEdgeInvalidationListener = aChangedEdges::add;
+	private Optional<Rectangle> aDamage = Optional.empty();
+	private double aSimplifiedThreshold = DEFAULT_SIMPLIFIED_THRESHOLD;
+	private double aOutlineThreshold = DEFAULT_OUTLINE_THRESHOLD;
 	
 	/**
 	 * Creates a new DiagramView that wraps pDiagram.
@@ -47,6 +115,7 @@ public class DiagramView
 	public DiagramView(Diagram pDiagram)
 	{
 		aDiagram = pDiagram;
+		aPortLayout = new PortLayout(pDiagram);
 	}
 	
 	/**
@@ -57,6 +126,15 @@ public class DiagramView
 		return aDiagram;
 	}
 	
+	/**
+	 * @return The cached assignment of the edges of the diagram to 
+	 * the sides of their nodes.
+	 */
+	public PortLayout portLayout()
+	{
+		return aPortLayout;
+	}
+	
 	/**
 	 * Draws the diagram onto pGraphics.
 	 * 
@@ -67,22 +145,118 @@ public class DiagramView
 	public final void draw(GraphicsContext pGraphics)
 	{
 		assert pGraphics != null;
-		aDiagram.rootNodes().forEach(node -> drawNode(node, pGraphics));
-		aDiagram.edges().forEach( edge -> edge.view().draw(pGraphics));
+		prepareEdges(aDiagram.edges());
+		LevelOfDetail level = getLevelOfDetail(LevelOfDetail.scaleOf(pGraphics));
+		aDiagram.rootNodes().forEach(node -> drawNode(node, pGraphics, level));
+		aDiagram.edges().forEach( edge -> edge.view().draw(pGraphics, level));
+	}
+	
+	/*
+	 * The views of nodes that measure text cache their bounds lazily, so all the 
+	 * bounds are computed here, on the JavaFX thread, before the edges are prepared 
+	 * in parallel.
+	 */
+	private void prepareEdges(Iterable<Edge> pEdges)
+	{
+		List<EdgeView> views = new ArrayList<>();
+		for(Edge edge : pEdges)
+		{
+			if(!edge.view().isPrepared())
+			{
+				views.add(edge.view());
+			}
+		}
+		if(views.size() < PARALLEL_PREPARATION_THRESHOLD)
+		{
+			return;
+		}
+		aDiagram.rootNodes().forEach(DiagramView::computeBounds);
+		views.parallelStream().forEach(EdgeView::prepare);
 	}
 	
-	private void drawNode(Node pNode, GraphicsContext pGraphics)
+	private static void computeBounds(Node pNode)
 	{
-		pNode.view().draw(pGraphics);
+		pNode.view().getBounds();
 		if(pNode instanceof ParentNode)
 		{
-			((ParentNode)pNode).getChildren().forEach(node -> drawNode(node, pGraphics));
+			((ParentNode)pNode).getChildren().forEach(DiagramView::computeBounds);
+		}
+	}
+	
+	private void drawNode(Node pNode, GraphicsContext pGraphics, LevelOfDetail pLevelOfDetail)
+	{
+		pNode.view().draw(pGraphics, pLevelOfDetail);
+		if(pNode instanceof ParentNode)
+		{
+			((ParentNode)pNode).getChildren().forEach(node -> drawNode(node, pGraphics, pLevelOfDetail));
+		}
+	}
+	
+	/**
+	 * Sets the scales below which the elements of the diagram are drawn
+	 * with less detail.
+	 * 
+	 * @param pSimplifiedThreshold The scale below which elements are drawn in a simplified way.
+	 * @param pOutlineThreshold The scale below which elements are drawn without any text.
+	 * @pre pOutlineThreshold >= 0 && pOutlineThreshold <= pSimplifiedThreshold
+	 */
+	public void setLevelOfDetailThresholds(double pSimplifiedThreshold, double pOutlineThreshold)
+	{
+		assert pOutlineThreshold >= 0 && pOutlineThreshold <= pSimplifiedThreshold;
+		aSimplifiedThreshold = pSimplifiedThreshold;
+		aOutlineThreshold = pOutlineThreshold;
+	}
+	
+	/**
+	 * @param pScale The scale at which the diagram is drawn.
+	 * @return The level of detail with which to draw the elements of the 
+	 * diagram at pScale.
+	 */
+	public LevelOfDetail getLevelOfDetail(double pScale)
+	{
+		if( pScale < aOutlineThreshold )
+		{
+			return LevelOfDetail.OUTLINE;
 		}
+		else if( pScale < aSimplifiedThreshold )
+		{
+			return LevelOfDetail.SIMPLIFIED;
+		}
+		else
+		{
+			return LevelOfDetail.FULL;
+		}
+	}
+	
+	/**
+	 * Draws onto pGraphics the elements of the diagram whose bounds intersect
+	 * pClip, in the same order as draw(GraphicsContext). Elements partially 
+	 * inside pClip are drawn entirely, so the result is the same as drawing the
+	 * whole diagram everywhere inside pClip.
+	 * 
+	 * @param pGraphics the graphics context where the diagram should be drawn.
+	 * @param pClip The area of the diagram to draw.
+	 * @pre pGraphics != null && pClip != null
+	 */
+	public final void draw(GraphicsContext pGraphics, Rectangle pClip)
+	{
+		assert pGraphics != null && pClip != null;
+		updateNodeIndex();
+		updateEdgeIndex();
+		LevelOfDetail level = getLevelOfDetail(LevelOfDetail.scaleOf(pGraphics));
+		Rectangle area = grow(pClip, DRAWING_MARGIN); // Includes the shadows of the elements just outside the clip
+		List<Node> nodes = aNodeIndex.query(area);
+		nodes.sort(Comparator.comparing(aNodeOrder::get));
+		nodes.forEach(node -> node.view().draw(pGraphics, level));
+		List<Edge> edges = aEdgeIndex.query(area);
+		edges.sort(Comparator.comparing(aEdgeOrder::get));
+		edges.forEach(edge -> edge.view().draw(pGraphics, level));
 	}
 	
 	/**
 	 * Finds the edge that contains the given point, if it 
-	 * exists.
+	 * exists. If many edges contain the point, returns
+	 * the one drawn last.
 	 * 
 	 * @param pPoint a point
 	 * @return An edge containing pPoint or null if no edge contains pPoint
@@ -91,14 +265,16 @@ public class DiagramView
 	public final Optional<Edge> findEdge(Point pPoint)
 	{
 		assert pPoint != null;
-		for(Edge edge : aDiagram.edges())
+		updateEdgeIndex();
+		Edge result = null;
+		for(Edge edge : aEdgeIndex.query(pPoint))
 		{
-			if(edge.view().contains(pPoint))
+			if(edge.view().contains(pPoint) && (result == null || aEdgeOrder.get(edge) > aEdgeOrder.get(result)))
 			{
-				return Optional.of(edge);
+				result = edge;
 			}
 		}
-		return Optional.empty();
+		return Optional.ofNullable(result);
 	}
 	
 	/**
@@ -110,52 +286,579 @@ public class DiagramView
      */
 	public final Optional<Node> findNode(Point pPoint)
 	{
+		return findNode(pPoint, node -> true);
+	}
+	
+	/**
+	 * Finds the node drawn last among the nodes that contain 
+	 * pPoint and are accepted by pFilter.
+	 * 
+	 * @param pPoint A point
+	 * @param pFilter The condition a node must meet to be returned.
+	 * @return A node containing pPoint and accepted by pFilter, if there is one.
+	 * @pre pPoint != null && pFilter != null
+	 */
+	public final Optional<Node> findNode(Point pPoint, Predicate<Node> pFilter)
+	{
+		assert pPoint != null && pFilter != null;
+		updateNodeIndex();
 		Node result = null;
-		for(Node node : aDiagram.rootNodes())
+		for(Node node : aNodeIndex.query(pPoint))
+		{
+			if(pFilter.test(node) && node.view().contains(pPoint) && 
+					(result == null || aNodeOrder.get(node) > aNodeOrder.get(result)))
+			{
+				result = node;
+			}
+		}
+		return Optional.ofNullable(result);
+	}
+	
+	/**
+	 * Finds the node closest to pPoint, with a distance of zero for the nodes
+	 * that contain pPoint. If many nodes are at the same distance, returns the one
+	 * drawn last.
+	 * 
+	 * @param pPoint A point
+	 * @param pMaxDistance The maximum distance between pPoint and the bounds of the node.
+	 * @return The node closest to pPoint, if there is one within pMaxDistance.
+	 * @pre pPoint != null && pMaxDistance >= 0
+	 */
+	public final Optional<Node> findNearestNode(Point pPoint, int pMaxDistance)
+	{
+		assert pPoint != null && pMaxDistance >= 0;
+		updateNodeIndex();
+		Node result = null;
+		double resultDistance = Double.MAX_VALUE;
+		Rectangle area = new Rectangle(pPoint.getX() - pMaxDistance, pPoint.getY() - pMaxDistance, 
+				2 * pMaxDistance, 2 * pMaxDistance);
+		for(Node node : aNodeIndex.query(area))
 		{
-			Node temp = deepFindNode(node, pPoint);
-			if (temp != null)
+			double distance = distance(node, pPoint);
+			if(distance <= pMaxDistance && (distance < resultDistance || 
+					distance == resultDistance && aNodeOrder.get(node) > aNodeOrder.get(result)))
 			{
-				result = temp;
+				result = node;
+				resultDistance = distance;
 			}
 		}
 		return Optional.ofNullable(result);
 	}
 	
+	private static double distance(Node pNode, Point pPoint)
+	{
+		if(pNode.view().contains(pPoint))
+		{
+			return 0;
+		}
+		Rectangle bounds = pNode.view().getBounds();
+		int dx = Math.max(0, Math.max(bounds.getX() - pPoint.getX(), pPoint.getX() - bounds.getMaxX()));
+		int dy = Math.max(0, Math.max(bounds.getY() - pPoint.getY(), pPoint.getY() - bounds.getMaxY()));
+		return Math.sqrt((double)dx * dx + (double)dy * dy);
+	}
+	
+	/**
+	 * Finds all the nodes, at any depth, and all the edges whose 
+	 * bounds are entirely contained in pRectangle.
+	 * 
+	 * @param pRectangle The rectangle to test.
+	 * @return The nodes in the order they are drawn, followed
+	 * by the edges in the order they are drawn.
+	 * @pre pRectangle != null
+	 */
+	public final List<DiagramElement> findElementsInside(Rectangle pRectangle)
+	{
+		assert pRectangle != null;
+		updateNodeIndex();
+		updateEdgeIndex();
+		List<Node> nodes = new ArrayList<>();
+		for(Node node : aNodeIndex.query(pRectangle))
+		{
+			if(pRectangle.contains(node.view().getBounds()))
+			{
+				nodes.add(node);
+			}
+		}
+		List<Edge> edges = new ArrayList<>();
+		for(Edge edge : aEdgeIndex.query(pRectangle))
+		{
+			if(pRectangle.contains(edge.view().getBounds()))
+			{
+				edges.add(edge);
+			}
+		}
+		return inDrawingOrder(nodes, edges);
+	}
+	
 	/**
-	 * Find the "deepest" child that contains pPoint,
-	 * where depth is measured in terms of distance from
-	 * pNode along the parent-child relation.
-	 * @param pNode The starting node for the search.
-	 * @param pPoint The point to test for.
-	 * @return The deepest child containing pPoint,
-	 * or null if pPoint is not contained by pNode or 
-	 * any of its children.
-	 * @pre pNode != null, pPoint != null;
+	 * Finds all the nodes, at any depth, and all the edges whose bounds
+	 * are entirely contained in pTo but not in pFrom. Only the parts of 
+	 * pTo that are outside of pFrom are searched, so the cost of this query
+	 * depends on the difference between the two rectangles and not on their size.
+	 * 
+	 * @param pFrom The rectangle that the elements must not be inside of.
+	 * @param pTo The rectangle that the elements must be inside of.
+	 * @return The nodes in the order they are drawn, followed
+	 * by the edges in the order they are drawn.
+	 * @pre pFrom != null && pTo != null
 	 */
-	protected Node deepFindNode(Node pNode, Point pPoint)
+	public final List<DiagramElement> findElementsEntering(Rectangle pFrom, Rectangle pTo)
 	{
-		assert pNode != null && pPoint != null;
-		Node node = null;
-		if (pNode instanceof ParentNode)
+		assert pFrom != null && pTo != null;
+		updateNodeIndex();
+		updateEdgeIndex();
+		Set<Node> nodes = newIdentitySet();
+		Set<Edge> edges = newIdentitySet();
+		for(Rectangle strip : difference(pTo, pFrom))
 		{
-			for (Node child : ((ParentNode) pNode).getChildren())
+			for(Node node : aNodeIndex.query(strip))
 			{
-				node = deepFindNode(child, pPoint);
-				if(node != null)
+				Rectangle bounds = node.view().getBounds();
+				if(pTo.contains(bounds) && !pFrom.contains(bounds))
 				{
-					return node;
+					nodes.add(node);
 				}
 			}
+			for(Edge edge : aEdgeIndex.query(strip))
+			{
+				Rectangle bounds = edge.view().getBounds();
+				if(pTo.contains(bounds) && !pFrom.contains(bounds))
+				{
+					edges.add(edge);
+				}
+			}
+		}
+		return inDrawingOrder(nodes, edges);
+	}
+	
+	private List<DiagramElement> inDrawingOrder(Collection<Node> pNodes, Collection<Edge> pEdges)
+	{
+		List<Node> nodes = new ArrayList<>(pNodes);
+		nodes.sort(Comparator.comparing(aNodeOrder::get));
+		List<Edge> edges = new ArrayList<>(pEdges);
+		edges.sort(Comparator.comparing(aEdgeOrder::get));
+		List<DiagramElement> result = new ArrayList<>(nodes);
+		result.addAll(edges);
+		return result;
+	}
+	
+	/*
+	 * Returns up to four rectangles that together cover the part of pRectangle
+	 * that is not covered by pRemoved. Any element contained in pRectangle but not
+	 * in pRemoved overlaps one of them.
+	 */
+	private static List<Rectangle> difference(Rectangle pRectangle, Rectangle pRemoved)
+	{
+		List<Rectangle> result = new ArrayList<>();
+		int top = Math.max(pRectangle.getY(), pRemoved.getY());
+		int bottom = Math.min(pRectangle.getMaxY(), pRemoved.getMaxY());
+		int left = Math.max(pRectangle.getX(), pRemoved.getX());
+		int right = Math.min(pRectangle.getMaxX(), pRemoved.getMaxX());
+		if(top >= bottom || left >= right)
+		{
+			result.add(pRectangle);
+			return result;
+		}
+		addIfNotEmpty(result, pRectangle.getX(), pRectangle.getY(), pRectangle.getWidth(), top - pRectangle.getY());
+		addIfNotEmpty(result, pRectangle.getX(), bottom, pRectangle.getWidth(), pRectangle.getMaxY() - bottom);
+		addIfNotEmpty(result, pRectangle.getX(), top, left - pRectangle.getX(), bottom - top);
+		addIfNotEmpty(result, right, top, pRectangle.getMaxX() - right, bottom - top);
+		return result;
+	}
+	
+	private static void addIfNotEmpty(List<Rectangle> pRectangles, int pX, int pY, int pWidth, int pHeight)
+	{
+		if(pWidth > 0 && pHeight > 0)
+		{
+			pRectangles.add(new Rectangle(pX, pY, pWidth, pHeight));
 		}
-		if (pNode.view().contains(pPoint))
+	}
+	
+	/**
+	 * Computes the rectangle used to index pNode. A point
+	 * query only finds pNode if the point is within this rectangle, 
+	 * so it must include all the points pNode contains.
+	 * 
+	 * @param pNode The node to index.
+	 * @return A rectangle that includes every point that pNode contains.
+	 * @pre pNode != null
+	 */
+	protected Rectangle getHitBounds(Node pNode)
+	{
+		assert pNode != null;
+		return grow(pNode.view().getBounds(), NODE_TOLERANCE);
+	}
+	
+	private static Rectangle grow(Rectangle pRectangle, int pAmount)
+	{
+		return new Rectangle(pRectangle.getX() - pAmount, pRectangle.getY() - pAmount, 
+				pRectangle.getWidth() + 2 * pAmount, pRectangle.getHeight() + 2 * pAmount);
+	}
+	
+	private void nodeInvalidated(Node pNode)
+	{
+		aChangedNodes.add(pNode);
+		aChangedEndNodes.add(pNode);
+	}
+	
+	/**
+	 * @return True if the bounds of the nodes can change when edges are added, 
+	 * removed, or changed, in which case both indexes are rebuilt every time
+	 * the edges change. False by default.
+	 */
+	protected boolean nodesDependOnEdges()
+	{
+		return false;
+	}
+	
+	private void updateNodeIndex()
+	{
+		if(aNodeIndexRootNodeVersion != aDiagram.getRootNodeVersion() || 
+				nodesDependOnEdges() && aNodeIndexEdgeVersion != aDiagram.getEdgeVersion() || childrenChanged())
 		{
-			return pNode;
+			rebuildNodeIndex();
 		}
 		else
 		{
-			return null;
+			for(Node node : subtrees(aChangedNodes))
+			{
+				index(aNodeIndex, node, getHitBounds(node));
+			}
+		}
+		aChangedNodes.clear();
+	}
+	
+	private boolean childrenChanged()
+	{
+		for(Node node : aChangedNodes)
+		{
+			List<ChildNode> indexed = aIndexedChildren.get(node);
+			if(indexed != null && !sameElements(indexed, ((ParentNode)node).getChildren()))
+			{
+				return true;
+			}
 		}
+		return false;
+	}
+	
+	private static boolean sameElements(List<ChildNode> pList1, List<ChildNode> pList2)
+	{
+		if(pList1.size() != pList2.size())
+		{
+			return false;
+		}
+		for(int i = 0; i < pList1.size(); i++)
+		{
+			if(pList1.get(i) != pList2.get(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private void rebuildNodeIndex()
+	{
+		aNodeIndex.getExtent().ifPresent(this::damage);
+		List<Node> oldNodes = new ArrayList<>(aNodeOrder.keySet());
+		aNodeIndex.clear();
+		aNodeOrder.clear();
+		aIndexedChildren.clear();
+		for(Node node : aDiagram.rootNodes())
+		{
+			indexNode(node);
+		}
+		oldNodes.forEach(this::releaseIfUnused);
+		aNodeIndexRootNodeVersion = aDiagram.getRootNodeVersion();
+		aNodeIndexEdgeVersion = aDiagram.getEdgeVersion();
+	}
+	
+	private void indexNode(Node pNode)
+	{
+		pNode.view().addInvalidationListener(aInvalidationListener);
+		aNodeOrder.put(pNode, aNodeOrder.size());
+		index(aNodeIndex, pNode, getHitBounds(pNode));
+		if(pNode instanceof ParentNode)
+		{
+			List<ChildNode> children = ((ParentNode)pNode).getChildren();
+			aIndexedChildren.put(pNode, new ArrayList<>(children));
+			children.forEach(this::indexNode);
+		}
+	}
+	
+	/*
+	 * Returns the nodes in pNodes that are in the index, with all their descendants,
+	 * whose position can depend on the position of their ancestors.
+	 */
+	private Set<Node> subtrees(Set<Node> pNodes)
+	{
+		Set<Node> result = newIdentitySet();
+		for(Node node : pNodes)
+		{
+			if(aNodeIndex.contains(node))
+			{
+				addSubtree(node, result);
+			}
+		}
+		return result;
+	}
+	
+	private static void addSubtree(Node pNode, Set<Node> pResult)
+	{
+		if(pResult.add(pNode) && pNode instanceof ParentNode)
+		{
+			for(Node child : ((ParentNode)pNode).getChildren())
+			{
+				addSubtree(child, pResult);
+			}
+		}
+	}
+	
+	/*
+	 * The path of an edge can depend on the position of the other edges
+	 * connected to its nodes, so when a node changes, the edges connected to 
+	 * the nodes it is connected to are re-indexed as well.
+	 */
+	private void updateEdgeIndex()
+	{
+		if(aEdgeIndexEdgeVersion < 0 || nodesDependOnEdges() && aEdgeIndexEdgeVersion != aDiagram.getEdgeVersion())
+		{
+			rebuildEdgeIndex();
+		}
+		else
+		{
+			Set<Edge> edges = newIdentitySet();
+			if(aEdgeIndexEdgeVersion != aDiagram.getEdgeVersion())
+			{
+				updateEdges(edges);
+			}
+			for(Node node : subtreesOfEndNodes())
+			{
+				addConnectedEdges(node, edges);
+			}
+			prepareEdges(edges);
+			for(Edge edge : edges)
+			{
+				index(aEdgeIndex, edge, grow(edge.view().getBounds(), EDGE_TOLERANCE));
+			}
+		}
+		aChangedEndNodes.clear();
+		aChangedEdges.clear();
+	}
+	
+	/*
+	 * Removes the edges that are no longer in the diagram from the index, and 
+	 * adds to pEdges the edges connected to the nodes of the edges that were 
+	 * added, removed, or changed.
+	 */
+	private void updateEdges(Set<Edge> pEdges)
+	{
+		Map<Edge, Integer> order = new IdentityHashMap<>();
+		List<Edge> changed = new ArrayList<>();
+		for(Edge edge : aDiagram.edges())
+		{
+			if(!aEdgeOrder.containsKey(edge))
+			{
+				connect(edge);
+				changed.add(edge);
+			}
+			order.put(edge, order.size());
+		}
+		for(Edge edge : aEdgeOrder.keySet())
+		{
+			if(!order.containsKey(edge))
+			{
+				damage(aEdgeIndex.getBounds(edge));
+				aEdgeIndex.remove(edge);
+				disconnect(edge);
+				release(edge);
+				changed.add(edge);
+			}
+		}
+		aEdgeOrder.clear();
+		aEdgeOrder.putAll(order);
+		for(Edge edge : aChangedEdges)
+		{
+			if(order.containsKey(edge))
+			{
+				changed.add(edge);
+			}
+		}
+		for(Edge edge : changed)
+		{
+			addConnectedEdges(edge.getStart(), pEdges);
+			addConnectedEdges(edge.getEnd(), pEdges);
+		}
+		aEdgeIndexEdgeVersion = aDiagram.getEdgeVersion();
+	}
+	
+	/*
+	 * Adds to pEdges the edges connected to pNode, and the edges connected
+	 * to the nodes at their other end.
+	 */
+	private void addConnectedEdges(Node pNode, Set<Edge> pEdges)
+	{
+		for(Edge edge : aConnectedEdges.getOrDefault(pNode, Collections.emptyList()))
+		{
+			pEdges.addAll(aConnectedEdges.get(edge.getStart()));
+			pEdges.addAll(aConnectedEdges.get(edge.getEnd()));
+		}
+	}
+	
+	private Set<Node> subtreesOfEndNodes()
+	{
+		Set<Node> result = newIdentitySet();
+		for(Node node : aChangedEndNodes)
+		{
+			addSubtree(node, result);
+		}
+		return result;
+	}
+	
+	/*
+	 * The listener is registered with the ancestors of the nodes of the edges
+	 * because moving a parent can move its children without invalidating them.
+	 */
+	private void rebuildEdgeIndex()
+	{
+		aEdgeIndex.getExtent().ifPresent(this::damage);
+		List<Edge> oldEdges = new ArrayList<>(aEdgeOrder.keySet());
+		aEdgeIndex.clear();
+		aEdgeOrder.clear();
+		aConnectedEdges.clear();
+		prepareEdges(aDiagram.edges());
+		for(Edge edge : aDiagram.edges())
+		{
+			aEdgeOrder.put(edge, aEdgeOrder.size());
+			index(aEdgeIndex, edge, grow(edge.view().getBounds(), EDGE_TOLERANCE));
+			connect(edge);
+		}
+		for(Edge edge : oldEdges)
+		{
+			if(!aEdgeOrder.containsKey(edge))
+			{
+				release(edge);
+			}
+		}
+		aEdgeIndexEdgeVersion = aDiagram.getEdgeVersion();
+	}
+	
+	private void connect(Edge pEdge)
+	{
+		pEdge.view().addInvalidationListener(aEdgeInvalidationListener);
+		for(Node node : new Node[] {pEdge.getStart(), pEdge.getEnd()})
+		{
+			aConnectedEdges.computeIfAbsent(node, pNode -> new ArrayList<>()).add(pEdge);
+			Node ancestor = node;
+			while(ancestor != null)
+			{
+				ancestor.view().addInvalidationListener(aInvalidationListener);
+				ancestor = ancestor instanceof ChildNode ? ((ChildNode)ancestor).getParent() : null;
+			}
+		}
+	}
+	
+	private void disconnect(Edge pEdge)
+	{
+		for(Node node : new Node[] {pEdge.getStart(), pEdge.getEnd()})
+		{
+			List<Edge> edges = aConnectedEdges.get(node);
+			edges.remove(pEdge);
+			if(edges.isEmpty())
+			{
+				aConnectedEdges.remove(node);
+			}
+		}
+	}
+	
+	/*
+	 * Removes the listener from pEdge, which is no longer indexed, and from 
+	 * its nodes and their ancestors if they are not needed anymore.
+	 */
+	private void release(Edge pEdge)
+	{
+		pEdge.view().removeInvalidationListener(aEdgeInvalidationListener);
+		for(Node node : new Node[] {pEdge.getStart(), pEdge.getEnd()})
+		{
+			Node ancestor = node;
+			while(ancestor != null)
+			{
+				releaseIfUnused(ancestor);
+				ancestor = ancestor instanceof ChildNode ? ((ChildNode)ancestor).getParent() : null;
+			}
+		}
+	}
+	
+	/*
+	 * The listener is needed by the nodes in the index, and by the nodes 
+	 * that are, or are ancestors of, the nodes of an indexed edge.
+	 */
+	private void releaseIfUnused(Node pNode)
+	{
+		if(!aNodeOrder.containsKey(pNode) && !hasConnectedEdges(pNode))
+		{
+			pNode.view().removeInvalidationListener(aInvalidationListener);
+		}
+	}
+	
+	private boolean hasConnectedEdges(Node pNode)
+	{
+		if(aConnectedEdges.containsKey(pNode))
+		{
+			return true;
+		}
+		if(pNode instanceof ParentNode)
+		{
+			for(Node child : ((ParentNode)pNode).getChildren())
+			{
+				if(hasConnectedEdges(child))
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/*
+	 * Records both the old and the new bounds of pElement as damaged.
+	 */
+	private <T> void index(SpatialIndex<T> pIndex, T pElement, Rectangle pBounds)
+	{
+		Rectangle oldBounds = pIndex.getBounds(pElement);
+		if(oldBounds != null)
+		{
+			damage(oldBounds);
+		}
+		damage(pBounds);
+		pIndex.put(pElement, pBounds);
+	}
+	
+	private void damage(Rectangle pArea)
+	{
+		aDamage = Optional.of(aDamage.map(damage -> damage.add(pArea)).orElse(pArea));
+	}
+	
+	/**
+	 * Returns the area of the diagram that may look different than it did at
+	 * the time of the last call to this method: the old and new bounds of all the
+	 * nodes and edges that changed. When root nodes are added or removed, the 
+	 * bounds of all the nodes, before and after the change, are returned. 
+	 * 
+	 * @return The area that needs to be drawn again, if any.
+	 */
+	public final Optional<Rectangle> collectDamage()
+	{
+		updateNodeIndex();
+		updateEdgeIndex();
+		Optional<Rectangle> result = aDamage;
+		aDamage = Optional.empty();
+		return result;
+	}
+	
+	private static <T> Set<T> newIdentitySet()
+	{
+		return Collections.newSetFromMap(new IdentityHashMap<>());
 	}
 	
 	/**
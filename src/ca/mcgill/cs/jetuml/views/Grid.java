@@ -24,8 +24,12 @@ package ca.mcgill.cs.jetuml.views;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.Paint;
 
 /**
@@ -36,33 +40,35 @@ public final class Grid
 {
 	private static final Color GRID_COLOR = Color.rgb(220, 220, 220);
 	private static final double GRID_SIZE = 10;
+	private static final int TILE_SIZE = 100; // Must be a multiple of GRID_SIZE
+	
+	private static final Tile TILE = new Tile();
 	
 	private Grid() {}
 	
 	/**
-     * Draws this grid inside a rectangle.
+     * Draws this grid inside a rectangle. The lines are always drawn at
+     * multiples of the grid size, wherever the rectangle starts. The grid is 
+     * rendered once into a tile, at the scale of the transform of pGraphics, 
+     * which is then repeated to fill the rectangle.
      * @param pGraphics the graphics context
      * @param pBounds the bounding rectangle
      */
 	public static void draw(GraphicsContext pGraphics, Rectangle pBounds)
 	{
-		Paint oldStroke = pGraphics.getStroke();
-		pGraphics.setStroke(GRID_COLOR);
-		int x1 = pBounds.getX();
-		int y1 = pBounds.getY();
-		int x2 = pBounds.getMaxX();
-		int y2 = pBounds.getMaxY();
-		for(int x = x1; x < x2; x += GRID_SIZE)
-		{
-			ToolGraphics.strokeSharpLine(pGraphics, x, y1, x, y2);
-		}
-		for(int y = y1; y < y2; y += GRID_SIZE)
-		{
-			ToolGraphics.strokeSharpLine(pGraphics, x1, y, x2, y);
-		}
-		pGraphics.setStroke(oldStroke);
+		Paint oldFill = pGraphics.getFill();
+		pGraphics.setFill(TILE.getPattern(pGraphics.getLineWidth(), LevelOfDetail.scaleOf(pGraphics)));
+		pGraphics.fillRect(pBounds.getX(), pBounds.getY(), pBounds.getWidth(), pBounds.getHeight());
+		pGraphics.setFill(oldFill);
+	}
+	
+	/*
+	 * The image of the tile used to draw the grid with pLineWidth at pScale.
+	 */
+	static Image getTile(double pLineWidth, double pScale)
+	{
+		return TILE.getPattern(pLineWidth, pScale).getImage();
 	}
-
 	
 	/**
      * Creates a rectangle that is the original rectangle, snapped to
@@ -129,4 +135,40 @@ public final class Grid
 		}
 		return new Point(xRemainder, yRemainder);
 	}
+	
+	/*
+	 * The tile is rendered in the pixels of the canvas, at the scale of its 
+	 * transform, so that it is neither stretched nor shrunk when it is drawn. 
+	 * It is rendered again only if the width of the lines or the scale changes.
+	 */
+	private static final class Tile
+	{
+		private ImagePattern aPattern;
+		private double aLineWidth;
+		private double aScale;
+		
+		ImagePattern getPattern(double pLineWidth, double pScale)
+		{
+			if( aPattern == null || aLineWidth != pLineWidth || aScale != pScale )
+			{
+				int size = (int) Math.max(1, Math.round(TILE_SIZE * pScale));
+				Canvas tile = new Canvas(size, size);
+				GraphicsContext context = tile.getGraphicsContext2D();
+				context.setLineWidth(pLineWidth * pScale);
+				context.setStroke(GRID_COLOR);
+				for(int i = 0; i < TILE_SIZE; i += GRID_SIZE)
+				{
+					int position = (int) Math.round(i * pScale);
+					ToolGraphics.strokeSharpLine(context, position, 0, position, size);
+					ToolGraphics.strokeSharpLine(context, 0, position, size, position);
+				}
+				SnapshotParameters parameters = new SnapshotParameters();
+				parameters.setFill(Color.TRANSPARENT);
+				aPattern = new ImagePattern(tile.snapshot(parameters, null), 0, 0, TILE_SIZE, TILE_SIZE, false);
+				aLineWidth = pLineWidth;
+				aScale = pScale;
+			}
+			return aPattern;
+		}
+	}
 }
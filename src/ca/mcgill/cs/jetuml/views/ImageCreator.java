@@ -24,7 +24,6 @@ import java.util.concurrent.RejectedExecutionException;
 
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramElement;
-import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.nodes.PointNode;
@@ -83,7 +82,7 @@ public final class ImageCreator
 	public static Image createImage(Diagram pDiagram)
 	{
 		assert pDiagram != null;
-		DiagramView diagramView = DiagramType.newViewInstanceFor(pDiagram);
+		DiagramView diagramView = pDiagram.getView();
 		Rectangle bounds = diagramView.getBounds();
 		Canvas canvas = new Canvas(bounds.getWidth() + DIAGRAM_PADDING * 2, 
 				bounds.getHeight() + DIAGRAM_PADDING *2);
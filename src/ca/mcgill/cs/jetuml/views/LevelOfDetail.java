@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.transform.Affine;
+
+/**
+ * The amount of detail with which diagram elements are drawn. When
+ * a diagram is zoomed out, most details are too small to be seen, so
+ * elements are drawn in a simpler way that is much faster.
+ */
+public enum LevelOfDetail
+{
+	/**
+	 * Elements are drawn with all their details.
+	 */
+	FULL, 
+	
+	/**
+	 * Nodes are drawn as boxes with only their name, and edges
+	 * as plain polylines, without arrow heads or labels.
+	 */
+	SIMPLIFIED, 
+	
+	/**
+	 * Nodes are drawn as empty boxes, and edges as plain polylines.
+	 */
+	OUTLINE;
+	
+	/**
+	 * @param pGraphics A graphics context.
+	 * @return The factor by which the current transform of pGraphics 
+	 * scales the horizontal lengths.
+	 * @pre pGraphics != null
+	 */
+	public static double scaleOf(GraphicsContext pGraphics)
+	{
+		assert pGraphics != null;
+		Affine transform = pGraphics.getTransform();
+		return Math.hypot(transform.getMxx(), transform.getMyx());
+	}
+}
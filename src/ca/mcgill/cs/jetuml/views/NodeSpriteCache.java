@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.nodes.NodeView;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * A cache of offscreen images of nodes, so that nodes that did not 
+ * change between two frames can be drawn by copying an image instead
+ * of drawing all their shapes and text again. The image of a node is 
+ * identified by the version of its view and by the scale at which
+ * it is drawn. 
+ * 
+ * A node is only rendered to an image once it has been drawn twice 
+ * with the same version at the same scale. Nodes that change at every 
+ * frame, for example because they are being dragged, and all the nodes
+ * while the diagram is being zoomed, are thus drawn directly. 
+ * 
+ * The cache has a budget in bytes shared by all its entries, each of 
+ * which costs the bytes of its image, if any, plus a fixed overhead. When 
+ * the budget is exceeded, the least recently drawn entries are evicted.
+ * Node views are only weakly referenced, so the entries of the nodes of
+ * closed diagrams are discarded once their views are garbage collected.
+ * The cache keeps counts of hits, misses and evictions, which can be
+ * used to monitor its effectiveness.
+ */
+public final class NodeSpriteCache
+{
+	static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+	private static final NodeSpriteCache INSTANCE = new NodeSpriteCache(DEFAULT_BUDGET);
+	private static final int BYTES_PER_PIXEL = 4;
+	private static final int MARGIN = 8; // Leaves room for the drop shadow
+	private static final double LINE_WIDTH = 0.6;
+	static final long ENTRY_BYTES = 64; // Estimated cost of an entry without its image
+	
+	private final Map<Key, Sprite> aSprites = new LinkedHashMap<>(16, 0.75f, true);
+	private final ReferenceQueue<NodeView> aCollectedViews = new ReferenceQueue<>();
+	private long aBudget;
+	private long aSize = 0;
+	private long aHits = 0;
+	private long aMisses = 0;
+	private long aEvictions = 0;
+	
+	/**
+	 * Creates an empty cache. Intended for testing.
+	 * 
+	 * @param pBudget The maximum number of bytes used by the entries of the cache.
+	 * @pre pBudget >= 0
+	 */
+	NodeSpriteCache(long pBudget)
+	{
+		assert pBudget >= 0;
+		aBudget = pBudget;
+	}
+	
+	/**
+	 * @return The cache shared by all the node views.
+	 */
+	public static NodeSpriteCache instance()
+	{
+		return INSTANCE;
+	}
+	
+	/**
+	 * Draws pView on pGraphics, copying its image from the cache if it did 
+	 * not change since it was last drawn at the current scale of pGraphics.
+	 * 
+	 * @param pView The view of the node to draw.
+	 * @param pGraphics The graphics context on which to draw the node.
+	 * @pre pView != null && pGraphics != null
+	 */
+	public void draw(NodeView pView, GraphicsContext pGraphics)
+	{
+		assert pView != null && pGraphics != null;
+		double scale = LevelOfDetail.scaleOf(pGraphics);
+		Optional<Image> image = lookup(pView, scale);
+		if( !image.isPresent() )
+		{
+			Rectangle bounds = pView.getBounds();
+			if( !isStable(pView, scale) || ENTRY_BYTES + bytes(imageWidth(bounds, scale), imageHeight(bounds, scale)) > aBudget )
+			{
+				store(pView, scale, null);
+				pView.draw(pGraphics);
+				return;
+			}
+			image = Optional.of(render(pView, bounds, scale));
+			store(pView, scale, image.get());
+		}
+		Rectangle bounds = pView.getBounds();
+		pGraphics.drawImage(image.get(), bounds.getX() - MARGIN, bounds.getY() - MARGIN, 
+				image.get().getWidth() / scale, image.get().getHeight() / scale);
+	}
+	
+	/*
+	 * Returns the image of pView at pScale if it is in the cache and 
+	 * pView did not change since it was rendered.
+	 */
+	synchronized Optional<Image> lookup(NodeView pView, double pScale)
+	{
+		Sprite sprite = aSprites.get(new Key(pView, null));
+		if( sprite != null && sprite.aImage != null && sprite.aVersion == pView.getVersion() && sprite.aScale == pScale )
+		{
+			aHits++;
+			return Optional.of(sprite.aImage);
+		}
+		aMisses++;
+		return Optional.empty();
+	}
+	
+	/*
+	 * True if pView was already drawn at its current version and at pScale.
+	 */
+	private synchronized boolean isStable(NodeView pView, double pScale)
+	{
+		Sprite sprite = aSprites.get(new Key(pView, null));
+		return sprite != null && sprite.aVersion == pView.getVersion() && sprite.aScale == pScale;
+	}
+	
+	/*
+	 * Records pImage as the image of the current version of pView at pScale,
+	 * replacing any previous image of pView. A null image only records the version.
+	 */
+	synchronized void store(NodeView pView, double pScale, Image pImage)
+	{
+		removeCollected();
+		Sprite sprite = new Sprite(pView.getVersion(), pScale, pImage);
+		Sprite previous = aSprites.put(new Key(pView, aCollectedViews), sprite);
+		if( previous != null )
+		{
+			aSize -= previous.aBytes;
+		}
+		aSize += sprite.aBytes;
+		evict();
+	}
+	
+	private void evict()
+	{
+		Iterator<Sprite> sprites = aSprites.values().iterator();
+		while( aSize > aBudget && sprites.hasNext() )
+		{
+			aSize -= sprites.next().aBytes;
+			aEvictions++;
+			sprites.remove();
+		}
+	}
+	
+	/*
+	 * Removes the entries of the views that were garbage collected.
+	 */
+	private void removeCollected()
+	{
+		for( Reference<? extends NodeView> key = aCollectedViews.poll(); key != null; key = aCollectedViews.poll() )
+		{
+			Sprite sprite = aSprites.remove(key);
+			if( sprite != null )
+			{
+				aSize -= sprite.aBytes;
+			}
+		}
+	}
+	
+	private static Image render(NodeView pView, Rectangle pBounds, double pScale)
+	{
+		int width = imageWidth(pBounds, pScale);
+		int height = imageHeight(pBounds, pScale);
+		Canvas canvas = new Canvas(width, height);
+		GraphicsContext context = canvas.getGraphicsContext2D();
+		context.setLineWidth(LINE_WIDTH);
+		context.setFill(Color.WHITE);
+		context.setStroke(Color.BLACK);
+		context.scale(pScale, pScale);
+		context.translate(MARGIN - pBounds.getX(), MARGIN - pBounds.getY());
+		// The image is kept for later frames, so it is always rendered with effects
+		boolean effectsEnabled = ViewUtils.areEffectsEnabled();
+		ViewUtils.setEffectsEnabled(true);
+		pView.draw(context);
+		ViewUtils.setEffectsEnabled(effectsEnabled);
+		SnapshotParameters parameters = new SnapshotParameters();
+		parameters.setFill(Color.TRANSPARENT);
+		return canvas.snapshot(parameters, new WritableImage(width, height));
+	}
+	
+	private static int imageWidth(Rectangle pBounds, double pScale)
+	{
+		return (int) Math.ceil((pBounds.getWidth() + 2 * MARGIN) * pScale);
+	}
+	
+	private static int imageHeight(Rectangle pBounds, double pScale)
+	{
+		return (int) Math.ceil((pBounds.getHeight() + 2 * MARGIN) * pScale);
+	}
+	
+	private static long bytes(int pWidth, int pHeight)
+	{
+		return (long) pWidth * pHeight * BYTES_PER_PIXEL;
+	}
+	
+	/**
+	 * Changes the budget of the cache, evicting entries if necessary.
+	 * A budget of 0 disables the cache.
+	 * 
+	 * @param pBudget The maximum number of bytes used by the entries of the cache.
+	 * @pre pBudget >= 0
+	 */
+	public synchronized void setBudget(long pBudget)
+	{
+		assert pBudget >= 0;
+		aBudget = pBudget;
+		evict();
+	}
+	
+	/**
+	 * @return The maximum number of bytes used by the entries of the cache.
+	 */
+	public synchronized long getBudget()
+	{
+		return aBudget;
+	}
+	
+	/**
+	 * @return The number of bytes currently used by the entries of the cache.
+	 */
+	public synchronized long getSize()
+	{
+		return aSize;
+	}
+	
+	/**
+	 * Discards all the entries.
+	 */
+	public synchronized void clear()
+	{
+		aSprites.clear();
+		aSize = 0;
+	}
+	
+	/**
+	 * @return The number of nodes that were drawn from an image in the cache.
+	 */
+	public synchronized long getHits()
+	{
+		return aHits;
+	}
+	
+	/**
+	 * @return The number of nodes that had to be drawn or rendered again.
+	 */
+	public synchronized long getMisses()
+	{
+		return aMisses;
+	}
+	
+	/**
+	 * @return The number of entries that were discarded to 
+	 * respect the budget of the cache.
+	 */
+	public synchronized long getEvictions()
+	{
+		return aEvictions;
+	}
+	
+	/*
+	 * The image of a version of a node at a given scale.
+	 */
+	private static final class Sprite
+	{
+		private final int aVersion;
+		private final double aScale;
+		private final Image aImage;
+		private final long aBytes;
+		
+		Sprite(int pVersion, double pScale, Image pImage)
+		{
+			aVersion = pVersion;
+			aScale = pScale;
+			aImage = pImage;
+			if( pImage == null )
+			{
+				aBytes = ENTRY_BYTES;
+			}
+			else
+			{
+				aBytes = ENTRY_BYTES + bytes((int) pImage.getWidth(), (int) pImage.getHeight());
+			}
+		}
+	}
+	
+	/*
+	 * A weak reference to a node view, compared by identity. Keys created
+	 * to look up an entry are not registered with a reference queue.
+	 */
+	private static final class Key extends WeakReference<NodeView>
+	{
+		private final int aHashCode;
+		
+		Key(NodeView pView, ReferenceQueue<NodeView> pQueue)
+		{
+			super(pView, pQueue);
+			aHashCode = System.identityHashCode(pView);
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return aHashCode;
+		}
+		
+		@Override
+		public boolean equals(Object pObject)
+		{
+			if( pObject == this )
+			{
+				return true;
+			}
+			if( pObject == null || pObject.getClass() != getClass() )
+			{
+				return false;
+			}
+			NodeView view = get();
+			return view != null && view == ((Key) pObject).get();
+		}
+	}
+}
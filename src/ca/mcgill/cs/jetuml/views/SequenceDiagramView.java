@@ -21,12 +21,12 @@
 
 package ca.mcgill.cs.jetuml.views;
 
-import ca.mcgill.cs.jetuml.diagram.ControlFlow;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.SequenceDiagram;
-import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
-import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.nodes.SequenceDiagramLayout;
 
 /**
  * A wrapper for a sequence diagram that can draw the diagram on a graphics context
@@ -34,34 +34,49 @@ import ca.mcgill.cs.jetuml.geom.Point;
  */
 public class SequenceDiagramView extends DiagramView
 {
+	private final SequenceDiagramLayout aLayout;
+	
 	/**
 	 * Creates a new DiagramView that wraps pDiagram.
 	 * @param pDiagram The wrapped diagram.
-	 * @pre pDiagram != null.
+	 * @pre pDiagram instanceof SequenceDiagram.
 	 */
 	public SequenceDiagramView(Diagram pDiagram)
 	{
 		super(pDiagram);
+		assert pDiagram instanceof SequenceDiagram;
+		aLayout = new SequenceDiagramLayout((SequenceDiagram) pDiagram);
 	}
 	
+	/**
+	 * @return The cached layout of the call nodes of the diagram.
+	 */
+	public SequenceDiagramLayout layout()
+	{
+		return aLayout;
+	}
+	
+	/*
+	 * The bounds of call nodes depend on the call edges.
+	 */
 	@Override
-	protected Node deepFindNode( Node pNode, Point pPoint )
-	{		
-		ControlFlow flow = new ControlFlow((SequenceDiagram)aDiagram);
-		if( pNode instanceof CallNode )
+	protected boolean nodesDependOnEdges()
+	{
+		return true;
+	}
+	
+	/*
+	 * Implicit parameter nodes contain all the points between their 
+	 * left and right sides, at any height.
+	 */
+	@Override
+	protected Rectangle getHitBounds(Node pNode)
+	{
+		if( pNode instanceof ImplicitParameterNode )
 		{
-			for(Node child : flow.getCallees(pNode))
-			{
-				if ( child != null )
-				{
-					Node node = deepFindNode(child, pPoint);
-					if ( node != null )
-					{
-						return node;
-					}
-				}
-			}
+			Rectangle bounds = super.getHitBounds(pNode);
+			return new Rectangle(bounds.getX(), Integer.MIN_VALUE / 2, bounds.getWidth(), Integer.MAX_VALUE);
 		}
-		return super.deepFindNode(pNode, pPoint);
+		return super.getHitBounds(pNode);
 	}
 }
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * A path to draw on a graphics context, recorded as primitive coordinates 
+ * and operation codes instead of scene-graph path elements. Coordinates 
+ * are converted to integers and aligned to the center of the pixels when 
+ * they are added, so that the path aligns precisely with the JavaFX 
+ * coordinate system. See the documentation for javafx.scene.shape.Shape 
+ * for details.
+ * 
+ * Methods return the path itself so that calls can be chained.
+ */
+public final class SharpPath
+{
+	private static final byte MOVE_TO = 0;
+	private static final byte LINE_TO = 1;
+	private static final byte QUADRATIC_CURVE_TO = 2;
+	private static final int INITIAL_CAPACITY = 8;
+	
+	private byte[] aOperations = new byte[INITIAL_CAPACITY];
+	private double[] aCoordinates = new double[2 * INITIAL_CAPACITY];
+	private int aNumberOfOperations = 0;
+	private int aNumberOfCoordinates = 0;
+	
+	/**
+	 * Starts a new subpath at pX, pY.
+	 * 
+	 * @param pX The x-coordinate of the point.
+	 * @param pY The y-coordinate of the point.
+	 * @return This path.
+	 */
+	public SharpPath moveTo(double pX, double pY)
+	{
+		addOperation(MOVE_TO);
+		addPoint(pX, pY);
+		return this;
+	}
+	
+	/**
+	 * Adds a line from the current point to pX, pY.
+	 * 
+	 * @param pX The x-coordinate of the point.
+	 * @param pY The y-coordinate of the point.
+	 * @return This path.
+	 */
+	public SharpPath lineTo(double pX, double pY)
+	{
+		addOperation(LINE_TO);
+		addPoint(pX, pY);
+		return this;
+	}
+	
+	/**
+	 * Adds a quadratic curve from the current point to pX, pY.
+	 * 
+	 * @param pControlX The x-coordinate of the control point.
+	 * @param pControlY The y-coordinate of the control point.
+	 * @param pX The x-coordinate of the end point.
+	 * @param pY The y-coordinate of the end point.
+	 * @return This path.
+	 */
+	public SharpPath quadraticCurveTo(double pControlX, double pControlY, double pX, double pY)
+	{
+		addOperation(QUADRATIC_CURVE_TO);
+		addPoint(pControlX, pControlY);
+		addPoint(pX, pY);
+		return this;
+	}
+	
+	/**
+	 * @return True if nothing was added to this path.
+	 */
+	public boolean isEmpty()
+	{
+		return aNumberOfOperations == 0;
+	}
+	
+	/**
+	 * Removes all the operations from this path, so that it can be reused.
+	 */
+	public void clear()
+	{
+		aNumberOfOperations = 0;
+		aNumberOfCoordinates = 0;
+	}
+	
+	/**
+	 * Replaces the current path of pGraphics with this path.
+	 * 
+	 * @param pGraphics The graphics context.
+	 */
+	void apply(GraphicsContext pGraphics)
+	{
+		pGraphics.beginPath();
+		int coordinate = 0;
+		for( int i = 0; i < aNumberOfOperations; i++ )
+		{
+			if( aOperations[i] == MOVE_TO )
+			{
+				pGraphics.moveTo(aCoordinates[coordinate], aCoordinates[coordinate + 1]);
+				coordinate += 2;
+			}
+			else if( aOperations[i] == LINE_TO )
+			{
+				pGraphics.lineTo(aCoordinates[coordinate], aCoordinates[coordinate + 1]);
+				coordinate += 2;
+			}
+			else
+			{
+				assert aOperations[i] == QUADRATIC_CURVE_TO;
+				pGraphics.quadraticCurveTo(aCoordinates[coordinate], aCoordinates[coordinate + 1], 
+						aCoordinates[coordinate + 2], aCoordinates[coordinate + 3]);
+				coordinate += 4;
+			}
+		}
+	}
+	
+	/**
+	 * @return The coordinates of the points of this path, after alignment,
+	 * as x, y pairs in the order in which they were added. Control points
+	 * are included.
+	 */
+	public double[] getCoordinates()
+	{
+		return Arrays.copyOf(aCoordinates, aNumberOfCoordinates);
+	}
+	
+	private void addOperation(byte pOperation)
+	{
+		if( aNumberOfOperations == aOperations.length )
+		{
+			aOperations = Arrays.copyOf(aOperations, 2 * aOperations.length);
+		}
+		aOperations[aNumberOfOperations++] = pOperation;
+	}
+	
+	private void addPoint(double pX, double pY)
+	{
+		if( aNumberOfCoordinates + 2 > aCoordinates.length )
+		{
+			aCoordinates = Arrays.copyOf(aCoordinates, 2 * aCoordinates.length);
+		}
+		aCoordinates[aNumberOfCoordinates++] = sharp(pX);
+		aCoordinates[aNumberOfCoordinates++] = sharp(pY);
+	}
+	
+	private static double sharp(double pCoordinate)
+	{
+		return ((int) pCoordinate) + 0.5;
+	}
+}
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+
+/**
+ * A uniform grid over the bounds of a set of objects. Each object is
+ * stored in every cell its bounds overlap, so that point and rectangle
+ * queries only need to look at the objects in a few cells instead of
+ * at every object. Objects with very large bounds are kept in a
+ * separate list that is checked by every query, so that the number of
+ * cells an object occupies stays bounded. Objects are compared by
+ * identity.
+ *
+ * @param <T> The type of the indexed objects.
+ */
+final class SpatialIndex<T>
+{
+	private static final int MAX_CELLS_PER_ELEMENT = 256;
+	
+	private final int aCellSize;
+	private final Map<Long, List<T>> aCells = new HashMap<>();
+	private final Map<T, Rectangle> aBounds = new IdentityHashMap<>();
+	private final Set<T> aLarge = Collections.newSetFromMap(new IdentityHashMap<>());
+	
+	/**
+	 * Creates an empty index.
+	 * 
+	 * @param pCellSize The width and height of the cells of the grid.
+	 * @pre pCellSize > 0
+	 */
+	SpatialIndex(int pCellSize)
+	{
+		assert pCellSize > 0;
+		aCellSize = pCellSize;
+	}
+	
+	/**
+	 * Adds pElement to the index, replacing any bounds previously
+	 * recorded for it.
+	 * 
+	 * @param pElement The object to index.
+	 * @param pBounds The bounds of pElement.
+	 * @pre pElement != null && pBounds != null
+	 */
+	void put(T pElement, Rectangle pBounds)
+	{
+		assert pElement != null && pBounds != null;
+		remove(pElement);
+		aBounds.put(pElement, pBounds);
+		if( numberOfCells(pBounds) > MAX_CELLS_PER_ELEMENT )
+		{
+			aLarge.add(pElement);
+			return;
+		}
+		for( int x = cell(pBounds.getX()); x <= cell(pBounds.getMaxX()); x++ )
+		{
+			for( int y = cell(pBounds.getY()); y <= cell(pBounds.getMaxY()); y++ )
+			{
+				aCells.computeIfAbsent(key(x, y), pKey -> new ArrayList<>()).add(pElement);
+			}
+		}
+	}
+	
+	/**
+	 * Removes pElement from the index. Does nothing if pElement
+	 * is not indexed.
+	 * 
+	 * @param pElement The object to remove.
+	 * @pre pElement != null
+	 */
+	void remove(T pElement)
+	{
+		assert pElement != null;
+		Rectangle bounds = aBounds.remove(pElement);
+		if( bounds == null )
+		{
+			return;
+		}
+		if( aLarge.remove(pElement) )
+		{
+			return;
+		}
+		for( int x = cell(bounds.getX()); x <= cell(bounds.getMaxX()); x++ )
+		{
+			for( int y = cell(bounds.getY()); y <= cell(bounds.getMaxY()); y++ )
+			{
+				Long key = key(x, y);
+				List<T> elements = aCells.get(key);
+				removeIdentical(elements, pElement);
+				if( elements.isEmpty() )
+				{
+					aCells.remove(key);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Removes all the objects from the index.
+	 */
+	void clear()
+	{
+		aCells.clear();
+		aBounds.clear();
+		aLarge.clear();
+	}
+	
+	/**
+	 * @param pElement The object to check.
+	 * @return True if pElement is in the index.
+	 */
+	boolean contains(T pElement)
+	{
+		return aBounds.containsKey(pElement);
+	}
+	
+	/**
+	 * @param pElement The object to check.
+	 * @return The bounds recorded for pElement, or null if pElement
+	 * is not in the index.
+	 */
+	Rectangle getBounds(T pElement)
+	{
+		return aBounds.get(pElement);
+	}
+	
+	/**
+	 * @return The smallest rectangle that contains the bounds of all
+	 * the objects in the index, or empty if the index is empty.
+	 */
+	Optional<Rectangle> getExtent()
+	{
+		return aBounds.values().stream().reduce(Rectangle::add);
+	}
+	
+	/**
+	 * @return The number of objects in the index.
+	 */
+	int size()
+	{
+		return aBounds.size();
+	}
+	
+	/**
+	 * @param pPoint The point to test.
+	 * @return The objects whose bounds contain pPoint, including
+	 * on their boundary, in no particular order.
+	 * @pre pPoint != null
+	 */
+	List<T> query(Point pPoint)
+	{
+		assert pPoint != null;
+		List<T> result = new ArrayList<>();
+		for( T element : aCells.getOrDefault(key(cell(pPoint.getX()), cell(pPoint.getY())), Collections.emptyList()))
+		{
+			if( aBounds.get(element).contains(pPoint) )
+			{
+				result.add(element);
+			}
+		}
+		for( T element : aLarge )
+		{
+			if( aBounds.get(element).contains(pPoint) )
+			{
+				result.add(element);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * @param pRectangle The rectangle to test.
+	 * @return The objects whose bounds intersect pRectangle, including
+	 * those that only touch its boundary, in no particular order.
+	 * @pre pRectangle != null
+	 */
+	List<T> query(Rectangle pRectangle)
+	{
+		assert pRectangle != null;
+		Set<T> result = Collections.newSetFromMap(new IdentityHashMap<>());
+		if( numberOfCells(pRectangle) > aCells.size() )
+		{
+			// Cheaper to look at the occupied cells than at every cell of the rectangle
+			for( List<T> elements : aCells.values() )
+			{
+				addIntersecting(elements, pRectangle, result);
+			}
+		}
+		else
+		{
+			for( int x = cell(pRectangle.getX()); x <= cell(pRectangle.getMaxX()); x++ )
+			{
+				for( int y = cell(pRectangle.getY()); y <= cell(pRectangle.getMaxY()); y++ )
+				{
+					addIntersecting(aCells.getOrDefault(key(x, y), Collections.emptyList()), pRectangle, result);
+				}
+			}
+		}
+		addIntersecting(aLarge, pRectangle, result);
+		return new ArrayList<>(result);
+	}
+	
+	private void addIntersecting(Iterable<T> pElements, Rectangle pRectangle, Set<T> pResult)
+	{
+		for( T element : pElements )
+		{
+			if( intersect(aBounds.get(element), pRectangle) )
+			{
+				pResult.add(element);
+			}
+		}
+	}
+	
+	private static boolean intersect(Rectangle pRectangle1, Rectangle pRectangle2)
+	{
+		return pRectangle1.getX() <= pRectangle2.getMaxX() && pRectangle2.getX() <= pRectangle1.getMaxX() &&
+				pRectangle1.getY() <= pRectangle2.getMaxY() && pRectangle2.getY() <= pRectangle1.getMaxY();
+	}
+	
+	private static <T> void removeIdentical(List<T> pElements, T pElement)
+	{
+		for( int i = 0; i < pElements.size(); i++ )
+		{
+			if( pElements.get(i) == pElement )
+			{
+				pElements.remove(i);
+				return;
+			}
+		}
+	}
+	
+	private long numberOfCells(Rectangle pBounds)
+	{
+		return ((long)cell(pBounds.getMaxX()) - cell(pBounds.getX()) + 1) * 
+				((long)cell(pBounds.getMaxY()) - cell(pBounds.getY()) + 1);
+	}
+	
+	private int cell(int pCoordinate)
+	{
+		return Math.floorDiv(pCoordinate, aCellSize);
+	}
+	
+	private static Long key(int pX, int pY)
+	{
+		return ((long)pX << Integer.SIZE) | (pY & 0xFFFFFFFFL);
+	}
+}
@@ -26,9 +26,7 @@ import javafx.geometry.VPos;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
-import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
-import javafx.scene.text.TextBoundsType;
 
 /**
  * A utility class to view strings with various decorations:
@@ -44,6 +42,8 @@ public final class StringViewer
 	private static final Rectangle EMPTY = new Rectangle(0, 0, 0, 0);
 	private static final int HORIZONTAL_TEXT_PADDING = 3;
 	private static final int VERTICAL_TEXT_PADDING = 7;
+	private static final int METRICS_CACHE_CAPACITY = 1000;
+	private static final TextMetricsCache METRICS = new TextMetricsCache(METRICS_CACHE_CAPACITY);
 	
 	/**
 	 * How to align the text in this string.
@@ -71,6 +71,14 @@ public final class StringViewer
 		aUnderlined = pUnderlined;
 	}
 	
+	/**
+	 * @return The cache of text measurements shared by all string viewers.
+	 */
+	public static TextMetricsCache metricsCache()
+	{
+		return METRICS;
+	}
+	
 	private Font getFont()
 	{
 		if( aBold )
@@ -96,35 +104,30 @@ public final class StringViewer
 		{
 			return EMPTY;
 		}
-		Bounds bounds = getLabel(pString).getLayoutBounds(); 
+		Bounds bounds = getLayoutBounds(pString); 
 		return new Rectangle(0, 0, (int) Math.round(bounds.getWidth() + HORIZONTAL_TEXT_PADDING*2), 
 				(int) Math.round(bounds.getHeight() + VERTICAL_TEXT_PADDING*2));
 	}
 	
-	private Text getLabel(String pString)
+	private Bounds getLayoutBounds(String pString)
+	{
+		return METRICS.getBounds(pString, getFont(), getTextAlignment(), aUnderlined);
+	}
+	
+	private TextAlignment getTextAlignment()
 	{
-		Text label = new Text();
-		if (aUnderlined)
-		{
-			label.setUnderline(true);
-		}
-		label.setFont(getFont());
-		label.setBoundsType(TextBoundsType.VISUAL);
-		label.setText(pString);
-		
 		if(aAlignment == Align.LEFT)
 		{
-			label.setTextAlignment(TextAlignment.LEFT);
+			return TextAlignment.LEFT;
 		}
-		else if(aAlignment == Align.CENTER)
+		else if(aAlignment == Align.RIGHT) 
 		{
-			label.setTextAlignment(TextAlignment.CENTER);
+			return TextAlignment.RIGHT;
 		}
-		else if(aAlignment == Align.RIGHT) 
+		else
 		{
-			label.setTextAlignment(TextAlignment.RIGHT);
+			return TextAlignment.CENTER;
 		}
-		return label;
 	}
 	
 	/**
@@ -135,9 +138,7 @@ public final class StringViewer
 	 */
 	public void draw(String pString, GraphicsContext pGraphics, Rectangle pRectangle)
 	{
-		Text label = getLabel(pString);
-		
-		pGraphics.setTextAlign(label.getTextAlignment());
+		pGraphics.setTextAlign(getTextAlignment());
 		
 		int textX = 0;
 		int textY = 0;
@@ -160,7 +161,7 @@ public final class StringViewer
 		{
 			int xOffset = 0;
 			int yOffset = 0;
-			Bounds bounds = label.getLayoutBounds();
+			Bounds bounds = getLayoutBounds(pString);
 			if(aAlignment == Align.CENTER)
 			{
 				xOffset = (int) (bounds.getWidth()/2);
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import javafx.geometry.Bounds;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.text.TextBoundsType;
+
+/**
+ * A bounded cache of the layout bounds of strings, as rendered by a
+ * JavaFX Text node with a given font, alignment and decoration. 
+ * Measuring a string requires creating and laying out a Text node, 
+ * which is expensive compared to a lookup. When the cache is full,
+ * the least recently used measurement is evicted.
+ * 
+ * The cache keeps counts of hits, misses and evictions, which can be
+ * used to monitor its effectiveness.
+ */
+public final class TextMetricsCache
+{
+	private final int aCapacity;
+	private final Function<Text, Bounds> aMeasure;
+	private final Map<Key, Bounds> aBounds;
+	private long aHits = 0;
+	private long aMisses = 0;
+	private long aEvictions = 0;
+	
+	/**
+	 * Creates an empty cache that measures strings with JavaFX Text nodes.
+	 * 
+	 * @param pCapacity The maximum number of measurements to keep.
+	 * @pre pCapacity > 0
+	 */
+	public TextMetricsCache(int pCapacity)
+	{
+		this(pCapacity, Text::getLayoutBounds);
+	}
+	
+	/**
+	 * Creates an empty cache that measures strings with pMeasure. 
+	 * Intended for testing.
+	 * 
+	 * @param pCapacity The maximum number of measurements to keep.
+	 * @param pMeasure The function that returns the bounds of a configured Text node.
+	 * @pre pCapacity > 0 && pMeasure != null
+	 */
+	TextMetricsCache(int pCapacity, Function<Text, Bounds> pMeasure)
+	{
+		assert pCapacity > 0 && pMeasure != null;
+		aCapacity = pCapacity;
+		aMeasure = pMeasure;
+		aBounds = new LinkedHashMap<Key, Bounds>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Bounds> pEldest)
+			{
+				if( size() > aCapacity )
+				{
+					aEvictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+	
+	/**
+	 * Returns the layout bounds of pString, measuring it only if it is
+	 * not already in the cache.
+	 * 
+	 * @param pString The string to measure.
+	 * @param pFont The font used to render the string.
+	 * @param pAlignment The alignment of the string.
+	 * @param pUnderlined True if the string is rendered underlined.
+	 * @return The layout bounds of the string.
+	 * @pre pString != null && pFont != null && pAlignment != null
+	 */
+	public synchronized Bounds getBounds(String pString, Font pFont, TextAlignment pAlignment, boolean pUnderlined)
+	{
+		assert pString != null && pFont != null && pAlignment != null;
+		Key key = new Key(pString, pFont, pAlignment, pUnderlined);
+		Bounds bounds = aBounds.get(key);
+		if( bounds != null )
+		{
+			aHits++;
+			return bounds;
+		}
+		aMisses++;
+		bounds = aMeasure.apply(createLabel(pString, pFont, pAlignment, pUnderlined));
+		aBounds.put(key, bounds);
+		return bounds;
+	}
+	
+	private static Text createLabel(String pString, Font pFont, TextAlignment pAlignment, boolean pUnderlined)
+	{
+		Text label = new Text();
+		label.setUnderline(pUnderlined);
+		label.setFont(pFont);
+		label.setBoundsType(TextBoundsType.VISUAL);
+		label.setText(pString);
+		label.setTextAlignment(pAlignment);
+		return label;
+	}
+	
+	/**
+	 * @return The number of measurements currently in the cache.
+	 */
+	public synchronized int size()
+	{
+		return aBounds.size();
+	}
+	
+	/**
+	 * @return The number of lookups that were answered from the cache.
+	 */
+	public synchronized long getHits()
+	{
+		return aHits;
+	}
+	
+	/**
+	 * @return The number of lookups that required measuring a string.
+	 */
+	public synchronized long getMisses()
+	{
+		return aMisses;
+	}
+	
+	/**
+	 * @return The proportion of lookups that were answered from the cache,
+	 * between 0 and 1, or 0 if there was no lookup.
+	 */
+	public synchronized double getHitRate()
+	{
+		long lookups = aHits + aMisses;
+		if( lookups == 0 )
+		{
+			return 0;
+		}
+		return (double) aHits / lookups;
+	}
+	
+	/**
+	 * @return The number of measurements that were discarded to 
+	 * respect the capacity of the cache.
+	 */
+	public synchronized long getEvictions()
+	{
+		return aEvictions;
+	}
+	
+	/*
+	 * Identifies a measurement. Fonts are compared by value.
+	 */
+	private static final class Key
+	{
+		private final String aString;
+		private final Font aFont;
+		private final TextAlignment aAlignment;
+		private final boolean aUnderlined;
+		
+		Key(String pString, Font pFont, TextAlignment pAlignment, boolean pUnderlined)
+		{
+			aString = pString;
+			aFont = pFont;
+			aAlignment = pAlignment;
+			aUnderlined = pUnderlined;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(aString, aFont, aAlignment, aUnderlined);
+		}
+		
+		@Override
+		public boolean equals(Object pObject)
+		{
+			if( this == pObject )
+			{
+				return true;
+			}
+			if( pObject == null || pObject.getClass() != getClass() )
+			{
+				return false;
+			}
+			Key other = (Key) pObject;
+			return aString.equals(other.aString) && aFont.equals(other.aFont) && 
+					aAlignment == other.aAlignment && aUnderlined == other.aUnderlined;
+		}
+	}
+}
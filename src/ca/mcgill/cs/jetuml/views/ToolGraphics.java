@@ -27,11 +27,6 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.PathElement;
-import javafx.scene.shape.QuadCurveTo;
 
 /**
  * A utility class to draw various graphics for diagram handling tools.
@@ -140,68 +135,43 @@ public final class ToolGraphics
 	}
 	
 	/**
-	 * Strokes a path, by converting the elements to integer coordinates and then
-	 * aligning them to the center of the pixels, so that it aligns precisely
-	 * with the JavaFX coordinate system. See the documentation for 
-	 * javafx.scene.shape.Shape for details.
+	 * Strokes a path, whose coordinates are aligned to the center of the pixels, 
+	 * so that it aligns precisely with the JavaFX coordinate system. 
 	 * 
 	 * @param pGraphics The graphics context.
 	 * @param pPath The path to stroke
 	 * @param pStyle The line style for the path.
 	 */
-	public static void strokeSharpPath(GraphicsContext pGraphics, Path pPath, LineStyle pStyle)
+	public static void strokeSharpPath(GraphicsContext pGraphics, SharpPath pPath, LineStyle pStyle)
 	{
 		double[] oldDash = pGraphics.getLineDashes();
 		pGraphics.setLineDashes(pStyle.getLineDashes());
 		double width = pGraphics.getLineWidth();
 		pGraphics.setLineWidth(LINE_WIDTH);
-		applyPath(pGraphics, pPath);
+		pPath.apply(pGraphics);
 		pGraphics.stroke();
 		pGraphics.setLineDashes(oldDash);
 		pGraphics.setLineWidth(width);
 	}
 	
-	private static void applyPath(GraphicsContext pGraphics, Path pPath)
-	{
-		pGraphics.beginPath();
-		for(PathElement element : pPath.getElements())
-		{
-			if(element instanceof MoveTo)
-			{
-				pGraphics.moveTo(((int)((MoveTo) element).getX()) + 0.5, ((int)((MoveTo) element).getY()) + 0.5);
-			}
-			else if(element instanceof LineTo)
-			{
-				pGraphics.lineTo(((int)((LineTo) element).getX()) + 0.5, ((int)((LineTo) element).getY()) + 0.5);
-			}
-			else if (element instanceof QuadCurveTo)
-			{
-				QuadCurveTo curve = (QuadCurveTo) element;
-				pGraphics.quadraticCurveTo(((int)curve.getControlX())+0.5, ((int)curve.getControlY()) + 0.5, 
-						((int) curve.getX()) + 0.5, ((int) curve.getY()) + 0.5);
-			}
-		}
-	}
 	/**
-	 * Strokes and fills a path, by converting the elements to integer coordinates and then
-	 * aligning them to the center of the pixels, so that it aligns precisely
-	 * with the JavaFX coordinate system. See the documentation for 
-	 * javafx.scene.shape.Shape for details.
+	 * Strokes and fills a path, whose coordinates are aligned to the center of the 
+	 * pixels, so that it aligns precisely with the JavaFX coordinate system. 
 	 * 
 	 * @param pGraphics The graphics context.
 	 * @param pPath The path to stroke
 	 * @param pFill The fill color for the path.
 	 * @param pShadow True to include a drop shadow.
 	 */
-	public static void strokeAndFillSharpPath(GraphicsContext pGraphics, Path pPath, Paint pFill, boolean pShadow)
+	public static void strokeAndFillSharpPath(GraphicsContext pGraphics, SharpPath pPath, Paint pFill, boolean pShadow)
 	{
 		double width = pGraphics.getLineWidth();
 		Paint fill = pGraphics.getFill();
 		pGraphics.setLineWidth(LINE_WIDTH);
 		pGraphics.setFill(pFill);
-		applyPath(pGraphics, pPath);
+		pPath.apply(pGraphics);
 		
-		if( pShadow )
+		if( pShadow && ViewUtils.areEffectsEnabled() )
 		{
 			pGraphics.setEffect(DROP_SHADOW);
 		}
@@ -21,11 +21,13 @@
 package ca.mcgill.cs.jetuml.views;
 
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import javafx.geometry.VPos;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
 
 /**
  * A collection of utility methods to draw shapes on the canvas.
@@ -41,9 +43,31 @@ public final class ViewUtils
 	private static final DropShadow DROP_SHADOW = new DropShadow(3, 3, 3, Color.LIGHTGRAY);
 	private static final int ARC_SIZE = 20;
 	
+	private static boolean sEffectsEnabled = true;
+	
 	private ViewUtils()
 	{}
 	
+	/**
+	 * Enables or disables the drop shadows drawn by the methods of this class
+	 * and of ToolGraphics. Effects are expensive, so they can be disabled 
+	 * to draw quickly while the user is interacting with a diagram. 
+	 * 
+	 * @param pEnabled True to draw drop shadows where requested.
+	 */
+	public static void setEffectsEnabled(boolean pEnabled)
+	{
+		sEffectsEnabled = pEnabled;
+	}
+	
+	/**
+	 * @return True if drop shadows are drawn where requested.
+	 */
+	public static boolean areEffectsEnabled()
+	{
+		return sEffectsEnabled;
+	}
+	
 	/**
 	 * Draws a circle with default attributes, without a drop shadow.
 	 * 
@@ -77,7 +101,7 @@ public final class ViewUtils
 		pGraphics.setFill(pFill);
 		if( pShadow )
 		{
-			pGraphics.setEffect(DROP_SHADOW);
+			applyShadow(pGraphics);
 		}
 		pGraphics.fillOval(pX + 0.5, pY + 0.5, pWidth, pHeight);
 		pGraphics.strokeOval(pX + 0.5, pY + 0.5, pWidth, pHeight);
@@ -94,7 +118,7 @@ public final class ViewUtils
 	public static void drawRoundedRectangle(GraphicsContext pGraphics, Rectangle pRectangle)
 	{
 		assert pGraphics != null && pRectangle != null;
-		pGraphics.setEffect(DROP_SHADOW);
+		applyShadow(pGraphics);
 		pGraphics.fillRoundRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, 
 				pRectangle.getWidth(), pRectangle.getHeight(), ARC_SIZE, ARC_SIZE );
 		pGraphics.setEffect(null);
@@ -137,12 +161,20 @@ public final class ViewUtils
 	public static void drawRectangle( GraphicsContext pGraphics, Rectangle pRectangle)
 	{
 		assert pGraphics != null && pRectangle != null;
-		pGraphics.setEffect(DROP_SHADOW);
+		applyShadow(pGraphics);
 		pGraphics.fillRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, pRectangle.getWidth(), pRectangle.getHeight());
 		pGraphics.setEffect(null);
 		pGraphics.strokeRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, pRectangle.getWidth(), pRectangle.getHeight());
 	}
 	
+	private static void applyShadow(GraphicsContext pGraphics)
+	{
+		if( sEffectsEnabled )
+		{
+			pGraphics.setEffect(DROP_SHADOW);
+		}
+	}
+	
 	/**
 	 * Draws a line with default attributes and a specified line style.
 	 * 
@@ -179,4 +211,26 @@ public final class ViewUtils
 		pGraphics.setFont(font);
 		pGraphics.setFill(Color.WHITE);
 	}
+	
+	/**
+	 * Draw pText in black with the given font, centered on point pX, pY. 
+	 * The text is not measured, which makes this method suitable for
+	 * drawing many short labels quickly.
+	 * 
+	 * @param pGraphics The graphics context.
+	 * @param pX The x-coordinate of the center of the text.
+	 * @param pY The y-coordinate of the center of the text.
+	 * @param pText The text to draw.
+	 * @param pFont The font to use.
+	 */
+	public static void drawCenteredText(GraphicsContext pGraphics, int pX, int pY, String pText, Font pFont)
+	{
+		TextAlignment alignment = pGraphics.getTextAlign();
+		VPos baseline = pGraphics.getTextBaseline();
+		pGraphics.setTextAlign(TextAlignment.CENTER);
+		pGraphics.setTextBaseline(VPos.CENTER);
+		drawText(pGraphics, pX, pY, pText, pFont);
+		pGraphics.setTextAlign(alignment);
+		pGraphics.setTextBaseline(baseline);
+	}
 }
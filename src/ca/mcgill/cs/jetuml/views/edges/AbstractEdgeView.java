@@ -22,13 +22,20 @@ package ca.mcgill.cs.jetuml.views.edges;
 
 import static ca.mcgill.cs.jetuml.views.StringViewer.FONT;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.geom.Conversions;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.LevelOfDetail;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.Shape;
 import javafx.scene.text.Text;
@@ -49,6 +56,7 @@ public abstract class AbstractEdgeView implements EdgeView
 	private static final int DEGREES_180 = 180;
 	
 	private Edge aEdge;
+	private final List<Consumer<Edge>> aInvalidationListeners = new ArrayList<>();
 	
 	/**
 	 * @param pEdge The edge to wrap.
@@ -63,6 +71,15 @@ public abstract class AbstractEdgeView implements EdgeView
 	 */
 	protected abstract Shape getShape();
 	
+	/**
+	 * Computes the distance between a point and the lines drawn for this 
+	 * edge, without building its shape.
+	 * 
+	 * @param pPoint The point to test.
+	 * @return The shortest distance between pPoint and the lines of this edge.
+	 */
+	protected abstract double distanceTo(Point2D pPoint);
+	
 	/**
 	 * @param pText Some text to test.
 	 * @return A bounds object to be used as
@@ -92,9 +109,7 @@ public abstract class AbstractEdgeView implements EdgeView
 			return false;
 		}
 
-		Shape fatPath = getShape();
-		fatPath.setStrokeWidth(2 * MAX_DISTANCE);
-		return fatPath.contains(pPoint.getX(), pPoint.getY());
+		return distanceTo(Conversions.toPoint2D(pPoint)) <= MAX_DISTANCE;
 	}
 	
 	@Override
@@ -123,6 +138,81 @@ public abstract class AbstractEdgeView implements EdgeView
 				edge().getEnd().view().getConnectionPoint(toEnd.turn(DEGREES_180)));
 	}
 
+	/*
+	 * With less detail, edges are drawn as a plain polyline.
+	 * @see ca.mcgill.cs.jetuml.views.DiagramElementView#draw(javafx.scene.canvas.GraphicsContext, 
+	 * ca.mcgill.cs.jetuml.views.LevelOfDetail)
+	 */
+	@Override
+	public void draw(GraphicsContext pGraphics, LevelOfDetail pLevelOfDetail)
+	{
+		if( pLevelOfDetail == LevelOfDetail.FULL )
+		{
+			draw(pGraphics);
+			return;
+		}
+		Point2D[] points = getPolyline();
+		double[] xs = new double[points.length];
+		double[] ys = new double[points.length];
+		for( int i = 0; i < points.length; i++ )
+		{
+			xs[i] = points[i].getX() + 0.5;
+			ys[i] = points[i].getY() + 0.5;
+		}
+		pGraphics.strokePolyline(xs, ys, points.length);
+	}
+	
+	/**
+	 * @return The points of the polyline that approximates this edge
+	 * when it is drawn with less detail. By default, the line between
+	 * its connection points.
+	 */
+	protected Point2D[] getPolyline()
+	{
+		Line connectionPoints = getConnectionPoints();
+		return new Point2D[] { Conversions.toPoint2D(connectionPoints.getPoint1()), 
+				Conversions.toPoint2D(connectionPoints.getPoint2()) };
+	}
+	
+	/*
+	 * By default, views do not cache the geometry of their edge.
+	 */
+	@Override
+	public boolean isPrepared()
+	{
+		return true;
+	}
+	
+	@Override
+	public void prepare()
+	{}
+	
+	@Override
+	public void invalidate()
+	{
+		for( Consumer<Edge> listener : aInvalidationListeners )
+		{
+			listener.accept(aEdge);
+		}
+	}
+	
+	@Override
+	public void addInvalidationListener(Consumer<Edge> pListener)
+	{
+		assert pListener != null;
+		if( !aInvalidationListeners.contains(pListener) )
+		{
+			aInvalidationListeners.add(pListener);
+		}
+	}
+	
+	@Override
+	public void removeInvalidationListener(Consumer<Edge> pListener)
+	{
+		assert pListener != null;
+		aInvalidationListeners.remove(pListener);
+	}
+	
 	@Override
 	public void drawSelectionHandles(GraphicsContext pGraphics)
 	{
@@ -20,6 +20,9 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views.edges;
 
+import java.util.function.Consumer;
+
+import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.views.DiagramElementView;
 
@@ -35,4 +38,46 @@ public interface EdgeView extends DiagramElementView
      * @return a line joining the two connection points
      */
    	Line getConnectionPoints();
+   	
+   	/**
+   	 * @return True if the geometry that this view computes from the
+   	 * bounds of the nodes is up to date, or if the view does not cache
+   	 * any such geometry.
+   	 */
+   	boolean isPrepared();
+   	
+   	/**
+   	 * Computes and caches the geometry of the edge that depends on the
+   	 * bounds of the nodes, so that drawing the edge does not need to.
+   	 * Can be called from a worker thread, concurrently with the 
+   	 * preparation of other edges, provided that the diagram is not modified
+   	 * in the meantime and that the bounds of all its nodes have been 
+   	 * computed beforehand.
+   	 */
+   	void prepare();
+   	
+   	/**
+   	 * Notifies the invalidation listeners of this view. Called by the 
+   	 * edge every time one of its properties is set.
+   	 */
+   	void invalidate();
+   	
+   	/**
+   	 * Registers pListener to be notified, with the edge of this view, every
+   	 * time this view is invalidated. Registering the same listener more than
+   	 * once has no effect.
+   	 * 
+   	 * @param pListener The listener to notify.
+   	 * @pre pListener != null
+   	 */
+   	void addInvalidationListener(Consumer<Edge> pListener);
+   	
+   	/**
+   	 * Stops notifying pListener when this view is invalidated. Has no 
+   	 * effect if pListener is not registered.
+   	 * 
+   	 * @param pListener The listener to remove.
+   	 * @pre pListener != null
+   	 */
+   	void removeInvalidationListener(Consumer<Edge> pListener);
 }
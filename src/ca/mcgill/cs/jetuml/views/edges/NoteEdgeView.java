@@ -21,9 +21,13 @@
 package ca.mcgill.cs.jetuml.views.edges;
 
 import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.geom.Conversions;
+import ca.mcgill.cs.jetuml.geom.Distances;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.SharpPath;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
+import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
@@ -46,7 +50,9 @@ public final class NoteEdgeView extends AbstractEdgeView
 	@Override
 	public void draw(GraphicsContext pGraphics)
 	{
-		ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(), LineStyle.DOTTED);
+		Line conn = getConnectionPoints();
+		ToolGraphics.strokeSharpPath(pGraphics, new SharpPath().moveTo(conn.getX1(), conn.getY1())
+				.lineTo(conn.getX2(), conn.getY2()), LineStyle.DOTTED);
 	}
 	
 	
@@ -60,4 +66,12 @@ public final class NoteEdgeView extends AbstractEdgeView
 		path.getElements().addAll(moveTo, lineTo);
 		return path;
 	}
+	
+	@Override
+	protected double distanceTo(Point2D pPoint)
+	{
+		Line conn = getConnectionPoints();
+		return Distances.pointToSegment(pPoint, Conversions.toPoint2D(conn.getPoint1()), 
+				Conversions.toPoint2D(conn.getPoint2()));
+	}
 }
@@ -22,11 +22,13 @@ package ca.mcgill.cs.jetuml.views.edges;
 
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.geom.Direction;
+import ca.mcgill.cs.jetuml.geom.Distances;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.SharpPath;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
@@ -53,38 +55,56 @@ public final class ObjectReferenceEdgeView extends AbstractEdgeView
 	
 	@Override
 	protected Shape getShape()
+	{
+		Point2D[] points = getPathPoints();
+		Path path = new Path();
+		MoveTo moveTo = new MoveTo(points[0].getX(), points[0].getY());
+		LineTo lineTo1 = new LineTo(points[1].getX(), points[1].getY());
+		QuadCurveTo quadTo1 = new QuadCurveTo(points[2].getX(), points[2].getY(), points[3].getX(), points[3].getY());
+		QuadCurveTo quadTo2 = new QuadCurveTo(points[4].getX(), points[4].getY(), points[5].getX(), points[5].getY());
+		LineTo lineTo2 = new LineTo(points[6].getX(), points[6].getY());
+		path.getElements().addAll(moveTo, lineTo1, quadTo1, quadTo2, lineTo2);
+		return path;
+	}
+	
+	@Override
+	protected double distanceTo(Point2D pPoint)
+	{
+		Point2D[] points = getPathPoints();
+		return Math.min(Math.min(Distances.pointToSegment(pPoint, points[0], points[1]),
+				Distances.pointToQuadraticCurve(pPoint, points[1], points[2], points[3])),
+				Math.min(Distances.pointToQuadraticCurve(pPoint, points[3], points[4], points[5]),
+				Distances.pointToSegment(pPoint, points[5], points[6])));
+	}
+	
+	/*
+	 * The edge is made of a segment, two quadratic curves, and another segment.
+	 * Returns the start point, the end of the first segment, the control point
+	 * and end point of each curve, and the end point of the edge.
+	 */
+	private Point2D[] getPathPoints()
 	{
 		Line line = getConnectionPoints();
-
 		double y1 = line.getY1();
 		double y2 = line.getY2();
 		double xmid = (line.getX1() + line.getX2()) / 2;
 		double ymid = (line.getY1() + line.getY2()) / 2;
-		Path path = new Path();
+		Point2D start = new Point2D(line.getX1(), y1);
+		Point2D end = new Point2D(line.getX2(), y2);
 		if(isSShaped())
 		{
 			double x1 = line.getX1() + ENDSIZE;
 			double x2 = line.getX2() - ENDSIZE;
-         
-			MoveTo moveTo = new MoveTo(line.getX1(), y1);
-			LineTo lineTo1 = new LineTo(x1, y1);
-			QuadCurveTo quadTo1 = new QuadCurveTo((x1 + xmid) / 2, y1, xmid, ymid);
-			QuadCurveTo quadTo2 = new QuadCurveTo((x2 + xmid) / 2, y2, x2, y2);
-			LineTo lineTo2 = new LineTo(line.getX2(), y2);
-			path.getElements().addAll(moveTo, lineTo1, quadTo1, quadTo2, lineTo2);
+			return new Point2D[] { start, new Point2D(x1, y1), new Point2D((x1 + xmid) / 2, y1), new Point2D(xmid, ymid),
+					new Point2D((x2 + xmid) / 2, y2), new Point2D(x2, y2), end };
 		}
 		else // reverse C shaped
 		{
 			double x1 = Math.max(line.getX1(), line.getX2()) + ENDSIZE;
 			double x2 = x1 + ENDSIZE;
-			MoveTo moveTo = new MoveTo(line.getX1(), y1);
-			LineTo lineTo1 = new LineTo(x1, y1);
-			QuadCurveTo quadTo1 = new QuadCurveTo(x2, y1, x2, ymid);
-			QuadCurveTo quadTo2 = new QuadCurveTo(x2, y2, x1, y2);
-			LineTo lineTo2 = new LineTo(line.getX2(), y2);
-			path.getElements().addAll(moveTo, lineTo1, quadTo1, quadTo2, lineTo2);
-		}			
-		return path;
+			return new Point2D[] { start, new Point2D(x1, y1), new Point2D(x2, y1), new Point2D(x2, ymid),
+					new Point2D(x2, y2), new Point2D(x1, y2), end };
+		}
 	}
 	
 	/**
@@ -101,7 +121,13 @@ public final class ObjectReferenceEdgeView extends AbstractEdgeView
 	@Override
 	public void draw(GraphicsContext pGraphics)
 	{
-		ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(), LineStyle.SOLID);
+		Point2D[] points = getPathPoints();
+		ToolGraphics.strokeSharpPath(pGraphics, new SharpPath()
+				.moveTo(points[0].getX(), points[0].getY())
+				.lineTo(points[1].getX(), points[1].getY())
+				.quadraticCurveTo(points[2].getX(), points[2].getY(), points[3].getX(), points[3].getY())
+				.quadraticCurveTo(points[4].getX(), points[4].getY(), points[5].getX(), points[5].getY())
+				.lineTo(points[6].getX(), points[6].getY()), LineStyle.SOLID);
 		Line line = getConnectionPoints();
 		double x1;
 		double x2 = line.getX2();
@@ -0,0 +1,376 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views.edges;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge.Type;
+import ca.mcgill.cs.jetuml.diagram.edges.ClassRelationshipEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.edges.SegmentationStyle.Side;
+import ca.mcgill.cs.jetuml.views.nodes.NodeView;
+
+/**
+ * Assigns the class relationship edges connected to a node to a side
+ * of the node, and to a port on that side, for all the edges of the node
+ * at once. Ports are numbered from 1 along each side, from top to bottom
+ * on the east and west sides, and from left to right on the north and
+ * south sides. Edge ends that can be drawn as one, such as generalizations
+ * of the same type that end on the same node, share a port.
+ * 
+ * The assignment of a node is cached until the node or one of the nodes 
+ * it is connected to changes, or until an edge connected to the node is
+ * added, removed, or changed. The layout keeps the edges connected to each
+ * node, which it updates when the edges of the diagram change, so that the
+ * assignment of a node only depends on the number of edges of that node.
+ */
+public final class PortLayout
+{
+	private final Diagram aDiagram;
+	private final Map<Node, Ports> aPorts = new HashMap<>();
+	private final Map<Node, List<Edge>> aConnectedEdges = new IdentityHashMap<>();
+	private final Set<Edge> aEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Consumer<Edge> aEdgeInvalidationListener = this::edgeChanged;
+	private int aEdgeVersion = -1;
+	
+	/**
+	 * Creates an empty layout for pDiagram.
+	 * 
+	 * @param pDiagram The diagram to lay out.
+	 * @pre pDiagram != null
+	 */
+	public PortLayout(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = pDiagram;
+	}
+	
+	/**
+	 * @param pNode A node of the diagram.
+	 * @param pEdge An edge connected to pNode.
+	 * @param pSide A side of pNode.
+	 * @return The port of pEdge on side pSide of pNode, or 0 if pEdge
+	 * is not attached to that side.
+	 * @pre pNode != null && pEdge != null && pSide != null
+	 */
+	public int getPort(Node pNode, Edge pEdge, Side pSide)
+	{
+		assert pNode != null && pEdge != null && pSide != null;
+		Ports ports = portsOf(pNode);
+		if( ports.aSides.get(pEdge) != pSide )
+		{
+			return 0;
+		}
+		return ports.aIndexes.get(pEdge);
+	}
+	
+	/**
+	 * @param pNode A node of the diagram.
+	 * @param pSide A side of pNode.
+	 * @return The number of ports on side pSide of pNode.
+	 * @pre pNode != null && pSide != null
+	 */
+	public int getNumberOfPorts(Node pNode, Side pSide)
+	{
+		assert pNode != null && pSide != null;
+		return portsOf(pNode).aTotals.getOrDefault(pSide, 0);
+	}
+	
+	/**
+	 * @param pNode A node of the diagram.
+	 * @return True if an edge of the diagram starts and ends at pNode.
+	 * @pre pNode != null
+	 */
+	public boolean hasSelfEdge(Node pNode)
+	{
+		assert pNode != null;
+		return portsOf(pNode).aSelfEdge;
+	}
+	
+	private Ports portsOf(Node pNode)
+	{
+		Ports ports = cachedPortsOf(pNode);
+		if( ports == null || !ports.isValid() )
+		{
+			ports = computePorts(pNode);
+			synchronized(this)
+			{
+				aPorts.put(pNode, ports);
+			}
+		}
+		return ports;
+	}
+	
+	/*
+	 * Only the access to the map is synchronized, so that the ports of different
+	 * nodes can be computed concurrently when edges are routed in parallel. 
+	 */
+	private synchronized Ports cachedPortsOf(Node pNode)
+	{
+		if( aEdgeVersion != aDiagram.getEdgeVersion() )
+		{
+			updateEdges();
+			aEdgeVersion = aDiagram.getEdgeVersion();
+		}
+		return aPorts.get(pNode);
+	}
+	
+	/*
+	 * Finds the edges that were added to or removed from the diagram, and
+	 * discards the assignments of their nodes.
+	 */
+	private void updateEdges()
+	{
+		Set<Edge> edges = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( Edge edge : aDiagram.edges() )
+		{
+			edges.add(edge);
+			if( aEdges.add(edge) )
+			{
+				connect(edge);
+			}
+		}
+		for( Iterator<Edge> iterator = aEdges.iterator(); iterator.hasNext(); )
+		{
+			Edge edge = iterator.next();
+			if( !edges.contains(edge) )
+			{
+				iterator.remove();
+				disconnect(edge);
+			}
+		}
+	}
+	
+	private void connect(Edge pEdge)
+	{
+		pEdge.view().addInvalidationListener(aEdgeInvalidationListener);
+		aConnectedEdges.computeIfAbsent(pEdge.getStart(), pNode -> new ArrayList<>()).add(pEdge);
+		if( pEdge.getEnd() != pEdge.getStart() )
+		{
+			aConnectedEdges.computeIfAbsent(pEdge.getEnd(), pNode -> new ArrayList<>()).add(pEdge);
+		}
+		discardPortsOf(pEdge);
+	}
+	
+	private void disconnect(Edge pEdge)
+	{
+		pEdge.view().removeInvalidationListener(aEdgeInvalidationListener);
+		for( Node node : new Node[] {pEdge.getStart(), pEdge.getEnd()} )
+		{
+			List<Edge> edges = aConnectedEdges.get(node);
+			if( edges != null )
+			{
+				edges.remove(pEdge);
+				if( edges.isEmpty() )
+				{
+					aConnectedEdges.remove(node);
+				}
+			}
+		}
+		discardPortsOf(pEdge);
+	}
+	
+	/*
+	 * Called when a property of pEdge is set, which can change the side 
+	 * of the edge or whether it can share a port.
+	 */
+	private synchronized void edgeChanged(Edge pEdge)
+	{
+		discardPortsOf(pEdge);
+	}
+	
+	private void discardPortsOf(Edge pEdge)
+	{
+		aPorts.remove(pEdge.getStart());
+		aPorts.remove(pEdge.getEnd());
+	}
+	
+	private synchronized List<Edge> edgesConnectedTo(Node pNode)
+	{
+		return new ArrayList<>(aConnectedEdges.getOrDefault(pNode, Collections.emptyList()));
+	}
+	
+	/*
+	 * The side of each edge is obtained once, then the edges on each side 
+	 * are sorted by the position of the node at their other end.
+	 */
+	private Ports computePorts(Node pNode)
+	{
+		Ports ports = new Ports();
+		ports.addDependency(pNode.view());
+		Map<Side, List<Edge>> sides = new EnumMap<>(Side.class);
+		for( Edge edge : edgesConnectedTo(pNode) )
+		{
+			Node otherNode = otherNode(edge, pNode);
+			if( otherNode == pNode )
+			{
+				ports.aSelfEdge = true;
+				continue; // Self-edges do not use a port
+			}
+			ports.addDependency(otherNode.view());
+			if( edge instanceof ClassRelationshipEdge )
+			{
+				Side side = ((ClassRelationshipEdge)edge).obtainSegmentationStyle().getAttachedSide(edge, pNode);
+				ports.aSides.put(edge, side);
+				sides.computeIfAbsent(side, pSide -> new ArrayList<>()).add(edge);
+			}
+		}
+		for( Map.Entry<Side, List<Edge>> side : sides.entrySet() )
+		{
+			List<Edge> edges = side.getValue();
+			sortPositions(edges, pNode, side.getKey());
+			List<Edge> representatives = new ArrayList<>();
+			for( Edge edge : edges )
+			{
+				int port = 0;
+				while( port < representatives.size() && !canAggregate(edge, representatives.get(port), pNode) )
+				{
+					port++;
+				}
+				if( port == representatives.size() )
+				{
+					representatives.add(edge);
+				}
+				ports.aIndexes.put(edge, port + 1);
+			}
+			ports.aTotals.put(side.getKey(), representatives.size());
+		}
+		return ports;
+	}
+	
+	// CSOFF:
+	private static boolean canAggregate(Edge pEdge1, Edge pEdge2, Node pTarget)
+	{
+		if( pEdge1.getEnd() == pTarget && pEdge2.getEnd() == pTarget &&
+				pEdge1 instanceof GeneralizationEdge && pEdge2 instanceof GeneralizationEdge &&
+				((GeneralizationEdge)pEdge1).getType() == ((GeneralizationEdge)pEdge2).getType())
+		{
+			return true;
+		}
+		else if( pEdge1.getStart() == pTarget && pEdge2.getStart() == pTarget && 
+				pEdge1 instanceof AggregationEdge && pEdge2 instanceof AggregationEdge &&
+				((AggregationEdge)pEdge1).getType() == Type.Aggregation &&
+				((AggregationEdge)pEdge2).getType() == Type.Aggregation)
+		{
+			return true;
+		}
+		else if( pEdge1.getStart() == pTarget && pEdge2.getStart() == pTarget && 
+				pEdge1 instanceof AggregationEdge && pEdge2 instanceof AggregationEdge &&
+				((AggregationEdge)pEdge1).getType() == Type.Composition &&
+				((AggregationEdge)pEdge2).getType() == Type.Composition)
+		{
+			return true;
+		}
+		else
+		{
+			return false;
+		}
+	} // CSON:
+	
+	// Sort in terms of the position of the other node
+	private static void sortPositions(List<Edge> pEdges, Node pTarget, Side pSide)
+	{
+		Collections.sort(pEdges, (pEdge1, pEdge2) ->
+		{
+			Node otherNode1 = otherNode(pEdge1, pTarget);
+			Node otherNode2 = otherNode(pEdge2, pTarget);
+			
+			if( otherNode1 == otherNode2)
+			{
+				// Sort by type
+				int direction = pEdge1.getClass().getSimpleName().compareTo(pEdge2.getClass().getSimpleName());
+				return direction;
+			}
+						
+			if( pSide.isEastWest() )
+			{		
+				return (int)(otherNode1.view().getBounds().getCenter().getY() - otherNode2.view().getBounds().getCenter().getY());
+			}
+			else
+			{
+				return (int)(otherNode1.view().getBounds().getCenter().getX() - otherNode2.view().getBounds().getCenter().getX());
+			}
+		});
+	}
+	
+	private static Node otherNode(Edge pEdge, Node pNode)
+	{
+		if( pEdge.getStart() == pNode)
+		{
+			return pEdge.getEnd();
+		}
+		else
+		{
+			return pEdge.getStart();
+		}
+	}
+	
+	/*
+	 * The ports of one node, with the state of the nodes they were computed from.
+	 */
+	private static final class Ports
+	{
+		private final Map<Edge, Side> aSides = new HashMap<>();
+		private final Map<Edge, Integer> aIndexes = new HashMap<>();
+		private final Map<Side, Integer> aTotals = new EnumMap<>(Side.class);
+		private boolean aSelfEdge = false;
+		private final List<NodeView> aDependencies = new ArrayList<>();
+		private final List<Integer> aDependencyVersions = new ArrayList<>();
+		private final List<Rectangle> aDependencyBounds = new ArrayList<>();
+		
+		void addDependency(NodeView pView)
+		{
+			if( !aDependencies.contains(pView) )
+			{
+				aDependencies.add(pView);
+				aDependencyVersions.add(pView.getVersion());
+				aDependencyBounds.add(pView.getBounds());
+			}
+		}
+		
+		boolean isValid()
+		{
+			for( int i = 0; i < aDependencies.size(); i++ )
+			{
+				NodeView view = aDependencies.get(i);
+				if( view.getVersion() != aDependencyVersions.get(i) || !view.getBounds().equals(aDependencyBounds.get(i)))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
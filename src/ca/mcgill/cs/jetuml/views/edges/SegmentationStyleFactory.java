@@ -21,17 +21,9 @@
 
 package ca.mcgill.cs.jetuml.views.edges;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
-import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
-import ca.mcgill.cs.jetuml.diagram.edges.ClassRelationshipEdge;
-import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
-import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge.Type;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
 import ca.mcgill.cs.jetuml.geom.Conversions;
 import ca.mcgill.cs.jetuml.geom.Direction;
@@ -194,7 +186,7 @@ public final class SegmentationStyleFactory
 		if( pSide.isEastWest() )
 		{
 			double yPosition = start.getY()+ pPosition.computeNudge(pNode.view().getBounds().getHeight()); // Default
-			if( hasSelfEdge(pNode, pGraph) && pSide == Side.EAST )
+			if( pGraph.getView().portLayout().hasSelfEdge(pNode) && pSide == Side.EAST )
 			{
 				double increment = (pNode.view().getBounds().getHeight() - MARGIN) / (pPosition.aTotal+1);
 				yPosition = pNode.view().getBounds().getY() + MARGIN + pPosition.getIndex() * increment;
@@ -204,7 +196,7 @@ public final class SegmentationStyleFactory
 		else
 		{
 			double xPosition = start.getX()+ pPosition.computeNudge(pNode.view().getBounds().getWidth());
-			if( hasSelfEdge(pNode, pGraph) && pSide == Side.NORTH )
+			if( pGraph.getView().portLayout().hasSelfEdge(pNode) && pSide == Side.NORTH )
 			{
 				double increment = (pNode.view().getBounds().getWidth() - MARGIN) / (pPosition.aTotal+1);
 				xPosition = pNode.view().getBounds().getX() + pPosition.getIndex() * increment;
@@ -213,18 +205,6 @@ public final class SegmentationStyleFactory
 		}
 	}
 	
-	private static boolean hasSelfEdge(Node pNode, Diagram pGraph)
-	{
-		for( Edge edge : pGraph.edgesConnectedTo(pNode))
-		{
-			if( edge.getStart() == edge.getEnd())
-			{
-				return true;
-			}
-		}
-		return false;
-	}
-	
 	/**
 	 * Computes the relative attachment position for an edge's node endpoint:
 	 * either the start node (pForward == true) or the end node (pForward == false).
@@ -239,118 +219,13 @@ public final class SegmentationStyleFactory
 	private static Position computePosition(Edge pEdge, Side pStartSide, Diagram pGraph, boolean pForward)
 	{
 		assert pEdge != null && pStartSide != null && pGraph != null;
-		Node tempTarget = pEdge.getStart();
+		Node target = pEdge.getStart();
 		if( !pForward )
 		{
-			tempTarget = pEdge.getEnd();
-		}
-		final Node target = tempTarget;
-		List<Edge> edgesOnSelectedSide = getAllEdgesForSide(pGraph, target, pStartSide);
-		sortPositions(edgesOnSelectedSide, target, pStartSide);
-		
-		// Group identical edge ends
-		List<Edge> finalPositions = new ArrayList<>();
-		int index = -1;
-		for( Edge edge : edgesOnSelectedSide )
-		{
-			int aggregated = -1;
-			for( Edge classifiedEdge : finalPositions )
-			{
-				if( canAggregate(edge, classifiedEdge, target))
-				{
-					aggregated = finalPositions.indexOf(classifiedEdge);
-					break;
-				}
-			}
-			if( aggregated < 0 )
-			{
-				finalPositions.add(edge);
-				aggregated = finalPositions.size() - 1;
-			}
-			if( edge == pEdge )
-			{
-				index = aggregated;
-			}
-		}
-		return new Position(index + 1, finalPositions.size());
-	}
-	
-	// CSOFF:
-	private static boolean canAggregate(Edge pEdge1, Edge pEdge2, Node pTarget)
-	{
-		if( pEdge1.getEnd() == pTarget && pEdge2.getEnd() == pTarget &&
-				pEdge1 instanceof GeneralizationEdge && pEdge2 instanceof GeneralizationEdge &&
-				((GeneralizationEdge)pEdge1).getType() == ((GeneralizationEdge)pEdge2).getType())
-		{
-			return true;
-		}
-		else if( pEdge1.getStart() == pTarget && pEdge2.getStart() == pTarget && 
-				pEdge1 instanceof AggregationEdge && pEdge2 instanceof AggregationEdge &&
-				((AggregationEdge)pEdge1).getType() == Type.Aggregation &&
-				((AggregationEdge)pEdge2).getType() == Type.Aggregation)
-		{
-			return true;
-		}
-		else if( pEdge1.getStart() == pTarget && pEdge2.getStart() == pTarget && 
-				pEdge1 instanceof AggregationEdge && pEdge2 instanceof AggregationEdge &&
-				((AggregationEdge)pEdge1).getType() == Type.Composition &&
-				((AggregationEdge)pEdge2).getType() == Type.Composition)
-		{
-			return true;
-		}
-		else
-		{
-			return false;
-		}
-	} // CSON:
-	
-	// TODO Fix this
-	private static List<Edge> getAllEdgesForSide(Diagram pGraph, Node pTarget, Side pSide)
-	{
-		List<Edge> edgesOnSelectedSide = new ArrayList<>();
-		for( Edge edge : pGraph.edgesConnectedTo(pTarget))
-		{
-			if( otherNode(edge, pTarget) == pTarget)
-			{
-				continue; // Do not count self-edges
-			}
-			if( !(edge instanceof ClassRelationshipEdge))
-			{
-				continue;
-			}
-			if( edge instanceof ClassRelationshipEdge && 
-					((ClassRelationshipEdge)edge).obtainSegmentationStyle().getAttachedSide(edge, pTarget) == pSide )
-			{
-				edgesOnSelectedSide.add(edge);
-			}
+			target = pEdge.getEnd();
 		}
-		return edgesOnSelectedSide;
-	}
-	
-	// Sort in terms of the position of the other node
-	private static void sortPositions(List<Edge> pEdges, Node pTarget, Side pSide)
-	{
-		Collections.sort(pEdges, (pEdge1, pEdge2) ->
-		{
-			Node otherNode1 = otherNode(pEdge1, pTarget);
-			Node otherNode2 = otherNode(pEdge2, pTarget);
-			
-			if( otherNode1 == otherNode2)
-			{
-				// Sort by type
-				int direction = pEdge1.getClass().getSimpleName().compareTo(pEdge2.getClass().getSimpleName());
-				return direction;
-			}
-						
-			if( pSide.isEastWest() )
-			{		
-				return (int)(otherNode1.view().getBounds().getCenter().getY() - otherNode2.view().getBounds().getCenter().getY());
-			}
-			else
-			{
-				return (int)(otherNode1.view().getBounds().getCenter().getX() - otherNode2.view().getBounds().getCenter().getX());
-			}
-		});
+		PortLayout layout = pGraph.getView().portLayout();
+		return new Position(layout.getPort(target, pEdge, pStartSide), layout.getNumberOfPorts(target, pStartSide));
 	}
 	
 	private static Node otherNode(Edge pEdge, Node pNode)
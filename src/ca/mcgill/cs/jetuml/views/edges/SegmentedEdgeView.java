@@ -20,15 +20,21 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views.edges;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
+import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.geom.Conversions;
+import ca.mcgill.cs.jetuml.geom.Distances;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.SharpPath;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
+import ca.mcgill.cs.jetuml.views.nodes.NodeView;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.VPos;
@@ -54,6 +60,19 @@ public final class SegmentedEdgeView extends AbstractEdgeView
 	private Supplier<String> aEndLabelSupplier;
 	private SegmentationStyle aStyle;
 	
+	/* The path is cached because routing an edge requires the attached side and
+	 * position of all the edges that share its end nodes. The path remains valid 
+	 * as long as the edges of the diagram are unchanged, and the end nodes and the 
+	 * nodes they are connected to keep the same version and bounds. The bounds 
+	 * are compared because the bounds of some nodes, such as call nodes, depend 
+	 * on the rest of the diagram. */
+	private Point2D[] aPoints;
+	private Diagram aPathDiagram;
+	private int aEdgeVersion;
+	private final List<NodeView> aDependencies = new ArrayList<>();
+	private final List<Integer> aDependencyVersions = new ArrayList<>();
+	private final List<Rectangle> aDependencyBounds = new ArrayList<>();
+	
 	/**
 	 * @param pEdge The edge to wrap.
 	 * @param pStyle The segmentation style.
@@ -119,7 +138,12 @@ public final class SegmentedEdgeView extends AbstractEdgeView
 	public void draw(GraphicsContext pGraphics)
 	{
 		Point2D[] points = getPoints();		
-		ToolGraphics.strokeSharpPath(pGraphics, getSegmentPath(), aLineStyleSupplier.get());
+		SharpPath path = new SharpPath().moveTo(points[points.length - 1].getX(), points[points.length - 1].getY());
+		for(int i = points.length - 2; i >= 0; i--)
+		{
+			path.lineTo(points[i].getX(), points[i].getY());
+		}
+		ToolGraphics.strokeSharpPath(pGraphics, path, aLineStyleSupplier.get());
 		aArrowStartSupplier.get().view().draw(pGraphics, points[1], points[0]);
 		aArrowEndSupplier.get().view().draw(pGraphics, points[points.length - 2], points[points.length - 1]);
 
@@ -176,23 +200,108 @@ public final class SegmentedEdgeView extends AbstractEdgeView
 			}
 			if(pArrow != null)
 			{
-				Bounds arrowBounds = pArrow.view().getPath(pEndPoint1, pEndPoint2).getBoundsInLocal();
+				double arrowWidth = pArrow.view().getWidth(pEndPoint1, pEndPoint2);
 				if(pEndPoint1.getX() < pEndPoint2.getX())
 				{
-					xoff -= arrowBounds.getWidth();
+					xoff -= arrowWidth;
 				}
 				else
 				{
-					xoff += arrowBounds.getWidth();
+					xoff += arrowWidth;
 				}
 			}
 		}
 		return new Point2D(attach.getX() + xoff, attach.getY() + yoff);
 	}
 	
+	@Override
+	protected Point2D[] getPolyline()
+	{
+		return getPoints();
+	}
+	
+	@Override
+	public boolean isPrepared()
+	{
+		return isPathValid();
+	}
+	
+	/*
+	 * Only the path is computed, because measuring the labels
+	 * requires the JavaFX application thread.
+	 */
+	@Override
+	public void prepare()
+	{
+		getPoints();
+	}
+	
 	private Point2D[] getPoints()
 	{
-		return aStyle.getPath(edge(), edge().getDiagram());
+		if( !isPathValid() )
+		{
+			aPoints = aStyle.getPath(edge(), edge().getDiagram());
+			recordDependencies();
+		}
+		return aPoints;
+	}
+	
+	private boolean isPathValid()
+	{
+		if( aPoints == null || aPathDiagram != edge().getDiagram() || 
+				aPathDiagram != null && aPathDiagram.getEdgeVersion() != aEdgeVersion )
+		{
+			return false;
+		}
+		for( int i = 0; i < aDependencies.size(); i++ )
+		{
+			NodeView view = aDependencies.get(i);
+			if( view.getVersion() != aDependencyVersions.get(i) || !view.getBounds().equals(aDependencyBounds.get(i)))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * Records the state of the diagram and of the nodes the path was computed from:
+	 * the end nodes and all the nodes connected to them.
+	 */
+	private void recordDependencies()
+	{
+		aPathDiagram = edge().getDiagram();
+		aDependencies.clear();
+		aDependencyVersions.clear();
+		aDependencyBounds.clear();
+		addDependency(edge().getStart().view());
+		addDependency(edge().getEnd().view());
+		if( aPathDiagram == null )
+		{
+			return;
+		}
+		aEdgeVersion = aPathDiagram.getEdgeVersion();
+		for( Edge edge : aPathDiagram.edges() )
+		{
+			if( edge.getStart() == edge().getStart() || edge.getStart() == edge().getEnd() )
+			{
+				addDependency(edge.getEnd().view());
+			}
+			if( edge.getEnd() == edge().getStart() || edge.getEnd() == edge().getEnd() )
+			{
+				addDependency(edge.getStart().view());
+			}
+		}
+	}
+	
+	private void addDependency(NodeView pView)
+	{
+		if( !aDependencies.contains(pView) )
+		{
+			aDependencies.add(pView);
+			aDependencyVersions.add(pView.getVersion());
+			aDependencyBounds.add(pView.getBounds());
+		}
 	}
 
 	@Override
@@ -213,6 +322,17 @@ public final class SegmentedEdgeView extends AbstractEdgeView
 		return path;
 	}
 
+	@Override
+	protected double distanceTo(Point2D pPoint)
+	{
+		Point2D[] points = getPoints();
+		double result = Distances.pointToPolyline(pPoint, points);
+		result = Math.min(result, Distances.pointToPolyline(pPoint, 
+				aArrowStartSupplier.get().view().getOutline(points[1], points[0])));
+		return Math.min(result, Distances.pointToPolyline(pPoint, 
+				aArrowEndSupplier.get().view().getOutline(points[points.length - 2], points[points.length - 1])));
+	}
+
 	private Path getSegmentPath()
 	{
 		Point2D[] points = getPoints();
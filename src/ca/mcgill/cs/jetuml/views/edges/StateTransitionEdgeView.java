@@ -22,16 +22,22 @@ package ca.mcgill.cs.jetuml.views.edges;
 
 import static ca.mcgill.cs.jetuml.views.StringViewer.FONT;
 
+import java.util.List;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.edges.StateTransitionEdge;
 import ca.mcgill.cs.jetuml.geom.Conversions;
 import ca.mcgill.cs.jetuml.geom.Direction;
+import ca.mcgill.cs.jetuml.geom.Distances;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.SharpPath;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
+import ca.mcgill.cs.jetuml.views.nodes.NodeView;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
@@ -49,6 +55,12 @@ import javafx.scene.text.TextAlignment;
 
 /**
  * An edge view specialized for state transitions.
+ * 
+ * The geometry of the edge (its position among the transitions between 
+ * the same states, its connection points and control point, and the font and
+ * bounds of its label) is computed once and cached until the label is 
+ * edited, one of the states moves, or edges are added to or removed 
+ * from the diagram.
  */
 public final class StateTransitionEdgeView extends AbstractEdgeView
 {
@@ -57,6 +69,7 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	private static final int DEGREES_10 = 10;
 	private static final int DEGREES_20 = 20;
 	private static final int DEGREES_270 = 270;
+	private static final int DEGREES_360 = 360;
 	private static final double LINE_WIDTH = 0.6;
 	
 	private static final int RADIANS_TO_PIXELS = 10;
@@ -68,8 +81,7 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	// before centering the edge label on one side instead of in the center.
 	private static final int VERTICAL_TOLERANCE = 20; 
 
-	private Font aFont = FONT;
-	private String aLabel;
+	private Geometry aGeometry;
 	
 	/**
 	 * @param pEdge The edge to wrap.
@@ -77,7 +89,15 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	public StateTransitionEdgeView(StateTransitionEdge pEdge)
 	{
 		super(pEdge);
-		aLabel = ((StateTransitionEdge) edge()).getMiddleLabel();
+	}
+	
+	private Geometry geometry()
+	{
+		if( aGeometry == null || !aGeometry.isValid() )
+		{
+			aGeometry = new Geometry();
+		}
+		return aGeometry;
 	}
 
 	@Override
@@ -90,7 +110,10 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 		}
 		else 
 		{
-			ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(), LineStyle.SOLID);
+			Line line = getConnectionPoints();
+			Point2D control = getControlPoint();
+			ToolGraphics.strokeSharpPath(pGraphics, new SharpPath().moveTo(line.getX1(), line.getY1())
+					.quadraticCurveTo(control.getX(), control.getY(), line.getX2(), line.getY2()), LineStyle.SOLID);
 		}
 		drawLabel(pGraphics);
 		drawArrowHead(pGraphics);
@@ -100,7 +123,7 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	{
 		if( isSelfEdge() )
 		{
-			Point connectionPoint2 = getSelfEdgeConnectionPoints().getPoint2();
+			Point connectionPoint2 = getConnectionPoints().getPoint2();
 			if( getPosition() == 1 )
 			{
 				ArrowHead.V.view().draw(pGraphics, new Point2D(connectionPoint2.getX()+SELF_EDGE_OFFSET, 
@@ -124,9 +147,8 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	 */
 	private void drawLabel(GraphicsContext pGraphics)
 	{
-		aLabel = ((StateTransitionEdge) edge()).getMiddleLabel();
-		adjustLabelFont();
-		Rectangle2D labelBounds = getLabelBounds();
+		Geometry geometry = geometry();
+		Rectangle2D labelBounds = geometry.aLabelBounds;
 		double x = labelBounds.getMinX();
 		double y = labelBounds.getMinY();
 		
@@ -134,9 +156,9 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 		Font oldFont = pGraphics.getFont();
 		pGraphics.translate(x, y);
 		pGraphics.setFill(Color.BLACK);
-		pGraphics.setFont(aFont);
+		pGraphics.setFont(geometry.aFont);
 		pGraphics.setTextAlign(TextAlignment.CENTER);
-		pGraphics.fillText(aLabel, labelBounds.getWidth()/2, 0);
+		pGraphics.fillText(geometry.aLabel, labelBounds.getWidth()/2, 0);
 		pGraphics.setFill(oldFill);
 		pGraphics.setFont(oldFont);
 		pGraphics.translate(-x, -y);        
@@ -154,38 +176,28 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	
 	private Rectangle2D getLabelBounds()
 	{
-		if( isSelfEdge() )
-		{
-			return getSelfEdgeLabelBounds();
-		}
-		else
-		{
-			return getNormalEdgeLabelBounds();
-		}
+		return geometry().aLabelBounds;
 	}
 	
 	/*
 	 * Gets the bounds of the label text.
 	 * @return the bounds of the label text
 	 */
-	private Rectangle2D getNormalEdgeLabelBounds()
+	private Rectangle2D computeNormalEdgeLabelBounds(Line pLine, Point2D pControl, int pPosition, String pLabel)
 	{
-		Line line = getConnectionPoints();
-		Point2D control = getControlPoint();
-		double x = control.getX() / 2 + line.getX1() / 4 + line.getX2() / 4;
-		double y = control.getY() / 2 + line.getY1() / 4 + line.getY2() / 4;
+		double x = pControl.getX() / 2 + pLine.getX1() / 4 + pLine.getX2() / 4;
+		double y = pControl.getY() / 2 + pLine.getY1() / 4 + pLine.getY2() / 4;
 
-		adjustLabelFont();
-		Rectangle bounds = getLabelBounds(aLabel);
+		Rectangle bounds = getLabelBounds(pLabel);
 
 		int gap = 3;
-		if( line.getY1() >= line.getY2() - VERTICAL_TOLERANCE && 
-				line.getY1() <= line.getY2() + VERTICAL_TOLERANCE ) 
+		if( pLine.getY1() >= pLine.getY2() - VERTICAL_TOLERANCE && 
+				pLine.getY1() <= pLine.getY2() + VERTICAL_TOLERANCE ) 
 		{
 			// The label is centered if the edge is (mostly) horizontal
 			x -= bounds.getWidth() / 2;
 		}
-		else if( line.getY1() <= line.getY2() )
+		else if( pLine.getY1() <= pLine.getY2() )
 		{
 			x += gap;
 		}
@@ -194,7 +206,7 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 			x -= bounds.getWidth() + gap;
 		}
 		
-		if( line.getX1() <= line.getX2() )
+		if( pLine.getX1() <= pLine.getX2() )
 		{
 			y -= bounds.getHeight() + gap;
 		}
@@ -204,11 +216,11 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 		}
 		
 		// Additional gap to make sure the labels don't overlap
-		if( edge().getDiagram() != null && getPosition() > 1 )
+		if( pPosition > 1 )
 		{
-			double delta = Math.abs(Math.atan2(line.getX2()-line.getX1(), line.getY2()-line.getY1()));
+			double delta = Math.abs(Math.atan2(pLine.getX2()-pLine.getX1(), pLine.getY2()-pLine.getY1()));
 			delta = bounds.getHeight() - delta*RADIANS_TO_PIXELS;
-			if( line.getX1() <= line.getX2() )
+			if( pLine.getX1() <= pLine.getX2() )
 			{
 				y -= delta;
 			}
@@ -225,20 +237,18 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	 * in the middle of it.
 	 * @return the bounds of the label text
 	 */
-	private Rectangle2D getSelfEdgeLabelBounds()
+	private Rectangle2D computeSelfEdgeLabelBounds(Line pLine, int pPosition, String pLabel)
 	{
-		Line line = getConnectionPoints();
-		adjustLabelFont();
-		Rectangle dimension = getLabelBounds(aLabel);
-		if( getPosition() == 1 )
+		Rectangle dimension = getLabelBounds(pLabel);
+		if( pPosition == 1 )
 		{
-			return new Rectangle2D(line.getX1() + SELF_EDGE_OFFSET - dimension.getWidth()/2,	
-					line.getY1() - SELF_EDGE_OFFSET*2, dimension.getWidth(), dimension.getHeight());
+			return new Rectangle2D(pLine.getX1() + SELF_EDGE_OFFSET - dimension.getWidth()/2,	
+					pLine.getY1() - SELF_EDGE_OFFSET*2, dimension.getWidth(), dimension.getHeight());
 		}
 		else
 		{
-			return new Rectangle2D(line.getX1() - dimension.getWidth()/2,	
-					line.getY1() - SELF_EDGE_OFFSET * HEIGHT_RATIO, dimension.getWidth(), dimension.getHeight());
+			return new Rectangle2D(pLine.getX1() - dimension.getWidth()/2,	
+					pLine.getY1() - SELF_EDGE_OFFSET * HEIGHT_RATIO, dimension.getWidth(), dimension.getHeight());
 		}
 	}   
 	
@@ -260,18 +270,21 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 		return new Rectangle(0, 0, width, height);
 	}
 	
-	private void adjustLabelFont()
+	/*
+	 * Long labels are drawn with a smaller font.
+	 */
+	private static Font fitFont(String pLabel)
 	{
-		if(((StateTransitionEdge) edge()).getMiddleLabel().length() > MAX_LENGTH_FOR_NORMAL_FONT)
+		if(pLabel.length() > MAX_LENGTH_FOR_NORMAL_FONT)
 		{
-			float difference = ((StateTransitionEdge) edge()).getMiddleLabel().length() - MAX_LENGTH_FOR_NORMAL_FONT;
-			difference = difference / (2*((StateTransitionEdge) edge()).getMiddleLabel().length()); // damping
+			float difference = pLabel.length() - MAX_LENGTH_FOR_NORMAL_FONT;
+			difference = difference / (2*pLabel.length()); // damping
 			double newFontSize = Math.max(MIN_FONT_SIZE, (1-difference) * FONT.getSize());
-			aFont = new Font(aFont.getName(), newFontSize);
+			return new Font(FONT.getName(), newFontSize);
 		}
 		else
 		{
-			aFont = FONT;
+			return FONT;
 		}
 	}
 
@@ -295,39 +308,103 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	
 	private Shape getSelfEdgeShape()
 	{
-		Line line = getSelfEdgeConnectionPoints();
+		Point2D center = getSelfEdgeCenter();
 		Arc arc = new Arc();
 		arc.setRadiusX(SELF_EDGE_OFFSET*2);
 		arc.setRadiusY(SELF_EDGE_OFFSET*2);
 		arc.setLength(DEGREES_270);
 		arc.setType(ArcType.OPEN);
+		arc.setCenterX(center.getX());
+		arc.setCenterY(center.getY());
+		arc.setStartAngle(getSelfEdgeStartAngle());
+		return arc;
+	}
+	
+	private Point2D getSelfEdgeCenter()
+	{
+		Line line = getConnectionPoints();
 		if( getPosition() == 1 )
 		{
-			arc.setCenterX(line.getX1());
-			arc.setCenterY(line.getY1()-SELF_EDGE_OFFSET);
-			arc.setStartAngle(DEGREES_270);
+			return new Point2D(line.getX1(), line.getY1()-SELF_EDGE_OFFSET);
 		}
 		else
-		{		
-			arc.setCenterX(line.getX1()-SELF_EDGE_OFFSET);
-			arc.setCenterY(line.getY1()-SELF_EDGE_OFFSET*2);
-			arc.setStartAngle(1);
+		{
+			return new Point2D(line.getX1()-SELF_EDGE_OFFSET, line.getY1()-SELF_EDGE_OFFSET*2);
 		}
-		return arc;
 	}
 	
+	private int getSelfEdgeStartAngle()
+	{
+		if( getPosition() == 1 )
+		{
+			return DEGREES_270;
+		}
+		else
+		{
+			return 1;
+		}
+	}
+	
+	/*
+	 * A self edge is selected by clicking anywhere in its loop: the region bounded by 
+	 * the arc, enlarged by the selection tolerance, and by the chord that joins the 
+	 * ends of the arc. Because the arc spans more than 180 degrees, the center of the
+	 * arc is on the same side of the chord as all the points of the region.
+	 */
 	@Override
 	public boolean contains(Point pPoint)
 	{
-		boolean result = super.contains(pPoint);
-		if (getShape() instanceof Arc)
+		if( !isSelfEdge() )
+		{
+			return super.contains(pPoint);
+		}
+		Point2D center = getSelfEdgeCenter();
+		double radius = SELF_EDGE_OFFSET * 2 + 2 * MAX_DISTANCE;
+		if( Conversions.toPoint2D(pPoint).distance(center) > radius )
+		{
+			return false;
+		}
+		Point2D start = pointOnArc(center, radius, getSelfEdgeStartAngle());
+		Point2D end = pointOnArc(center, radius, getSelfEdgeStartAngle() + DEGREES_270);
+		return side(start, end, center.getX(), center.getY()) * side(start, end, pPoint.getX(), pPoint.getY()) >= 0;
+	}
+	
+	/*
+	 * Arc angles are measured counter-clockwise, in a coordinate system where y grows downwards.
+	 */
+	private static Point2D pointOnArc(Point2D pCenter, double pRadius, double pDegrees)
+	{
+		double radians = Math.toRadians(pDegrees);
+		return new Point2D(pCenter.getX() + pRadius * Math.cos(radians), pCenter.getY() - pRadius * Math.sin(radians));
+	}
+	
+	/*
+	 * Positive or negative depending on the side of the line through pStart and pEnd where (pX, pY) lies.
+	 */
+	private static double side(Point2D pStart, Point2D pEnd, double pX, double pY)
+	{
+		return (pEnd.getX() - pStart.getX()) * (pY - pStart.getY()) - (pEnd.getY() - pStart.getY()) * (pX - pStart.getX());
+	}
+	
+	@Override
+	protected double distanceTo(Point2D pPoint)
+	{
+		if( isSelfEdge() )
 		{
-			Arc arc = (Arc) getShape();
-			arc.setRadiusX(arc.getRadiusX() + 2 * MAX_DISTANCE);
-			arc.setRadiusY(arc.getRadiusY() + 2 * MAX_DISTANCE);
-			result = arc.contains(pPoint.getX(), pPoint.getY());
+			Point2D center = getSelfEdgeCenter();
+			double radius = SELF_EDGE_OFFSET * 2;
+			double angle = Math.toDegrees(Math.atan2(center.getY() - pPoint.getY(), pPoint.getX() - center.getX()));
+			double fromStart = ((angle - getSelfEdgeStartAngle()) % DEGREES_360 + DEGREES_360) % DEGREES_360;
+			if( fromStart <= DEGREES_270 )
+			{
+				return Math.abs(pPoint.distance(center) - radius);
+			}
+			return Math.min(pPoint.distance(pointOnArc(center, radius, getSelfEdgeStartAngle())), 
+					pPoint.distance(pointOnArc(center, radius, getSelfEdgeStartAngle() + DEGREES_270)));
 		}
-		return result;
+		Line line = getConnectionPoints();
+		return Distances.pointToQuadraticCurve(pPoint, Conversions.toPoint2D(line.getPoint1()), getControlPoint(), 
+				Conversions.toPoint2D(line.getPoint2()));
 	}
 	
 	/** 
@@ -336,31 +413,30 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	 * @pre getGraph() != null
 	 */
 	private int getPosition()
+	{
+		return geometry().aPosition;
+	}
+	
+	private int computePosition()
 	{
 		assert edge().getDiagram() != null;
-		int lReturn = 0;
-		for( Edge edge : edge().getDiagram().edgesConnectedTo(edge().getStart()))
+		List<Edge> edges = edge().getDiagram().edgesBetween(edge().getStart(), edge().getEnd(), edge().getClass());
+		int index = edges.indexOf(edge());
+		if( index >= 0 )
 		{
-			if( edge.getStart() == edge().getStart() && edge.getEnd() == edge().getEnd())
-			{
-				lReturn++;
-			}
-			if( edge == edge() )
-			{
-				return lReturn;
-			}
+			return index + 1;
 		}
-		assert lReturn > 0;
-		return lReturn;
+		assert !edges.isEmpty();
+		return edges.size();
 	}
 	
 	/*
 	 * The connection points for the self-edge are an offset from the top-right
 	 * corner.
 	 */
-	private Line getSelfEdgeConnectionPoints()
+	private Line computeSelfEdgeConnectionPoints(int pPosition)
 	{
-		if( getPosition() == 1 )
+		if( pPosition == 1 )
 		{
 			Point2D point1 = new Point2D(edge().getStart().view().getBounds().getMaxX() - SELF_EDGE_OFFSET, 
 					edge().getStart().view().getBounds().getY());
@@ -381,9 +457,10 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	private Shape getNormalEdgeShape()
 	{
 		Line line = getConnectionPoints();
+		Point2D control = getControlPoint();
 		Path path = new Path();
 		MoveTo moveTo = new MoveTo(line.getPoint1().getX(), line.getPoint1().getY());
-		QuadCurveTo curveTo = new QuadCurveTo(getControlPoint().getX(), getControlPoint().getY(), line.getPoint2().getX(), line.getPoint2().getY());
+		QuadCurveTo curveTo = new QuadCurveTo(control.getX(), control.getY(), line.getPoint2().getX(), line.getPoint2().getY());
 		path.getElements().addAll(moveTo, curveTo);
 		return path;
 	}
@@ -395,15 +472,19 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
      */
 	private Point2D getControlPoint()
 	{
-		Line line = getConnectionPoints();
+		return geometry().aControlPoint;
+	}
+	
+	private static Point2D computeControlPoint(Line pLine, int pPosition)
+	{
 		double tangent = Math.tan(Math.toRadians(DEGREES_10));
-		if( edge().getDiagram() != null && getPosition() > 1 )
+		if( pPosition > 1 )
 		{
 			tangent = Math.tan(Math.toRadians(DEGREES_20));
 		}
-		double dx = (line.getX2() - line.getX1()) / 2;
-		double dy = (line.getY2() - line.getY1()) / 2;
-		return new Point2D((line.getX1() + line.getX2()) / 2 + tangent * dy, (line.getY1() + line.getY2()) / 2 - tangent * dx);         
+		double dx = (pLine.getX2() - pLine.getX1()) / 2;
+		double dy = (pLine.getY2() - pLine.getY1()) / 2;
+		return new Point2D((pLine.getX1() + pLine.getX2()) / 2 + tangent * dy, (pLine.getY1() + pLine.getY2()) / 2 - tangent * dx);         
 	}
 	
 	@Override
@@ -415,28 +496,21 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 	@Override
 	public Line getConnectionPoints()
 	{
-		if(isSelfEdge())
-		{
-			return getSelfEdgeConnectionPoints();
-		}
-		else
-		{
-			return getNormalEdgeConnectionsPoints();
-		}
+		return geometry().aConnectionPoints;
 	}
 	
 	/*
 	 * The connection points are a slight offset from the center.
 	 * @return
 	 */
-	private Line getNormalEdgeConnectionsPoints()
+	private Line computeNormalEdgeConnectionsPoints(int pPosition)
 	{
 		Rectangle start = edge().getStart().view().getBounds();
 		Rectangle end = edge().getEnd().view().getBounds();
 		Point startCenter = start.getCenter();
 		Point endCenter = end.getCenter();
 		int turn = DEGREES_5;
-		if( edge().getDiagram() != null && getPosition() > 1 )
+		if( pPosition > 1 )
 		{
 			turn = DEGREES_20;
 		}
@@ -444,4 +518,40 @@ public final class StateTransitionEdgeView extends AbstractEdgeView
 		Direction d2 = new Direction(endCenter, startCenter).turn(turn);
 		return new Line(edge().getStart().view().getConnectionPoint(d1), edge().getEnd().view().getConnectionPoint(d2));
 	}
+	
+	/*
+	 * The geometry of the edge and what it was computed from. The position of 
+	 * the edge among the transitions between the same states is checked against 
+	 * the diagram, so that changes to other edges do not invalidate the geometry.
+	 */
+	private final class Geometry
+	{
+		private final String aLabel = ((StateTransitionEdge) edge()).getMiddleLabel();
+		private final Diagram aDiagram = edge().getDiagram();
+		private final NodeView aStart = edge().getStart().view();
+		private final NodeView aEnd = edge().getEnd().view();
+		private final int aStartVersion = aStart.getVersion();
+		private final int aEndVersion = aEnd.getVersion();
+		private final Rectangle aStartBounds = aStart.getBounds();
+		private final Rectangle aEndBounds = aEnd.getBounds();
+		
+		private final int aPosition = aDiagram == null ? 0 : computePosition();
+		private final Line aConnectionPoints = isSelfEdge() ? 
+				computeSelfEdgeConnectionPoints(aPosition) : computeNormalEdgeConnectionsPoints(aPosition);
+		private final Point2D aControlPoint = computeControlPoint(aConnectionPoints, aPosition);
+		private final Font aFont = fitFont(aLabel);
+		private final Rectangle2D aLabelBounds = isSelfEdge() ? 
+				computeSelfEdgeLabelBounds(aConnectionPoints, aPosition, aLabel) : 
+				computeNormalEdgeLabelBounds(aConnectionPoints, aControlPoint, aPosition, aLabel);
+		
+		boolean isValid()
+		{
+			return aLabel.equals(((StateTransitionEdge) edge()).getMiddleLabel()) && 
+					aDiagram == edge().getDiagram() && 
+					aStart == edge().getStart().view() && aEnd == edge().getEnd().view() && 
+					aStart.getVersion() == aStartVersion && aEnd.getVersion() == aEndVersion && 
+					aStart.getBounds().equals(aStartBounds) && aEnd.getBounds().equals(aEndBounds) &&
+					(aDiagram == null || computePosition() == aPosition);
+		}
+	}
 }
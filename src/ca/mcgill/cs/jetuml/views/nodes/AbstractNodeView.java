@@ -20,12 +20,22 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views.nodes;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.LevelOfDetail;
+import ca.mcgill.cs.jetuml.views.NodeSpriteCache;
+import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
+import ca.mcgill.cs.jetuml.views.ViewUtils;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
 
 /**
  * Basic services for drawing nodes.
@@ -33,6 +43,12 @@ import javafx.scene.canvas.GraphicsContext;
 public abstract class AbstractNodeView implements NodeView
 {
 	private Node aNode;
+	private int aVersion = 0;
+	private final List<Consumer<Node>> aInvalidationListeners = new ArrayList<>();
+	
+	/* The bounds returned by cachedBounds, and the version of this view for which they were computed. */
+	private Rectangle aCachedBounds;
+	private int aCachedBoundsVersion = -1;
 	
 	/**
 	 * @param pNode The node to wrap.
@@ -107,6 +123,119 @@ public abstract class AbstractNodeView implements NodeView
 		return new Point(x, y);
 	}
 	
+	/* 
+	 * By default, views do not cache any geometry, so invalidating them only
+	 * changes their version and notifies the listeners. Subclasses that cache 
+	 * geometry must call this method.
+	 * @see ca.mcgill.cs.jetuml.views.nodes.NodeView#invalidate()
+	 */
+	@Override
+	public void invalidate()
+	{
+		aVersion++;
+		for( Consumer<Node> listener : aInvalidationListeners )
+		{
+			listener.accept(aNode);
+		}
+	}
+	
+	@Override
+	public void addInvalidationListener(Consumer<Node> pListener)
+	{
+		assert pListener != null;
+		if( !aInvalidationListeners.contains(pListener) )
+		{
+			aInvalidationListeners.add(pListener);
+		}
+	}
+	
+	@Override
+	public void removeInvalidationListener(Consumer<Node> pListener)
+	{
+		assert pListener != null;
+		aInvalidationListeners.remove(pListener);
+	}
+	
+	@Override
+	public int getVersion()
+	{
+		return aVersion;
+	}
+	
+	/**
+	 * Returns the bounds computed by pBounds the first time it is called for 
+	 * the current version of this view, and the same bounds until the view 
+	 * is invalidated. This is intended for views whose bounds only depend on
+	 * their node and require measuring text, which must be done on the JavaFX 
+	 * thread: once the bounds are cached, they can be read from other threads.
+	 * 
+	 * @param pBounds Computes the bounds of this view.
+	 * @return The bounds of this view.
+	 * @pre pBounds != null.
+	 */
+	protected final Rectangle cachedBounds(Supplier<Rectangle> pBounds)
+	{
+		assert pBounds != null;
+		if( aCachedBounds == null || aCachedBoundsVersion != aVersion )
+		{
+			aCachedBounds = pBounds.get();
+			aCachedBoundsVersion = aVersion;
+		}
+		return aCachedBounds;
+	}
+	
+	/*
+	 * In full detail, nodes can be drawn from the sprite cache. With less detail, 
+	 * nodes are drawn as boxes, optionally with their name.
+	 * @see ca.mcgill.cs.jetuml.views.DiagramElementView#draw(javafx.scene.canvas.GraphicsContext, 
+	 * ca.mcgill.cs.jetuml.views.LevelOfDetail)
+	 */
+	@Override
+	public void draw(GraphicsContext pGraphics, LevelOfDetail pLevelOfDetail)
+	{
+		if( pLevelOfDetail == LevelOfDetail.FULL )
+		{
+			if( isCached() )
+			{
+				NodeSpriteCache.instance().draw(this, pGraphics);
+			}
+			else
+			{
+				draw(pGraphics);
+			}
+			return;
+		}
+		Rectangle bounds = getBounds();
+		ViewUtils.drawRectangle(pGraphics, Color.BLACK, Color.WHITE, 
+				bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+		String name = getName().trim();
+		if( pLevelOfDetail == LevelOfDetail.SIMPLIFIED && !name.isEmpty() )
+		{
+			ViewUtils.drawCenteredText(pGraphics, bounds.getCenter().getX(), bounds.getCenter().getY(), 
+					name, StringViewer.FONT);
+		}
+	}
+	
+	/**
+	 * @return True if the node should be drawn from an image kept in the 
+	 * NodeSpriteCache when it is drawn in full detail. Worthwhile for nodes
+	 * that contain a lot of text. By default, nodes are drawn directly.
+	 */
+	protected boolean isCached()
+	{
+		return false;
+	}
+	
+	/**
+	 * @return The name of the node, which is the only text drawn 
+	 * when the node is drawn in a simplified way. By default, nodes
+	 * have no name.
+	 */
+	protected String getName()
+	{
+		return "";
+	}
+	
 	@Override
 	public void drawSelectionHandles(GraphicsContext pGraphics)
 	{
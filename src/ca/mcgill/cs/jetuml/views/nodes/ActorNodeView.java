@@ -23,13 +23,10 @@ package ca.mcgill.cs.jetuml.views.nodes;
 import ca.mcgill.cs.jetuml.diagram.nodes.ActorNode;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.SharpPath;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.QuadCurveTo;
 
 /**
  * An object to render an actor in a use case diagram.
@@ -59,8 +56,19 @@ public final class ActorNodeView extends AbstractNodeView
 		return ((ActorNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
 	@Override
 	public Rectangle getBounds()
+	{
+		return cachedBounds(this::computeBounds);
+	}
+	
+	private Rectangle computeBounds()
 	{
 		Rectangle nameBounds = NAME_VIEWER.getBounds(name());
 		return new Rectangle(node().position().getX(), node().position().getY(),
@@ -78,10 +86,8 @@ public final class ActorNodeView extends AbstractNodeView
 		ToolGraphics.strokeSharpPath(pGraphics, createSickManPath(), LineStyle.SOLID);
 	}
 	
-	private Path createSickManPath()
+	private SharpPath createSickManPath()
 	{
-		Path path = new Path();
-		
 		int neckX = node().position().getX() + WIDTH / 2;
 		int neckY = node().position().getY() + HEAD_SIZE + PADDING;
 		int hipX = neckX;
@@ -91,19 +97,17 @@ public final class ActorNodeView extends AbstractNodeView
 		float feetX2 = hipX + dx + 1;
 		float feetY  = hipY + dx + 1;
 		
-		path.getElements().addAll(
-				new MoveTo(neckX, neckY),
-				new QuadCurveTo(neckX + HEAD_SIZE / 2, neckY, neckX + HEAD_SIZE / 2, neckY - HEAD_SIZE / 2),
-				new QuadCurveTo(neckX + HEAD_SIZE / 2, neckY - HEAD_SIZE, neckX, neckY - HEAD_SIZE),
-				new QuadCurveTo(neckX - HEAD_SIZE / 2, neckY - HEAD_SIZE, neckX-HEAD_SIZE / 2, neckY - HEAD_SIZE / 2),
-				new QuadCurveTo(neckX - HEAD_SIZE / 2, neckY, neckX, neckY),
-				new LineTo(hipX, hipY),
-				new MoveTo(neckX - ARMS_SIZE / 2, neckY + BODY_SIZE / 3),
-				new LineTo(neckX + ARMS_SIZE / 2, neckY + BODY_SIZE / 3),
-				new MoveTo(feetX1, feetY),
-				new LineTo(hipX, hipY),
-				new LineTo(feetX2, feetY));
-		
-		return path;
+		return new SharpPath()
+				.moveTo(neckX, neckY)
+				.quadraticCurveTo(neckX + HEAD_SIZE / 2, neckY, neckX + HEAD_SIZE / 2, neckY - HEAD_SIZE / 2)
+				.quadraticCurveTo(neckX + HEAD_SIZE / 2, neckY - HEAD_SIZE, neckX, neckY - HEAD_SIZE)
+				.quadraticCurveTo(neckX - HEAD_SIZE / 2, neckY - HEAD_SIZE, neckX-HEAD_SIZE / 2, neckY - HEAD_SIZE / 2)
+				.quadraticCurveTo(neckX - HEAD_SIZE / 2, neckY, neckX, neckY)
+				.lineTo(hipX, hipY)
+				.moveTo(neckX - ARMS_SIZE / 2, neckY + BODY_SIZE / 3)
+				.lineTo(neckX + ARMS_SIZE / 2, neckY + BODY_SIZE / 3)
+				.moveTo(feetX1, feetY)
+				.lineTo(hipX, hipY)
+				.lineTo(feetX2, feetY);
 	}
 }
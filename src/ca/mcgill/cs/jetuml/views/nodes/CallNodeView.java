@@ -20,12 +20,7 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views.nodes;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-
 import ca.mcgill.cs.jetuml.diagram.ControlFlow;
-import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.SequenceDiagram;
 import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
@@ -33,6 +28,7 @@ import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.SequenceDiagramView;
 import ca.mcgill.cs.jetuml.views.ViewUtils;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
@@ -42,10 +38,8 @@ import javafx.scene.paint.Color;
  */
 public final class CallNodeView extends AbstractNodeView
 {
+	static final int DEFAULT_HEIGHT = 30;
 	private static final int WIDTH = 16;
-	private static final int DEFAULT_HEIGHT = 30;
-	private static final int Y_GAP_BIG = 20;
-	private static final int Y_GAP_SMALL = 10;
 	
 	private SequenceDiagram aDiagram = null;
 	
@@ -145,9 +139,8 @@ public final class CallNodeView extends AbstractNodeView
 	}
 	
 	/*
-	 * If the node has a caller, the Y coordinate is a gap below the last return Y value
-	 * of the caller or a set distance before the previous call node, whatever is lower.
-	 * If not, it's simply a set distance below the previous call node.
+	 * The y position is obtained from the layout of the diagram, which
+	 * places each call node according to the call sequence.
 	 */
 	private int getY()
 	{
@@ -155,33 +148,7 @@ public final class CallNodeView extends AbstractNodeView
 		{
 			return 0; // Only used for the ImageCreator
 		}
-		ControlFlow flow = new ControlFlow(aDiagram);
-		Optional<CallNode> caller = flow.getCaller(node());
-		if( caller.isPresent() )
-		{
-			int result = 0;
-			if( flow.isNested(node()) && flow.isFirstCallee(node()))
-			{
-				result = ((CallNodeView)caller.get().view()).getY() + Y_GAP_BIG;
-			}
-			else if( flow.isNested(node()) && !flow.isFirstCallee(node()) )
-			{
-				result = ((CallNodeView)flow.getPreviousCallee(node()).view()).getMaxY() + Y_GAP_SMALL;
-			}
-			else if( !flow.isNested(node()) && flow.isFirstCallee(node()) )
-			{
-				result = ((CallNodeView)caller.get().view()).getY() + Y_GAP_SMALL;
-			}
-			else
-			{
-				result = ((CallNodeView)flow.getPreviousCallee(node()).view()).getMaxY() + Y_GAP_SMALL;
-			}
-			return result;
-		}
-		else
-		{
-			return ((ImplicitParameterNodeView)implicitParameter().view()).getTopRectangle().getMaxY() + Y_GAP_SMALL;
-		}
+		return layout().getY(node());
 	} 
 	
 	/**
@@ -190,19 +157,16 @@ public final class CallNodeView extends AbstractNodeView
 	 */
 	public int getMaxY()
 	{
-		List<Node> callees = new ArrayList<>();
-		if( aDiagram != null )
-		{
-			callees = new ControlFlow(aDiagram).getCallees(node());
-		}
-		if( callees.isEmpty() )
+		if( aDiagram == null )
 		{
 			return getY() + DEFAULT_HEIGHT;
 		}
-		else
-		{
-			return ((CallNodeView)callees.get(callees.size()-1).view()).getMaxY() + Y_GAP_SMALL;
-		}
+		return layout().getMaxY(node());
+	}
+	
+	private SequenceDiagramLayout layout()
+	{
+		return ((SequenceDiagramView) aDiagram.getView()).layout();
 	}
 	
 	@Override
@@ -41,6 +41,11 @@ public final class FieldNodeView extends AbstractNodeView
 	private static final StringViewer EQUALS_VIEWER = new StringViewer(StringViewer.Align.LEFT, false, false);
 	private static final int MID_OFFSET = EQUALS_VIEWER.getBounds(EQUALS).getWidth() / 2;
 	
+	/* Text measurements, cached until the node changes. A value of -1 means not measured. */
+	private int aLeftWidth = -1;
+	private int aRightWidth = -1;
+	private int aHeight = -1;
+	
 	/**
 	 * @param pNode The node to wrap.
 	 */
@@ -54,6 +59,12 @@ public final class FieldNodeView extends AbstractNodeView
 		return ((FieldNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
 	private String value()
 	{
 		return ((FieldNode)node()).getValue();
@@ -70,20 +81,28 @@ public final class FieldNodeView extends AbstractNodeView
 				rightWidth(), bounds.getHeight()));
 	}
 	
+	/* 
+	 * The bounds of a field that belongs to an object are part of the 
+	 * layout of the object, which is computed and cached by its view.
+	 */
 	@Override
 	public Rectangle getBounds()
 	{
 		ObjectNode parent = (ObjectNode)((FieldNode)node()).getParent();
-		int yPosition = 0;
-		int axis = DEFAULT_WIDTH / 2;
 		if( parent != null )
 		{
-			yPosition = ((ObjectNodeView)parent.view()).getYPosition((FieldNode)node());
-			Rectangle parentBounds = ((ObjectNode)((FieldNode)node()).getParent()).view().getBounds();
-			axis = (parentBounds.getX() + parentBounds.getMaxX())/2;
+			return ((ObjectNodeView)parent.view()).getFieldBounds((FieldNode)node());
 		}
-		
-		return new Rectangle(axis - leftWidth(), yPosition, leftWidth() + rightWidth(), getHeight());
+		return new Rectangle(DEFAULT_WIDTH / 2 - leftWidth(), 0, leftWidth() + rightWidth(), getHeight());
+	}
+	
+	@Override
+	public void invalidate()
+	{
+		super.invalidate();
+		aLeftWidth = -1;
+		aRightWidth = -1;
+		aHeight = -1;
 	}
 	
 	/**
@@ -91,7 +110,11 @@ public final class FieldNodeView extends AbstractNodeView
 	 */
 	public int leftWidth()
 	{
-		return NAME_VIEWER.getBounds(name()).getWidth() + MID_OFFSET;
+		if( aLeftWidth < 0 )
+		{
+			aLeftWidth = NAME_VIEWER.getBounds(name()).getWidth() + MID_OFFSET;
+		}
+		return aLeftWidth;
 	}
 	
 	/**
@@ -99,12 +122,16 @@ public final class FieldNodeView extends AbstractNodeView
 	 */
 	public int rightWidth()
 	{
-		int rightWidth = VALUE_VIEWER.getBounds(value()).getWidth();
-		if(rightWidth == 0)
+		if( aRightWidth < 0 )
 		{
-			rightWidth = DEFAULT_WIDTH / 2;
+			int rightWidth = VALUE_VIEWER.getBounds(value()).getWidth();
+			if(rightWidth == 0)
+			{
+				rightWidth = DEFAULT_WIDTH / 2;
+			}
+			aRightWidth = rightWidth + MID_OFFSET;
 		}
-		return rightWidth + MID_OFFSET;
+		return aRightWidth;
 	}
 	
 	/**
@@ -112,8 +139,12 @@ public final class FieldNodeView extends AbstractNodeView
 	 */
 	public int getHeight()
 	{
-		return Math.max(DEFAULT_HEIGHT, Math.max(NAME_VIEWER.getBounds(name()).getHeight(), 
-				Math.max(VALUE_VIEWER.getBounds(value()).getHeight(), EQUALS_VIEWER.getBounds(EQUALS).getHeight())));
+		if( aHeight < 0 )
+		{
+			aHeight = Math.max(DEFAULT_HEIGHT, Math.max(NAME_VIEWER.getBounds(name()).getHeight(), 
+					Math.max(VALUE_VIEWER.getBounds(value()).getHeight(), EQUALS_VIEWER.getBounds(EQUALS).getHeight())));
+		}
+		return aHeight;
 	}
 	
 	@Override
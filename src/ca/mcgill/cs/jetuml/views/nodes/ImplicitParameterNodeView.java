@@ -58,6 +58,12 @@ public final class ImplicitParameterNodeView extends AbstractNodeView
 		return ((ImplicitParameterNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
 	private List<ChildNode> children()
 	{
 		return ((ImplicitParameterNode)node()).getChildren();
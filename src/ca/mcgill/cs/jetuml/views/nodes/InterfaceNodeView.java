@@ -53,6 +53,22 @@ public class InterfaceNodeView extends AbstractNodeView
 		return ((InterfaceNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
+	/*
+	 * Classes and interfaces are mostly text, which is expensive to draw.
+	 * @see ca.mcgill.cs.jetuml.views.nodes.AbstractNodeView#isCached()
+	 */
+	@Override
+	protected boolean isCached()
+	{
+		return true;
+	}
+	
 	private String methods()
 	{
 		return ((InterfaceNode)node()).getMethods();
@@ -152,8 +168,17 @@ public class InterfaceNodeView extends AbstractNodeView
 		return methods().length() > 0;
 	}
 
+	/*
+	 * The bounds are cached because computing them measures the text of all the compartments.
+	 * @see ca.mcgill.cs.jetuml.views.DiagramElementView#getBounds()
+	 */
 	@Override
 	public Rectangle getBounds()
+	{
+		return cachedBounds(this::computeBounds);
+	}
+	
+	private Rectangle computeBounds()
 	{
 		Rectangle top = computeTop();
 		Rectangle bottom = computeBottom();
@@ -20,6 +20,9 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views.nodes;
 
+import java.util.function.Consumer;
+
+import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.views.DiagramElementView;
@@ -38,4 +41,37 @@ public interface NodeView extends DiagramElementView
      * @return the recommended connection point
 	 */
 	Point getConnectionPoint(Direction pDirection);
+	
+	/**
+	 * Discards any information this view caches about the geometry
+	 * of its node. Called by the node every time it changes in a way 
+	 * that can affect its bounds or the bounds of its ancestors.
+	 */
+	void invalidate();
+	
+	/**
+	 * @return A number that changes every time this view is invalidated.
+	 * Clients that cache geometry derived from this view can compare it
+	 * with a previous value to detect that the node has changed.
+	 */
+	int getVersion();
+	
+	/**
+	 * Registers pListener to be notified, with the node of this view, every
+	 * time this view is invalidated. Registering the same listener more than
+	 * once has no effect.
+	 * 
+	 * @param pListener The listener to notify.
+	 * @pre pListener != null
+	 */
+	void addInvalidationListener(Consumer<Node> pListener);
+	
+	/**
+	 * Stops notifying pListener when this view is invalidated. Has no 
+	 * effect if pListener is not registered.
+	 * 
+	 * @param pListener The listener to remove.
+	 * @pre pListener != null
+	 */
+	void removeInvalidationListener(Consumer<Node> pListener);
 }
@@ -22,13 +22,11 @@ package ca.mcgill.cs.jetuml.views.nodes;
 
 import ca.mcgill.cs.jetuml.diagram.nodes.NoteNode;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.SharpPath;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
 
 /**
  * An object to render a NoteNode.
@@ -54,6 +52,12 @@ public final class NoteNodeView extends AbstractNodeView
 		return ((NoteNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
 	@Override
 	public void draw(GraphicsContext pGraphics)
 	{
@@ -62,39 +66,39 @@ public final class NoteNodeView extends AbstractNodeView
 		NOTE_VIEWER.draw(name(), pGraphics, new Rectangle(node().position().getX(), node().position().getY(), DEFAULT_WIDTH, DEFAULT_HEIGHT));
 	}
 	
-	private Path createNotePath()
+	private SharpPath createNotePath()
 	{
-		Path path = new Path();
 		Rectangle bounds = getBounds();		
-		path.getElements().addAll(
-				new MoveTo(bounds.getX(), bounds.getY()),
-				new LineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY()),
-				new LineTo(bounds.getMaxX(), bounds.getY() + FOLD_LENGTH),
-				new LineTo(bounds.getMaxX(), bounds.getMaxY()),
-				new LineTo(bounds.getX(), bounds.getMaxY()),
-				new LineTo(bounds.getX(), bounds.getY()));
-		return path;
+		return new SharpPath()
+				.moveTo(bounds.getX(), bounds.getY())
+				.lineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY())
+				.lineTo(bounds.getMaxX(), bounds.getY() + FOLD_LENGTH)
+				.lineTo(bounds.getMaxX(), bounds.getMaxY())
+				.lineTo(bounds.getX(), bounds.getMaxY())
+				.lineTo(bounds.getX(), bounds.getY());
 	}
 	
 	/**
 	 * Fills in note fold.
 	 * @param pGraphics GraphicsContext in which to fill the fold
 	 */
-	private Path createFoldPath()
+	private SharpPath createFoldPath()
 	{
 		Rectangle bounds = getBounds();
-		Path path = new Path();
-		path.getElements().addAll(
-				new MoveTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY()),
-				new LineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY() + FOLD_LENGTH),
-				new LineTo(bounds.getMaxX(), bounds.getY() + FOLD_LENGTH),
-				new LineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY())
-		);
-		return path;
+		return new SharpPath()
+				.moveTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY())
+				.lineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY() + FOLD_LENGTH)
+				.lineTo(bounds.getMaxX(), bounds.getY() + FOLD_LENGTH)
+				.lineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY());
 	}
 	
 	@Override
 	public Rectangle getBounds()
+	{
+		return cachedBounds(this::computeBounds);
+	}
+	
+	private Rectangle computeBounds()
 	{
 		Rectangle textBounds = NOTE_VIEWER.getBounds(name()); 
 		return new Rectangle(node().position().getX(), node().position().getY(), 
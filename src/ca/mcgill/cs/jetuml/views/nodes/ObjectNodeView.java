@@ -20,7 +20,9 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views.nodes;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ca.mcgill.cs.jetuml.diagram.nodes.ChildNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
@@ -42,6 +44,13 @@ public final class ObjectNodeView extends AbstractNodeView
 	private static final int YGAP = 5;
 	private static final StringViewer NAME_VIEWER = new StringViewer(StringViewer.Align.CENTER, true, true);
 	
+	/* The layout of the object and of its fields is cached because computing it 
+	 * requires measuring the text of every field. The node discards it every time 
+	 * the object or one of its fields changes. */
+	private Rectangle aTopRectangle;
+	private Rectangle aBounds;
+	private final Map<FieldNode, Rectangle> aFieldBounds = new HashMap<>();
+	
 	/**
 	 * @param pNode The node to wrap.
 	 */
@@ -55,6 +64,12 @@ public final class ObjectNodeView extends AbstractNodeView
 		return ((ObjectNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
 	private List<ChildNode> children()
 	{
 		return ((ObjectNode)node()).getChildren();
@@ -75,15 +90,63 @@ public final class ObjectNodeView extends AbstractNodeView
 	
 	private Rectangle getTopRectangle()
 	{
-		Rectangle bounds = NAME_VIEWER.getBounds(name()); 
-		bounds = bounds.add(new Rectangle(0, 0, DEFAULT_WIDTH, DEFAULT_HEIGHT));
-		return bounds.translated(node().position().getX(), node().position().getY());
+		computeLayout();
+		return aTopRectangle;
 	}
 	
 	@Override
 	public Rectangle getBounds()
 	{
-		Rectangle bounds = getTopRectangle();
+		computeLayout();
+		return aBounds;
+	}
+	
+	@Override
+	public void invalidate()
+	{
+		super.invalidate();
+		aTopRectangle = null;
+		aBounds = null;
+		aFieldBounds.clear();
+	}
+	
+	/**
+	 * @param pNode The node whose position to compute.
+	 * @return The y position of a child node.
+	 */
+	public int getYPosition(FieldNode pNode)
+	{
+		return getFieldBounds(pNode).getY();
+	}
+	
+	/**
+	 * @param pNode A field of this object.
+	 * @return The bounds of pNode, which are determined by the layout of the object.
+	 * @pre children().contains(pNode)
+	 */
+	Rectangle getFieldBounds(FieldNode pNode)
+	{
+		assert children().contains(pNode);
+		computeLayout();
+		return aFieldBounds.get(pNode);
+	}
+	
+	/*
+	 * Computes the bounds of the object and of each of its fields, if they 
+	 * are not already cached. The text of each field is measured only once.
+	 * The fields are stacked under the top rectangle and aligned on the 
+	 * vertical axis of the object.
+	 */
+	private void computeLayout()
+	{
+		if( aBounds != null )
+		{
+			return;
+		}
+		Rectangle top = NAME_VIEWER.getBounds(name()); 
+		top = top.add(new Rectangle(0, 0, DEFAULT_WIDTH, DEFAULT_HEIGHT));
+		aTopRectangle = top.translated(node().position().getX(), node().position().getY());
+		
 		int leftWidth = 0;
 		int rightWidth = 0;
 		int height = 0;
@@ -98,28 +161,18 @@ public final class ObjectNodeView extends AbstractNodeView
 			leftWidth = Math.max(leftWidth, view.leftWidth());
 			rightWidth = Math.max(rightWidth, view.rightWidth());
 		}
-		int width = Math.max(bounds.getWidth(), 2 * Math.max(leftWidth, rightWidth) + 2 * XGAP);
-		return new Rectangle(bounds.getX(), bounds.getY(), width, bounds.getHeight() + height);
-	}
-	
-	/**
-	 * @param pNode The node whose position to compute.
-	 * @return The y position of a child node.
-	 */
-	public int getYPosition(FieldNode pNode)
-	{
-		assert children().contains(pNode);
-		Rectangle bounds = getTopRectangle();
-		int yPosition = bounds.getMaxY() + YGAP; 
+		int width = Math.max(aTopRectangle.getWidth(), 2 * Math.max(leftWidth, rightWidth) + 2 * XGAP);
+		aBounds = new Rectangle(aTopRectangle.getX(), aTopRectangle.getY(), width, aTopRectangle.getHeight() + height);
+		
+		int axis = (aBounds.getX() + aBounds.getMaxX())/2;
+		int yPosition = aTopRectangle.getMaxY() + YGAP;
 		for( ChildNode field : children() )
 		{
+			FieldNodeView view = (FieldNodeView) field.view();
 			yPosition += YGAP;
-			if( field == pNode )
-			{
-				return yPosition;
-			}
-			yPosition += ((FieldNodeView)field.view()).getHeight();
+			aFieldBounds.put((FieldNode) field, new Rectangle(axis - view.leftWidth(), yPosition, 
+					view.leftWidth() + view.rightWidth(), view.getHeight()));
+			yPosition += view.getHeight();
 		}
-		return yPosition;
 	}
 }
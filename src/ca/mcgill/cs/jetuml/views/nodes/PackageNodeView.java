@@ -49,6 +49,11 @@ public final class PackageNodeView extends AbstractNodeView
 	private static final StringViewer NAME_VIEWER = new StringViewer(StringViewer.Align.LEFT, false, false);
 	private static final StringViewer CONTENTS_VIEWER = new StringViewer(StringViewer.Align.CENTER, false, false);
 	
+	/* The bounds are cached because computing them requires the bounds of all 
+	 * descendants. The node discards them every time it or a descendant changes. */
+	private Rectangle aTopBounds;
+	private Rectangle aBottomBounds;
+	
 	/**
 	 * @param pNode The node to wrap.
 	 */
@@ -62,6 +67,12 @@ public final class PackageNodeView extends AbstractNodeView
 		return ((PackageNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
 	private String contents()
 	{
 		return ((PackageNode)node()).getContents();
@@ -175,34 +186,58 @@ public final class PackageNodeView extends AbstractNodeView
 		return getTopBounds().add(getBottomBounds());
 	}
 	
+	@Override
+	public void invalidate()
+	{
+		super.invalidate();
+		aTopBounds = null;
+		aBottomBounds = null;
+	}
+	
 	private Rectangle getTopBounds()
 	{
+		computeBounds();
+		return aTopBounds;
+	}
+	
+	private Rectangle getBottomBounds()
+	{
+		computeBounds();
+		return aBottomBounds;
+	}
+	
+	/*
+	 * Computes both the top and bottom bounds using a single query 
+	 * of the bounds of the children, if they are not already cached.
+	 */
+	private void computeBounds()
+	{
+		if( aTopBounds != null )
+		{
+			return;
+		}
 		Optional<Rectangle> childrenBounds = getChildrenBounds();
 		Point position = getPosition(childrenBounds);
 		Dimension topDimension = getTopDimension();
-		return new Rectangle(position.getX(), position.getY(), topDimension.getWidth(), topDimension.getHeight());
+		aTopBounds = new Rectangle(position.getX(), position.getY(), topDimension.getWidth(), topDimension.getHeight());
+		aBottomBounds = computeBottomBounds(childrenBounds, position, topDimension);
 	}
 	
-	private Rectangle getBottomBounds()
+	private Rectangle computeBottomBounds(Optional<Rectangle> pChildrenBounds, Point pPosition, Dimension pTopDimension)
 	{
 		Rectangle contentsBounds = CONTENTS_VIEWER.getBounds(contents());
 		int width = max(contentsBounds.getWidth() + 2 * PADDING, DEFAULT_WIDTH);
 		int height = max(contentsBounds.getHeight() + 2 * PADDING, DEFAULT_BOTTOM_HEIGHT);
 		
-		Optional<Rectangle> childrenBounds = getChildrenBounds();
-		Point position = getPosition(childrenBounds);
-		
-		Dimension topDimension = getTopDimension();
-		
-		if( childrenBounds.isPresent() )
+		if( pChildrenBounds.isPresent() )
 		{
-			width = max( width, childrenBounds.get().getMaxX() + PADDING - position.getX());
-			height = max( height, childrenBounds.get().getMaxY() + PADDING - position.getY() - topDimension.getHeight());
+			width = max( width, pChildrenBounds.get().getMaxX() + PADDING - pPosition.getX());
+			height = max( height, pChildrenBounds.get().getMaxY() + PADDING - pPosition.getY() - pTopDimension.getHeight());
 		}
 		
-		width = max( width, topDimension.getWidth()+ (DEFAULT_WIDTH - DEFAULT_TOP_WIDTH));
+		width = max( width, pTopDimension.getWidth()+ (DEFAULT_WIDTH - DEFAULT_TOP_WIDTH));
 		
-		return new Rectangle(position.getX(), position.getY() + topDimension.getHeight(), 
+		return new Rectangle(pPosition.getX(), pPosition.getY() + pTopDimension.getHeight(), 
 				width, height);
 	}
 }
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2015-2018 by the contributors of the JetUML project.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+
+package ca.mcgill.cs.jetuml.views.nodes;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import ca.mcgill.cs.jetuml.diagram.ControlFlow;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.SequenceDiagram;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ChildNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
+
+/**
+ * Computes the vertical extent of all the call nodes of a sequence
+ * diagram in a single traversal of the control-flow, and caches the
+ * result until root nodes or edges are added to or removed from the 
+ * diagram, or an edge changes. The vertical position of
+ * a call node only depends on the call sequence, so the layout does
+ * not need to be recomputed when nodes are moved or renamed. The
+ * horizontal position of call nodes, which depends on the position
+ * of their implicit parameter node, is computed by CallNodeView.
+ */
+public final class SequenceDiagramLayout
+{
+	private static final int Y_GAP_BIG = 20;
+	private static final int Y_GAP_SMALL = 10;
+
+	private final SequenceDiagram aDiagram;
+	private final Map<CallNode, Integer> aTops = new HashMap<>();
+	private final Map<CallNode, Integer> aBottoms = new HashMap<>();
+	private int aRootNodeVersion = -1;
+	private int aEdgeVersion = -1;
+
+	/**
+	 * Creates an empty layout for pDiagram.
+	 *
+	 * @param pDiagram The diagram to lay out.
+	 * @pre pDiagram != null
+	 */
+	public SequenceDiagramLayout(SequenceDiagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = pDiagram;
+	}
+
+	/**
+	 * @param pNode The call node to query.
+	 * @return The y coordinate of the top of pNode.
+	 * @pre pNode != null
+	 */
+	public int getY(CallNode pNode)
+	{
+		assert pNode != null;
+		ensureLaidOut(pNode);
+		return aTops.get(pNode);
+	}
+
+	/**
+	 * @param pNode The call node to query.
+	 * @return The y coordinate of the bottom of pNode.
+	 * @pre pNode != null
+	 */
+	public int getMaxY(CallNode pNode)
+	{
+		assert pNode != null;
+		ensureLaidOut(pNode);
+		return aBottoms.get(pNode);
+	}
+
+	private void ensureLaidOut(CallNode pNode)
+	{
+		ControlFlow flow = new ControlFlow(aDiagram);
+		if( aRootNodeVersion != aDiagram.getRootNodeVersion() || aEdgeVersion != aDiagram.getEdgeVersion() )
+		{
+			aTops.clear();
+			aBottoms.clear();
+			layoutAll(flow);
+			aRootNodeVersion = aDiagram.getRootNodeVersion();
+			aEdgeVersion = aDiagram.getEdgeVersion();
+		}
+		if( !aTops.containsKey(pNode) )
+		{
+			// Call nodes added to a lifeline without a call edge are laid out on demand
+			CallNode root = pNode;
+			Optional<CallNode> caller = flow.getCaller(root);
+			while( caller.isPresent() )
+			{
+				root = caller.get();
+				caller = flow.getCaller(root);
+			}
+			layout(root, entryY(root), flow);
+		}
+	}
+
+	/*
+	 * Lays out every call tree, starting from the call nodes that have no caller.
+	 */
+	private void layoutAll(ControlFlow pFlow)
+	{
+		for( Node node : aDiagram.rootNodes() )
+		{
+			if( node instanceof ImplicitParameterNode )
+			{
+				for( ChildNode child : ((ImplicitParameterNode)node).getChildren() )
+				{
+					if( child instanceof CallNode && !pFlow.getCaller(child).isPresent() )
+					{
+						layout((CallNode)child, entryY((CallNode)child), pFlow);
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * A call node without a caller is placed a set distance below the top rectangle
+	 * of its implicit parameter.
+	 */
+	private static int entryY(CallNode pNode)
+	{
+		if( pNode.getParent() == null )
+		{
+			return 0;
+		}
+		return ((ImplicitParameterNodeView)pNode.getParent().view()).getTopRectangle().getMaxY() + Y_GAP_SMALL;
+	}
+
+	/*
+	 * Places pNode at pY and all its callees below it, in call order. The first callee is
+	 * a gap below the top of its caller, and each subsequent callee is a gap below the
+	 * bottom of the previous one. The caller ends a gap below its last callee, or has a
+	 * default height if it has no callees. Returns the bottom of pNode.
+	 */
+	private int layout(CallNode pNode, int pY, ControlFlow pFlow)
+	{
+		aTops.put(pNode, pY);
+		List<Node> callees = pFlow.getCallees(pNode);
+		int bottom = pY + CallNodeView.DEFAULT_HEIGHT;
+		if( !callees.isEmpty() )
+		{
+			int previousBottom = 0;
+			for( int i = 0; i < callees.size(); i++ )
+			{
+				CallNode callee = (CallNode) callees.get(i);
+				int y = 0;
+				if( i > 0 )
+				{
+					y = previousBottom + Y_GAP_SMALL;
+				}
+				else if( callee.getParent() == pNode.getParent() )
+				{
+					y = pY + Y_GAP_BIG;
+				}
+				else
+				{
+					y = pY + Y_GAP_SMALL;
+				}
+				previousBottom = layout(callee, y, pFlow);
+			}
+			bottom = previousBottom + Y_GAP_SMALL;
+		}
+		aBottoms.put(pNode, bottom);
+		return bottom;
+	}
+}
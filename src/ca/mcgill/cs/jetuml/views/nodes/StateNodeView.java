@@ -48,6 +48,12 @@ public final class StateNodeView extends AbstractNodeView
 		return ((StateNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
 	@Override
 	public void draw(GraphicsContext pGraphics)
 	{
@@ -57,6 +63,11 @@ public final class StateNodeView extends AbstractNodeView
 	
 	@Override
 	public Rectangle getBounds()
+	{
+		return cachedBounds(this::computeBounds);
+	}
+	
+	private Rectangle computeBounds()
 	{
 		Rectangle bounds = NAME_VIEWER.getBounds(name());
 		return new Rectangle(node().position().getX(), node().position().getY(), 
@@ -57,8 +57,19 @@ public final class UseCaseNodeView extends AbstractNodeView
 		return ((UseCaseNode)node()).getName();
 	}
 	
+	@Override
+	protected String getName()
+	{
+		return name();
+	}
+	
 	@Override
 	public Rectangle getBounds()
+	{
+		return cachedBounds(this::computeBounds);
+	}
+	
+	private Rectangle computeBounds()
 	{
 		return new Rectangle(node().position().getX(), node().position().getY(), 
 				Math.max(DEFAULT_WIDTH,  NAME_VIEWER.getBounds(name()).getWidth()), 
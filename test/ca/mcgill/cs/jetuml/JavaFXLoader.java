@@ -20,6 +20,10 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javafx.application.Platform;
 import javafx.embed.swing.JFXPanel;
 
 /**
@@ -37,4 +41,39 @@ public class JavaFXLoader
 	{
 		return INSTANCE;
 	}
+	
+	/**
+	 * Runs pTask on the JavaFX application thread and waits for it to 
+	 * complete. Some operations, such as taking snapshots, must run on 
+	 * that thread. Errors thrown by pTask, including failed assertions, 
+	 * are thrown again on the calling thread.
+	 * 
+	 * @param pTask The task to run.
+	 */
+	public static void runAndWait(Runnable pTask)
+	{
+		instance();
+		FutureTask<Void> task = new FutureTask<>(pTask, null);
+		Platform.runLater(task);
+		try
+		{
+			task.get();
+		}
+		catch(InterruptedException exception)
+		{
+			throw new IllegalStateException(exception);
+		}
+		catch(ExecutionException exception)
+		{
+			if( exception.getCause() instanceof Error )
+			{
+				throw (Error) exception.getCause();
+			}
+			if( exception.getCause() instanceof RuntimeException )
+			{
+				throw (RuntimeException) exception.getCause();
+			}
+			throw new IllegalStateException(exception.getCause());
+		}
+	}
 }
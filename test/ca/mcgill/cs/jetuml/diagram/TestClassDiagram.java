@@ -26,6 +26,7 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -34,6 +35,7 @@ import org.junit.Test;
 
 import ca.mcgill.cs.jetuml.JavaFXLoader;
 import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
 import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
 
@@ -338,4 +340,29 @@ public class TestClassDiagram
 		assertTrue(result.contains(aEdge2));
 		assertTrue(result.contains(aEdge3));
 	}
+	
+	@Test
+	public void testEdgesBetween()
+	{
+		aDiagram.addRootNode(aClassNode1);
+		aDiagram.addRootNode(aClassNode2);
+		aEdge1.connect(aClassNode1, aClassNode2, aDiagram);
+		aEdge2.connect(aClassNode2, aClassNode1, aDiagram);
+		aEdge3.connect(aClassNode1, aClassNode2, aDiagram);
+		aDiagram.addEdge(aEdge1);
+		aDiagram.addEdge(aEdge2);
+		aDiagram.addEdge(aEdge3);
+		assertEquals(Arrays.asList(aEdge1, aEdge3), aDiagram.edgesBetween(aClassNode1, aClassNode2, DependencyEdge.class));
+		assertEquals(Arrays.asList(aEdge2), aDiagram.edgesBetween(aClassNode2, aClassNode1, DependencyEdge.class));
+		assertTrue(aDiagram.edgesBetween(aClassNode1, aClassNode2, GeneralizationEdge.class).isEmpty());
+		assertTrue(aDiagram.edgesBetween(aClassNode1, aClassNode1, DependencyEdge.class).isEmpty());
+		aDiagram.removeEdge(aEdge1);
+		assertEquals(Arrays.asList(aEdge3), aDiagram.edgesBetween(aClassNode1, aClassNode2, DependencyEdge.class));
+		// Undoing the removal inserts the edge back at its index
+		aDiagram.addEdge(0, aEdge1);
+		assertEquals(Arrays.asList(aEdge1, aEdge3), aDiagram.edgesBetween(aClassNode1, aClassNode2, DependencyEdge.class));
+		aDiagram.removeEdge(aEdge3);
+		aDiagram.removeEdge(aEdge1);
+		assertTrue(aDiagram.edgesBetween(aClassNode1, aClassNode2, DependencyEdge.class).isEmpty());
+	}
 }
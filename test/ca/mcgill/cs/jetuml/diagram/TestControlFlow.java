@@ -218,4 +218,57 @@ public class TestControlFlow
 		assertSame(aCall3, aFlow.getPreviousCallee(aCall2));
 		assertSame(aCall2, aFlow.getPreviousCallee(aCall6));
 	}
+	
+	@Test
+	public void testGetNestingDepth()
+	{
+		assertEquals(0, aFlow.getNestingDepth(aCall1));
+		assertEquals(1, aFlow.getNestingDepth(aCall2));
+		assertEquals(0, aFlow.getNestingDepth(aCall3));
+		assertEquals(0, aFlow.getNestingDepth(aCall4));
+		assertEquals(0, aFlow.getNestingDepth(aCall5));
+		assertEquals(0, aFlow.getNestingDepth(aCall6));
+	}
+	
+	@Test
+	public void testRemoveCallEdge()
+	{
+		aDiagram.removeEdge(aCallEdge2);
+		assertFalse(aFlow.getCaller(aCall2).isPresent());
+		assertEquals(0, aFlow.getNestingDepth(aCall2));
+		List<Node> callees = aFlow.getCallees(aCall1);
+		assertEquals(2, callees.size());
+		assertSame(aCall3, callees.get(0));
+		assertSame(aCall6, callees.get(1));
+		assertSame(aCall3, aFlow.getPreviousCallee(aCall6));
+		assertFalse(aFlow.onlyConnectedToOneCall(aCall1, aCallEdge1));
+	}
+	
+	@Test
+	public void testReinsertCallEdgeAtIndex()
+	{
+		int index = aDiagram.indexOf(aCallEdge2);
+		aDiagram.removeEdge(aCallEdge2);
+		aDiagram.addEdge(index, aCallEdge2);
+		List<CallEdge> calls = aFlow.getCalls(aCall1);
+		assertEquals(3, calls.size());
+		assertSame(aCallEdge1, calls.get(0));
+		assertSame(aCallEdge2, calls.get(1));
+		assertSame(aCallEdge3, calls.get(2));
+		assertSame(aCall1, aFlow.getCaller(aCall2).get());
+		assertEquals(1, aFlow.getNestingDepth(aCall2));
+	}
+	
+	@Test
+	public void testInsertFirstCallEdge()
+	{
+		CallNode call = new CallNode();
+		aParameter3.addChild(call);
+		CallEdge edge = new CallEdge();
+		edge.connect(aCall1, call, aDiagram);
+		aDiagram.addEdge(0, edge);
+		assertTrue(aFlow.isFirstCallee(call));
+		assertFalse(aFlow.isFirstCallee(aCall3));
+		assertSame(call, aFlow.getPreviousCallee(aCall3));
+	}
 }
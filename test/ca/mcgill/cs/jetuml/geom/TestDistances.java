@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.geom;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import javafx.geometry.Point2D;
+
+public class TestDistances
+{
+	private static final double DELTA = 0.0001;
+	
+	@Test
+	public void testPointToSegment()
+	{
+		Point2D start = new Point2D(0,0);
+		Point2D end = new Point2D(10,0);
+		assertEquals(0, Distances.pointToSegment(new Point2D(5,0), start, end), DELTA);
+		assertEquals(3, Distances.pointToSegment(new Point2D(5,3), start, end), DELTA);
+		assertEquals(5, Distances.pointToSegment(new Point2D(-3,4), start, end), DELTA);
+		assertEquals(5, Distances.pointToSegment(new Point2D(13,-4), start, end), DELTA);
+		assertEquals(5, Distances.pointToSegment(new Point2D(3,4), start, start), DELTA);
+	}
+	
+	@Test
+	public void testPointToPolyline()
+	{
+		Point2D[] polyline = new Point2D[] { new Point2D(0,0), new Point2D(10,0), new Point2D(10,10)};
+		assertEquals(0, Distances.pointToPolyline(new Point2D(10,5), polyline), DELTA);
+		assertEquals(2, Distances.pointToPolyline(new Point2D(8,5), polyline), DELTA);
+		assertEquals(1, Distances.pointToPolyline(new Point2D(5,1), polyline), DELTA);
+		assertEquals(Double.POSITIVE_INFINITY, Distances.pointToPolyline(new Point2D(5,1), new Point2D[0]), DELTA);
+		assertEquals(5, Distances.pointToPolyline(new Point2D(3,4), new Point2D[] {new Point2D(0,0)}), DELTA);
+	}
+	
+	@Test
+	public void testPointToQuadraticCurve()
+	{
+		// The curve from (0,0) to (20,0) with control point (10,20) has its apex at (10,10)
+		Point2D start = new Point2D(0,0);
+		Point2D control = new Point2D(10,20);
+		Point2D end = new Point2D(20,0);
+		assertEquals(0, Distances.pointToQuadraticCurve(new Point2D(10,10), start, control, end), DELTA);
+		assertEquals(2, Distances.pointToQuadraticCurve(new Point2D(10,12), start, control, end), DELTA);
+		assertEquals(3, Distances.pointToQuadraticCurve(new Point2D(10,7), start, control, end), DELTA);
+		assertEquals(5, Distances.pointToQuadraticCurve(new Point2D(-3,-4), start, control, end), DELTA);
+		// A point on the curve at t = 0.25
+		assertEquals(0, Distances.pointToQuadraticCurve(new Point2D(5,7.5), start, control, end), DELTA);
+	}
+	
+	@Test
+	public void testPointToDegenerateQuadraticCurve()
+	{
+		// A control point in the middle of the ends makes the curve a segment
+		Point2D start = new Point2D(0,0);
+		Point2D end = new Point2D(20,0);
+		assertEquals(4, Distances.pointToQuadraticCurve(new Point2D(7,4), start, new Point2D(10,0), end), DELTA);
+		assertEquals(5, Distances.pointToQuadraticCurve(new Point2D(24,3), start, new Point2D(10,0), end), DELTA);
+	}
+}
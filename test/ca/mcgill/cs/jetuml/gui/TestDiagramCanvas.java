@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.ClassDiagram;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.views.DiagramView;
+
+public class TestDiagramCanvas
+{
+	/**
+	 * Load JavaFX toolkit and environment.
+	 */
+	@BeforeClass
+	@SuppressWarnings("unused")
+	public static void setupClass()
+	{
+		JavaFXLoader loader = JavaFXLoader.instance();
+	}
+	
+	/*
+	 * The canvas can only be painted once it has a controller. 
+	 */
+	private static DiagramCanvas createCanvas()
+	{
+		DiagramCanvas canvas = new DiagramCanvas(new DiagramView(new ClassDiagram()), 1000, 800);
+		canvas.setController(new DiagramCanvasController(canvas, null, null));
+		return canvas;
+	}
+	
+	@Test
+	public void testZoomSteps()
+	{
+		JavaFXLoader.runAndWait(() -> 
+		{
+			DiagramTab tab = new DiagramTab(new ClassDiagram());
+			assertEquals(1, tab.getZoom(), 0);
+			tab.zoomIn();
+			assertEquals(1.25, tab.getZoom(), 0);
+			tab.zoomIn();
+			assertEquals(1.5625, tab.getZoom(), 0);
+			tab.zoomOut();
+			assertEquals(1.25, tab.getZoom(), 0);
+			tab.resetZoom();
+			assertEquals(1, tab.getZoom(), 0);
+			for( int i = 0; i < 20; i++ )
+			{
+				tab.zoomIn();
+			}
+			assertEquals(4, tab.getZoom(), 0);
+			for( int i = 0; i < 40; i++ )
+			{
+				tab.zoomOut();
+			}
+			assertEquals(0.1, tab.getZoom(), 0);
+			tab.close();
+		});
+	}
+	
+	@Test
+	public void testZoomedDiagramSize()
+	{
+		JavaFXLoader.runAndWait(() -> 
+		{
+			DiagramCanvas canvas = createCanvas();
+			assertEquals(1000, canvas.getZoomedDiagramWidth());
+			canvas.setZoom(1.25);
+			assertEquals(1250, canvas.getZoomedDiagramWidth());
+			assertEquals(1000, canvas.getZoomedDiagramHeight());
+			canvas.setZoom(100);
+			assertEquals(4, canvas.getZoom(), 0);
+			canvas.setZoom(0.001);
+			assertEquals(0.1, canvas.getZoom(), 0);
+			assertEquals(100, canvas.getZoomedDiagramWidth());
+		});
+	}
+	
+	@Test
+	public void testToDiagramPoint()
+	{
+		JavaFXLoader.runAndWait(() -> 
+		{
+			DiagramCanvas canvas = createCanvas();
+			assertEquals(new Point(0, 0), canvas.toDiagramPoint(0, 0));
+			canvas.setZoom(2);
+			canvas.scrollTo(100, 50);
+			assertEquals(new Point(50, 25), canvas.toDiagramPoint(0, 0));
+			assertEquals(new Point(50, 25), canvas.toDiagramPoint(1.9, 1.9));
+			assertEquals(new Point(51, 26), canvas.toDiagramPoint(2, 2));
+		});
+	}
+	
+	/*
+	 * The point of the canvas where the center of a diagram pixel is drawn
+	 * is converted back to that pixel, at any zoom and scroll position.
+	 */
+	@Test
+	public void testToDiagramPointRoundTrip()
+	{
+		JavaFXLoader.runAndWait(() -> 
+		{
+			DiagramCanvas canvas = createCanvas();
+			for( double zoom : new double[] {0.1, 0.64, 1, 1.25, 1.5625, 2, 4} )
+			{
+				canvas.setZoom(zoom);
+				for( int scroll : new int[] {0, 17, 300} )
+				{
+					canvas.scrollTo(scroll, scroll * 2);
+					for( Point point : new Point[] {new Point(0, 0), new Point(13, 7), new Point(999, 799)} )
+					{
+						double x = (point.getX() + 0.5) * zoom - scroll;
+						double y = (point.getY() + 0.5) * zoom - scroll * 2;
+						assertEquals(point, canvas.toDiagramPoint(x, y));
+					}
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestLinkedIdentitySet
+{
+	private LinkedIdentitySet<String> aSet;
+	private String aA = new String("A");
+	private String aOtherA = new String("A");
+	private String aB = new String("B");
+	private String aC = new String("C");
+	
+	@Before
+	public void setup()
+	{
+		aSet = new LinkedIdentitySet<>();
+	}
+	
+	private void assertContent(String... pElements)
+	{
+		List<String> content = new ArrayList<>();
+		aSet.forEach(content::add);
+		assertEquals(pElements.length, content.size());
+		for( int i = 0; i < pElements.length; i++ )
+		{
+			assertTrue(pElements[i] == content.get(i));
+		}
+		assertEquals(pElements.length, aSet.size());
+	}
+	
+	@Test
+	public void testEmpty()
+	{
+		assertTrue(aSet.isEmpty());
+		assertFalse(aSet.getLast().isPresent());
+		assertFalse(aSet.contains(aA));
+		assertFalse(aSet.remove(aA));
+		assertContent();
+	}
+	
+	@Test
+	public void testAdd()
+	{
+		assertTrue(aSet.add(aA));
+		assertTrue(aSet.add(aB));
+		assertTrue(aSet.add(aOtherA));
+		assertContent(aA, aB, aOtherA);
+		assertTrue(aSet.getLast().get() == aOtherA);
+		assertFalse(aSet.add(aA));
+		assertContent(aB, aOtherA, aA);
+		assertTrue(aSet.getLast().get() == aA);
+		assertFalse(aSet.contains(aC));
+	}
+	
+	@Test
+	public void testRemove()
+	{
+		aSet.add(aA);
+		aSet.add(aB);
+		aSet.add(aC);
+		assertFalse(aSet.remove(aOtherA));
+		assertTrue(aSet.remove(aB));
+		assertContent(aA, aC);
+		assertTrue(aSet.remove(aC));
+		assertContent(aA);
+		assertTrue(aSet.getLast().get() == aA);
+		assertTrue(aSet.remove(aA));
+		assertContent();
+		assertFalse(aSet.getLast().isPresent());
+		aSet.add(aB);
+		assertContent(aB);
+	}
+	
+	@Test
+	public void testClear()
+	{
+		aSet.add(aA);
+		aSet.add(aB);
+		aSet.clear();
+		assertTrue(aSet.isEmpty());
+		assertFalse(aSet.contains(aA));
+		aSet.add(aC);
+		assertContent(aC);
+	}
+	
+	@Test(expected = ConcurrentModificationException.class)
+	public void testConcurrentModification()
+	{
+		aSet.add(aA);
+		aSet.add(aB);
+		Iterator<String> iterator = aSet.iterator();
+		iterator.next();
+		aSet.remove(aB);
+		iterator.next();
+	}
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestRepaintScheduler
+{
+	private int aPaints;
+	private RepaintScheduler aScheduler;
+	
+	@Before
+	public void setup()
+	{
+		aPaints = 0;
+		aScheduler = new RepaintScheduler(() -> aPaints++, () -> {}, () -> {});
+	}
+	
+	@Test
+	public void testPulseWithoutRequest()
+	{
+		aScheduler.pulse();
+		assertEquals(0, aPaints);
+		assertFalse(aScheduler.isPending());
+		assertEquals(0, aScheduler.getRequestCount());
+		assertEquals(0, aScheduler.getPaintCount());
+	}
+	
+	@Test
+	public void testRequestsCoalesced()
+	{
+		aScheduler.requestRepaint();
+		aScheduler.requestRepaint();
+		aScheduler.requestRepaint();
+		assertTrue(aScheduler.isPending());
+		assertEquals(0, aPaints);
+		assertEquals(2, aScheduler.getCoalescedCount());
+		aScheduler.pulse();
+		assertFalse(aScheduler.isPending());
+		assertEquals(1, aPaints);
+		aScheduler.pulse();
+		assertEquals(1, aPaints);
+		assertEquals(3, aScheduler.getRequestCount());
+		assertEquals(1, aScheduler.getPaintCount());
+		assertEquals(2, aScheduler.getCoalescedCount());
+	}
+	
+	@Test
+	public void testRequestAfterPaint()
+	{
+		aScheduler.requestRepaint();
+		aScheduler.pulse();
+		aScheduler.requestRepaint();
+		assertTrue(aScheduler.isPending());
+		aScheduler.pulse();
+		assertEquals(2, aPaints);
+		assertEquals(0, aScheduler.getCoalescedCount());
+	}
+}
@@ -45,6 +45,7 @@ import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DiagramView;
 
 public class TestSelectionModel
 {
@@ -55,6 +56,7 @@ public class TestSelectionModel
 	private PackageNode aPackage1; 
 	private PackageNode aPackage2; 
 	private ClassDiagram aClassDiagram;
+	private DiagramView aClassDiagramView;
 	private SelectionModel aModel;
 	
 	/**
@@ -78,6 +80,7 @@ public class TestSelectionModel
 		aPackage2 = new PackageNode();
 		aModel = new SelectionModel( () -> {});
 		aClassDiagram = new ClassDiagram();
+		aClassDiagramView = new DiagramView(aClassDiagram);
 	}
 	
 	private int size()
@@ -138,11 +141,11 @@ public class TestSelectionModel
 	{
 		aClassDiagram.addRootNode(aNode1);
 		aNode1.translate(10, 10);
-		aModel.activateLasso(new Rectangle(5,5,5,5), aClassDiagram);
+		aModel.activateLasso(new Rectangle(5,5,5,5), aClassDiagramView);
 		assertTrue(aModel.getLasso().isPresent());
 		assertEquals(new Rectangle(5,5,5,5), aModel.getLasso().get());
 		assertContent();
-		aModel.activateLasso(new Rectangle(0,0,200,200), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,200,200), aClassDiagramView);
 		assertEquals(new Rectangle(0,0,200,200), aModel.getLasso().get());
 		assertContent(aNode1);
 		aModel.deactivateLasso();
@@ -162,27 +165,27 @@ public class TestSelectionModel
 		aNode2.translate(200, 0);
 		
 		// Just Node 1
-		aModel.activateLasso(new Rectangle(0,0,105,61), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,105,61), aClassDiagramView);
 		assertContent(aNode1);
 		// Just Node 2
 		aModel.clearSelection();
-		aModel.activateLasso(new Rectangle(199,0,105,61), aClassDiagram);
+		aModel.activateLasso(new Rectangle(199,0,105,61), aClassDiagramView);
 		assertContent(aNode2);
 		// Just Edge 1
 		aModel.clearSelection();
-		aModel.activateLasso(new Rectangle(97,20,110,20), aClassDiagram);
+		aModel.activateLasso(new Rectangle(97,20,110,20), aClassDiagramView);
 		assertContent(aEdge1);
 		// Node 1 and edge
 		aModel.clearSelection();
-		aModel.activateLasso(new Rectangle(0,0,230,63), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,230,63), aClassDiagramView);
 		assertContent(aNode1, aEdge1);
 		// Node 2 and edge
 		aModel.clearSelection();
-		aModel.activateLasso(new Rectangle(5,0,330,70), aClassDiagram);
+		aModel.activateLasso(new Rectangle(5,0,330,70), aClassDiagramView);
 		assertContent(aNode2, aEdge1);
 		// Everything
 		aModel.clearSelection();
-		aModel.activateLasso(new Rectangle(0,0,330,70), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,330,70), aClassDiagramView);
 		assertContent(aNode1, aNode2, aEdge1);
 	}
 	
@@ -204,27 +207,27 @@ public class TestSelectionModel
 		
 		aModel.set(extraNode);
 		// Just Node 1
-		aModel.activateLasso(new Rectangle(0,0,105,61), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,105,61), aClassDiagramView);
 		assertContent(extraNode, aNode1);
 		// Just Node 2
 		aModel.set(extraNode);
-		aModel.activateLasso(new Rectangle(199,0,105,61), aClassDiagram);
+		aModel.activateLasso(new Rectangle(199,0,105,61), aClassDiagramView);
 		assertContent(extraNode, aNode2);
 		// Just Edge 1
 		aModel.set(extraNode);
-		aModel.activateLasso(new Rectangle(97,20,110,20), aClassDiagram);
+		aModel.activateLasso(new Rectangle(97,20,110,20), aClassDiagramView);
 		assertContent(extraNode, aEdge1);
 		// Node 1 and edge
 		aModel.set(extraNode);
-		aModel.activateLasso(new Rectangle(0,0,230,63), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,230,63), aClassDiagramView);
 		assertContent(extraNode, aNode1, aEdge1);
 		// Node 2 and edge
 		aModel.set(extraNode);
-		aModel.activateLasso(new Rectangle(5,0,330,70), aClassDiagram);
+		aModel.activateLasso(new Rectangle(5,0,330,70), aClassDiagramView);
 		assertContent(extraNode, aNode2, aEdge1);
 		// Everything
 		aModel.set(extraNode);
-		aModel.activateLasso(new Rectangle(0,0,330,70), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,330,70), aClassDiagramView);
 		assertContent(extraNode, aNode1, aNode2, aEdge1);
 	}
 	
@@ -237,7 +240,7 @@ public class TestSelectionModel
 		aClassDiagram.addRootNode(aNode2);
 		aPackage1.translate(100, 100);
 		aNode2.translate(300, 0);
-		aModel.activateLasso(new Rectangle(0,0,400,200), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,400,200), aClassDiagramView);
 		assertContent(aPackage1, aNode2);
 	}
 	
@@ -254,7 +257,7 @@ public class TestSelectionModel
 		extraNode.translate(1000, 1000);
 		aClassDiagram.addRootNode(extraNode);
 		aModel.set(extraNode);
-		aModel.activateLasso(new Rectangle(0,0,400,200), aClassDiagram);
+		aModel.activateLasso(new Rectangle(0,0,400,200), aClassDiagramView);
 		assertContent(extraNode, aPackage1, aNode2);
 	}
 	
@@ -265,11 +268,58 @@ public class TestSelectionModel
 		aPackage1.addChild(aNode1);
 		aClassDiagram.addRootNode(aPackage1);
 		aPackage1.translate(100, 100);
-		aModel.activateLasso(new Rectangle(99,99,102,102), aClassDiagram);
+		aModel.activateLasso(new Rectangle(99,99,102,102), aClassDiagramView);
 		assertContent(aNode1);
 	}
 	
 	
+	@Test
+	public void testActivateLassoMoved()
+	{
+		// aNode1: [x=0, y=0, w=100, h=60]
+		// aNode2: [x=200, y=0, w=100, h=60]
+		// aEdge1: [x=99, y=23, w=102, h=12]
+		aClassDiagram.addRootNode(aNode1);
+		aClassDiagram.addRootNode(aNode2);
+		aEdge1.connect(aNode1, aNode2, aClassDiagram);
+		aClassDiagram.addEdge(aEdge1);
+		aNode2.translate(200, 0);
+		ClassNode extraNode = new ClassNode();
+		extraNode.translate(1000, 1000);
+		aClassDiagram.addRootNode(extraNode);
+		
+		aModel.set(extraNode);
+		aModel.activateLasso(new Rectangle(0,0,105,61), aClassDiagramView);
+		assertContent(extraNode, aNode1);
+		aModel.activateLasso(new Rectangle(0,0,330,70), aClassDiagramView);
+		assertContent(extraNode, aNode1, aNode2, aEdge1);
+		aModel.activateLasso(new Rectangle(0,0,230,63), aClassDiagramView);
+		assertContent(extraNode, aNode1, aEdge1);
+		aModel.activateLasso(new Rectangle(0,0,5,5), aClassDiagramView);
+		assertContent(extraNode);
+		// Elements selected before the lasso stay selected
+		aModel.activateLasso(new Rectangle(0,0,900,900), aClassDiagramView);
+		assertContent(extraNode, aNode1, aNode2, aEdge1);
+		aModel.activateLasso(new Rectangle(0,0,5,5), aClassDiagramView);
+		assertContent(extraNode);
+		aModel.deactivateLasso();
+		assertContent(extraNode);
+	}
+	
+	@Test
+	public void testActivateLassoMovedParentLeaves()
+	{
+		aPackage1.addChild(aNode1);
+		aClassDiagram.addRootNode(aPackage1);
+		aPackage1.translate(100, 100);
+		aModel.activateLasso(new Rectangle(0,0,400,400), aClassDiagramView);
+		assertContent(aPackage1);
+		aModel.activateLasso(new Rectangle(99,99,102,102), aClassDiagramView);
+		assertContent(aNode1);
+		aModel.activateLasso(new Rectangle(0,0,400,400), aClassDiagramView);
+		assertContent(aPackage1);
+	}
+	
 	@Test
 	public void testSetSelectionToEmpty()
 	{
@@ -504,6 +554,25 @@ public class TestSelectionModel
 		assertTrue(aModel.contains(aPackage1));
 	}
 	
+	@Test
+	public void testAddParentAfterChildRemoved()
+	{
+		aPackage1.addChild(aPackage2);
+		aPackage2.addChild(aNode1);
+		aPackage2.addChild(aNode2);
+		aModel.addToSelection(aNode1);
+		aModel.addToSelection(aNode2);
+		aModel.removeFromSelection(aNode1);
+		aModel.addToSelection(aEdge1);
+		aModel.addToSelection(aPackage2);
+		assertContent(aEdge1, aPackage2);
+		aModel.set(aNode1);
+		aModel.addToSelection(aPackage1);
+		assertContent(aPackage1);
+		aModel.addToSelection(aNode2);
+		assertContent(aPackage1);
+	}
+	
 	@Test
 	public void testGetLastSelected()
 	{
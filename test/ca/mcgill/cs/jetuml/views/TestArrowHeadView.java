@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import javafx.geometry.Point2D;
+
+public class TestArrowHeadView
+{
+	private static final double TOLERANCE = 0.0001;
+	private static final double BACK = 10 * Math.cos(Math.PI / 6);
+	private static final double SIDE = 10 * Math.sin(Math.PI / 6);
+	
+	@Test
+	public void testOutlineNone()
+	{
+		assertEquals(0, ArrowHead.NONE.view().getOutline(new Point2D(0, 0), new Point2D(100, 0), new double[0]));
+		assertEquals(0, ArrowHead.NONE.view().getOutline(new Point2D(0, 0), new Point2D(100, 0)).length);
+		assertEquals(0, ArrowHead.NONE.view().getWidth(new Point2D(0, 0), new Point2D(100, 0)), TOLERANCE);
+	}
+	
+	@Test
+	public void testOutlineTriangleRight()
+	{
+		double[] buffer = new double[10];
+		assertEquals(4, ArrowHead.TRIANGLE.view().getOutline(new Point2D(0, 50), new Point2D(100, 50), buffer));
+		assertOutline(buffer, 100, 50, 100 - BACK, 50 - SIDE, 100 - BACK, 50 + SIDE, 100, 50);
+	}
+	
+	@Test
+	public void testOutlineDiamondDown()
+	{
+		double[] buffer = new double[10];
+		assertEquals(5, ArrowHead.DIAMOND.view().getOutline(new Point2D(20, 0), new Point2D(20, 100), buffer));
+		assertOutline(buffer, 20, 100, 20 + SIDE, 100 - BACK, 20, 100 - 2 * BACK, 20 - SIDE, 100 - BACK, 20, 100);
+	}
+	
+	@Test
+	public void testOutlineVLeft()
+	{
+		Point2D[] outline = ArrowHead.V.view().getOutline(new Point2D(100, 0), new Point2D(0, 0));
+		assertEquals(3, outline.length);
+		assertEquals(BACK, outline[0].getX(), TOLERANCE);
+		assertEquals(SIDE, outline[0].getY(), TOLERANCE);
+		assertEquals(0, outline[1].getX(), TOLERANCE);
+		assertEquals(0, outline[1].getY(), TOLERANCE);
+		assertEquals(BACK, outline[2].getX(), TOLERANCE);
+		assertEquals(-SIDE, outline[2].getY(), TOLERANCE);
+	}
+	
+	@Test
+	public void testOutlineDegenerate()
+	{
+		double[] buffer = new double[4];
+		assertEquals(2, ArrowHead.HALF_V.view().getOutline(new Point2D(10, 10), new Point2D(10, 10), buffer));
+		assertOutline(buffer, 10, 10, 10 - BACK, 10 - SIDE);
+	}
+	
+	@Test
+	public void testWidth()
+	{
+		assertEquals(BACK + 2, ArrowHead.TRIANGLE.view().getWidth(new Point2D(0, 50), new Point2D(100, 50)), TOLERANCE);
+		assertEquals(2 * SIDE + 2, ArrowHead.TRIANGLE.view().getWidth(new Point2D(0, 0), new Point2D(0, 50)), TOLERANCE);
+	}
+	
+	private static void assertOutline(double[] pBuffer, double... pExpected)
+	{
+		for( int i = 0; i < pExpected.length; i++ )
+		{
+			assertEquals(pExpected[i], pBuffer[i], TOLERANCE);
+		}
+	}
+}
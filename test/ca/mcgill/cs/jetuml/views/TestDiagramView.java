@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.ClassDiagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.StateDiagram;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.NoteEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.InitialStateNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+
+public class TestDiagramView
+{
+	private StateDiagram aDiagram;
+	private DiagramView aView;
+	private InitialStateNode aNode1;
+	private InitialStateNode aNode2;
+	private NoteEdge aEdge;
+	
+	/**
+	 * Load JavaFX toolkit and environment.
+	 */
+	@BeforeClass
+	@SuppressWarnings("unused")
+	public static void setupClass()
+	{
+		JavaFXLoader loader = JavaFXLoader.instance();
+	}
+	
+	@Before
+	public void setup()
+	{
+		aDiagram = new StateDiagram();
+		aView = new DiagramView(aDiagram);
+		aNode1 = new InitialStateNode();
+		aNode2 = new InitialStateNode();
+		aEdge = new NoteEdge();
+	}
+	
+	@Test
+	public void testFindNodeEmpty()
+	{
+		assertFalse(aView.findNode(new Point(0,0)).isPresent());
+		assertFalse(aView.findEdge(new Point(0,0)).isPresent());
+		assertFalse(aView.findNearestNode(new Point(0,0), 100).isPresent());
+	}
+	
+	@Test
+	public void testFindNodeLastDrawnWins()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aNode2.translate(10, 10);
+		assertSame(aNode1, aView.findNode(new Point(5,5)).get());
+		assertSame(aNode2, aView.findNode(new Point(15,15)).get());
+		assertSame(aNode1, aView.findNode(new Point(15,15), node -> node != aNode2).get());
+		aDiagram.removeRootNode(aNode2);
+		assertSame(aNode1, aView.findNode(new Point(15,15)).get());
+	}
+	
+	@Test
+	public void testFindNodeAfterMove()
+	{
+		aDiagram.addRootNode(aNode1);
+		assertSame(aNode1, aView.findNode(new Point(10,10)).get());
+		aNode1.translate(500, 300);
+		assertFalse(aView.findNode(new Point(10,10)).isPresent());
+		assertSame(aNode1, aView.findNode(new Point(510,310)).get());
+		aNode1.moveTo(new Point(-300, -300));
+		assertFalse(aView.findNode(new Point(510,310)).isPresent());
+		assertSame(aNode1, aView.findNode(new Point(-290,-290)).get());
+	}
+	
+	@Test
+	public void testFindEdgeAfterNodeMoved()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aNode2.translate(200, 0);
+		aEdge.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(aEdge);
+		assertSame(aEdge, aView.findEdge(new Point(100,10)).get());
+		aNode2.translate(0, 300);
+		assertFalse(aView.findEdge(new Point(100,10)).isPresent());
+		assertSame(aEdge, aView.findEdge(new Point(110,160)).get());
+		aDiagram.removeEdge(aEdge);
+		assertFalse(aView.findEdge(new Point(110,160)).isPresent());
+	}
+	
+	@Test
+	public void testFindNearestNode()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aNode2.translate(100, 0);
+		assertSame(aNode1, aView.findNearestNode(new Point(10,10), 0).get());
+		assertSame(aNode1, aView.findNearestNode(new Point(40,10), 50).get());
+		assertSame(aNode2, aView.findNearestNode(new Point(80,10), 50).get());
+		assertFalse(aView.findNearestNode(new Point(60,60), 20).isPresent());
+		aNode1.translate(50, 50);
+		assertSame(aNode1, aView.findNearestNode(new Point(60,80), 20).get());
+	}
+	
+	@Test
+	public void testFindElementsInside()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aNode2.translate(200, 0);
+		aEdge.connect(aNode2, aNode1, aDiagram);
+		aDiagram.addEdge(aEdge);
+		assertEquals(Arrays.asList(aNode1), aView.findElementsInside(new Rectangle(0,0,100,100)));
+		assertEquals(Arrays.asList(aNode1, aNode2, aEdge), aView.findElementsInside(new Rectangle(0,0,300,100)));
+		aNode2.translate(0, 200);
+		assertEquals(Arrays.asList(aNode1), aView.findElementsInside(new Rectangle(0,0,300,100)));
+	}
+	
+	@Test
+	public void testFindElementsEntering()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aNode2.translate(200, 0);
+		aEdge.connect(aNode2, aNode1, aDiagram);
+		aDiagram.addEdge(aEdge);
+		Rectangle small = new Rectangle(0,0,100,100);
+		Rectangle large = new Rectangle(0,0,300,100);
+		assertEquals(Arrays.asList(aNode2, aEdge), aView.findElementsEntering(small, large));
+		assertEquals(Arrays.asList(), aView.findElementsEntering(large, small));
+		assertEquals(Arrays.asList(), aView.findElementsEntering(large, large));
+		assertEquals(Arrays.asList(aNode1), aView.findElementsEntering(new Rectangle(500,500,10,10), small));
+		assertEquals(Arrays.asList(aNode1), aView.findElementsEntering(new Rectangle(5,0,300,100), large));
+	}
+	
+	@Test
+	public void testGetLevelOfDetail()
+	{
+		assertEquals(LevelOfDetail.FULL, aView.getLevelOfDetail(1));
+		assertEquals(LevelOfDetail.FULL, aView.getLevelOfDetail(0.5));
+		assertEquals(LevelOfDetail.SIMPLIFIED, aView.getLevelOfDetail(0.4));
+		assertEquals(LevelOfDetail.OUTLINE, aView.getLevelOfDetail(0.1));
+		aView.setLevelOfDetailThresholds(0.3, 0);
+		assertEquals(LevelOfDetail.FULL, aView.getLevelOfDetail(0.4));
+		assertEquals(LevelOfDetail.SIMPLIFIED, aView.getLevelOfDetail(0.1));
+		assertEquals(LevelOfDetail.SIMPLIFIED, aView.getLevelOfDetail(0));
+	}
+	
+	@Test
+	public void testCollectDamage()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aNode2.translate(200, 0);
+		assertEquals(new Rectangle(-5,-5,230,30), aView.collectDamage().get());
+		assertFalse(aView.collectDamage().isPresent());
+		aNode1.translate(0, 100);
+		assertEquals(new Rectangle(-5,-5,30,130), aView.collectDamage().get());
+		assertFalse(aView.collectDamage().isPresent());
+		aDiagram.removeRootNode(aNode1);
+		assertEquals(new Rectangle(-5,-5,230,130), aView.collectDamage().get());
+	}
+	
+	@Test
+	public void testCollectDamageEdgesChanged()
+	{
+		ClassDiagram diagram = new ClassDiagram();
+		DiagramView view = new DiagramView(diagram);
+		ClassNode node1 = new ClassNode();
+		ClassNode node2 = new ClassNode();
+		ClassNode node3 = new ClassNode();
+		node2.translate(300, 0);
+		node3.translate(0, 500);
+		diagram.addRootNode(node1);
+		diagram.addRootNode(node2);
+		diagram.addRootNode(node3);
+		view.collectDamage();
+		
+		GeneralizationEdge edge = new GeneralizationEdge();
+		edge.connect(node1, node2, diagram);
+		diagram.addEdge(edge);
+		Rectangle bounds = grow(edge.view().getBounds());
+		assertEquals(bounds, view.collectDamage().get());
+		assertSame(edge, view.findEdge(bounds.getCenter()).get());
+		
+		edge.properties().get("Generalization Type").set("Implementation");
+		assertEquals(bounds, view.collectDamage().get());
+		assertFalse(view.collectDamage().isPresent());
+		
+		diagram.removeEdge(edge);
+		assertEquals(bounds, view.collectDamage().get());
+		assertFalse(view.findEdge(bounds.getCenter()).isPresent());
+	}
+	
+	private static Rectangle grow(Rectangle pRectangle)
+	{
+		return new Rectangle(pRectangle.getX() - 10, pRectangle.getY() - 10, 
+				pRectangle.getWidth() + 20, pRectangle.getHeight() + 20);
+	}
+	
+	@Test
+	public void testPrepareEdgesInParallel()
+	{
+		ClassDiagram sequential = createClassDiagram();
+		ClassDiagram parallel = createClassDiagram();
+		new DiagramView(parallel).collectDamage();
+		Iterator<Edge> expected = sequential.edges().iterator();
+		for(Edge edge : parallel.edges())
+		{
+			assertTrue(edge.view().isPrepared());
+			assertEquals(expected.next().view().getConnectionPoints(), edge.view().getConnectionPoints());
+		}
+	}
+	
+	/*
+	 * A grid of classes where each class depends on its right and lower neighbors.
+	 */
+	private static ClassDiagram createClassDiagram()
+	{
+		ClassDiagram diagram = new ClassDiagram();
+		ClassNode[][] nodes = new ClassNode[5][5];
+		for(int i = 0; i < nodes.length; i++)
+		{
+			for(int j = 0; j < nodes.length; j++)
+			{
+				nodes[i][j] = new ClassNode();
+				nodes[i][j].translate(j * 200, i * 150);
+				diagram.addRootNode(nodes[i][j]);
+			}
+		}
+		for(int i = 0; i < nodes.length; i++)
+		{
+			for(int j = 0; j < nodes.length; j++)
+			{
+				if(j + 1 < nodes.length)
+				{
+					connect(diagram, nodes[i][j], nodes[i][j+1]);
+				}
+				if(i + 1 < nodes.length)
+				{
+					connect(diagram, nodes[i][j], nodes[i+1][j]);
+				}
+			}
+		}
+		return diagram;
+	}
+	
+	private static void connect(ClassDiagram pDiagram, ClassNode pStart, ClassNode pEnd)
+	{
+		Edge edge = new DependencyEdge();
+		edge.connect(pStart, pEnd, pDiagram);
+		pDiagram.addEdge(edge);
+	}
+	
+	/*
+	 * Removed elements can be kept, for example by the undo stack, so 
+	 * they must not keep a reference to the view through its listeners.
+	 */
+	@Test
+	public void testRemovedElementsReleaseView()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aEdge.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(aEdge);
+		aView.collectDamage();
+		aDiagram.removeEdge(aEdge);
+		aDiagram.removeRootNode(aNode1);
+		aDiagram.removeRootNode(aNode2);
+		aView.collectDamage();
+		WeakReference<DiagramView> view = new WeakReference<>(aView);
+		aView = null;
+		aDiagram = null;
+		for( int i = 0; i < 10 && view.get() != null; i++ )
+		{
+			System.gc();
+		}
+		assertNull(view.get());
+	}
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import org.junit.Test;
 
+import ca.mcgill.cs.jetuml.JavaFXLoader;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Point;
 
@@ -64,4 +65,16 @@ public class TestGrid
 		assertEquals(new Point(1,1), Grid.toSnap(new Dimension(39,39)));
 		assertEquals(new Point(0,0), Grid.toSnap(new Dimension(40,40)));
 	}
+	
+	@Test
+	public void testGetTile_Scaled()
+	{
+		JavaFXLoader.runAndWait(() -> 
+		{
+			assertEquals(100, Grid.getTile(0.6, 1).getWidth(), 0);
+			assertEquals(200, Grid.getTile(0.6, 2).getWidth(), 0);
+			assertEquals(125, Grid.getTile(0.6, 1.25).getHeight(), 0);
+			assertEquals(10, Grid.getTile(0.6, 0.1).getWidth(), 0);
+		});
+	}
 }
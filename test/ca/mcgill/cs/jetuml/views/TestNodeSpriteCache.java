@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+public class TestNodeSpriteCache
+{
+	private static final long SPRITE_BYTES = NodeSpriteCache.ENTRY_BYTES + 10 * 10 * 4;
+	
+	private NodeSpriteCache aCache;
+	private ClassNode aNode1;
+	private ClassNode aNode2;
+	private Image aImage;
+	
+	/**
+	 * Load JavaFX toolkit and environment.
+	 */
+	@BeforeClass
+	@SuppressWarnings("unused")
+	public static void setupClass()
+	{
+		JavaFXLoader loader = JavaFXLoader.instance();
+	}
+	
+	@Before
+	public void setup()
+	{
+		aCache = new NodeSpriteCache(2 * SPRITE_BYTES);
+		aNode1 = new ClassNode();
+		aNode2 = new ClassNode();
+		aImage = new WritableImage(10, 10);
+	}
+	
+	@Test
+	public void testHitAndMiss()
+	{
+		assertFalse(aCache.lookup(aNode1.view(), 1).isPresent());
+		aCache.store(aNode1.view(), 1, aImage);
+		assertSame(aImage, aCache.lookup(aNode1.view(), 1).get());
+		assertEquals(1, aCache.getHits());
+		assertEquals(1, aCache.getMisses());
+		assertEquals(SPRITE_BYTES, aCache.getSize());
+	}
+	
+	@Test
+	public void testKeyIncludesScale()
+	{
+		aCache.store(aNode1.view(), 1, aImage);
+		assertFalse(aCache.lookup(aNode1.view(), 2).isPresent());
+	}
+	
+	@Test
+	public void testKeyIncludesVersion()
+	{
+		aCache.store(aNode1.view(), 1, aImage);
+		aNode1.setName("Foo");
+		assertFalse(aCache.lookup(aNode1.view(), 1).isPresent());
+	}
+	
+	@Test
+	public void testVersionOnly()
+	{
+		aCache.store(aNode1.view(), 1, aImage);
+		aCache.store(aNode1.view(), 1, null);
+		assertFalse(aCache.lookup(aNode1.view(), 1).isPresent());
+		assertEquals(NodeSpriteCache.ENTRY_BYTES, aCache.getSize());
+	}
+	
+	@Test
+	public void testVersionOnlyEvicted()
+	{
+		aCache.setBudget(2 * NodeSpriteCache.ENTRY_BYTES);
+		ClassNode node3 = new ClassNode();
+		aCache.store(aNode1.view(), 1, null);
+		aCache.store(aNode2.view(), 1, null);
+		aCache.store(node3.view(), 1, null);
+		assertEquals(1, aCache.getEvictions());
+		assertEquals(2 * NodeSpriteCache.ENTRY_BYTES, aCache.getSize());
+	}
+	
+	@Test
+	public void testLeastRecentlyUsedEvicted()
+	{
+		ClassNode node3 = new ClassNode();
+		aCache.store(aNode1.view(), 1, aImage);
+		aCache.store(aNode2.view(), 1, aImage);
+		assertTrue(aCache.lookup(aNode1.view(), 1).isPresent());
+		aCache.store(node3.view(), 1, aImage);
+		assertEquals(1, aCache.getEvictions());
+		assertEquals(2 * SPRITE_BYTES, aCache.getSize());
+		assertTrue(aCache.lookup(aNode1.view(), 1).isPresent());
+		assertFalse(aCache.lookup(aNode2.view(), 1).isPresent());
+		assertTrue(aCache.lookup(node3.view(), 1).isPresent());
+	}
+	
+	@Test
+	public void testSetBudget()
+	{
+		aCache.store(aNode1.view(), 1, aImage);
+		aCache.store(aNode2.view(), 1, aImage);
+		aCache.setBudget(SPRITE_BYTES);
+		assertEquals(SPRITE_BYTES, aCache.getSize());
+		assertFalse(aCache.lookup(aNode1.view(), 1).isPresent());
+		aCache.setBudget(0);
+		assertEquals(0, aCache.getSize());
+		assertEquals(2, aCache.getEvictions());
+	}
+	
+	/*
+	 * A node is drawn directly the first time it is drawn at a version, 
+	 * then rendered to an image the second time, which is then copied.
+	 */
+	@Test
+	public void testDraw()
+	{
+		aCache.setBudget(NodeSpriteCache.DEFAULT_BUDGET);
+		JavaFXLoader.runAndWait(() -> 
+		{
+			GraphicsContext graphics = new Canvas(200, 200).getGraphicsContext2D();
+			aCache.draw(aNode1.view(), graphics);
+			assertEquals(1, aCache.getMisses());
+			assertEquals(NodeSpriteCache.ENTRY_BYTES, aCache.getSize());
+			aCache.draw(aNode1.view(), graphics);
+			assertEquals(2, aCache.getMisses());
+			assertTrue(aCache.getSize() > NodeSpriteCache.ENTRY_BYTES);
+			aCache.draw(aNode1.view(), graphics);
+			assertEquals(1, aCache.getHits());
+			aNode1.view().invalidate();
+			aCache.draw(aNode1.view(), graphics);
+			assertEquals(3, aCache.getMisses());
+			assertEquals(NodeSpriteCache.ENTRY_BYTES, aCache.getSize());
+		});
+	}
+	
+	/*
+	 * While the diagram is zoomed, nodes are drawn directly until they
+	 * are drawn twice at the same scale.
+	 */
+	@Test
+	public void testDrawAtNewScale()
+	{
+		aCache.setBudget(NodeSpriteCache.DEFAULT_BUDGET);
+		JavaFXLoader.runAndWait(() -> 
+		{
+			GraphicsContext graphics = new Canvas(200, 200).getGraphicsContext2D();
+			aCache.draw(aNode1.view(), graphics);
+			aCache.draw(aNode1.view(), graphics);
+			assertTrue(aCache.getSize() > NodeSpriteCache.ENTRY_BYTES);
+			graphics.scale(2, 2);
+			aCache.draw(aNode1.view(), graphics);
+			assertEquals(NodeSpriteCache.ENTRY_BYTES, aCache.getSize());
+			aCache.draw(aNode1.view(), graphics);
+			assertTrue(aCache.getSize() > NodeSpriteCache.ENTRY_BYTES);
+			assertEquals(0, aCache.getHits());
+		});
+	}
+}
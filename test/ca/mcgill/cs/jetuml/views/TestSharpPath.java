@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestSharpPath
+{
+	private static final double TOLERANCE = 0;
+	
+	@Test
+	public void testEmpty()
+	{
+		SharpPath path = new SharpPath();
+		assertTrue(path.isEmpty());
+		assertArrayEquals(new double[0], path.getCoordinates(), TOLERANCE);
+	}
+	
+	@Test
+	public void testCoordinatesAligned()
+	{
+		SharpPath path = new SharpPath().moveTo(1.7, 2).lineTo(3.2, 4.9).quadraticCurveTo(5, 6.5, 7.99, 8);
+		assertFalse(path.isEmpty());
+		assertArrayEquals(new double[] {1.5, 2.5, 3.5, 4.5, 5.5, 6.5, 7.5, 8.5}, path.getCoordinates(), TOLERANCE);
+	}
+	
+	@Test
+	public void testGrowAndClear()
+	{
+		SharpPath path = new SharpPath().moveTo(0, 0);
+		double[] expected = new double[42];
+		for( int i = 1; i <= 20; i++ )
+		{
+			path.lineTo(i, i);
+			expected[2 * i] = i + 0.5;
+			expected[2 * i + 1] = i + 0.5;
+		}
+		expected[0] = 0.5;
+		expected[1] = 0.5;
+		assertArrayEquals(expected, path.getCoordinates(), TOLERANCE);
+		path.clear();
+		assertTrue(path.isEmpty());
+		path.moveTo(3, 3);
+		assertArrayEquals(new double[] {3.5, 3.5}, path.getCoordinates(), TOLERANCE);
+	}
+}
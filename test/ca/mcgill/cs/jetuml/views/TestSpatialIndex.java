@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+
+public class TestSpatialIndex
+{
+	private SpatialIndex<String> aIndex;
+	
+	@Before
+	public void setup()
+	{
+		aIndex = new SpatialIndex<>(10);
+	}
+	
+	@Test
+	public void testEmpty()
+	{
+		assertEquals(0, aIndex.size());
+		assertTrue(aIndex.query(new Point(0,0)).isEmpty());
+		assertTrue(aIndex.query(new Rectangle(-100,-100,200,200)).isEmpty());
+	}
+	
+	@Test
+	public void testQueryPoint()
+	{
+		aIndex.put("A", new Rectangle(0,0,25,25));
+		aIndex.put("B", new Rectangle(20,20,10,10));
+		assertEquals(2, aIndex.size());
+		assertEquals(Arrays.asList("A"), aIndex.query(new Point(5,5)));
+		assertEquals(new HashSet<>(Arrays.asList("A","B")), new HashSet<>(aIndex.query(new Point(25,25))));
+		assertEquals(Arrays.asList("B"), aIndex.query(new Point(30,30)));
+		assertTrue(aIndex.query(new Point(31,30)).isEmpty());
+		assertTrue(aIndex.query(new Point(-1,0)).isEmpty());
+	}
+	
+	@Test
+	public void testNegativeCoordinates()
+	{
+		aIndex.put("A", new Rectangle(-25,-15,10,10));
+		assertEquals(Arrays.asList("A"), aIndex.query(new Point(-20,-10)));
+		assertTrue(aIndex.query(new Point(-10,-10)).isEmpty());
+		assertEquals(Arrays.asList("A"), aIndex.query(new Rectangle(-16,-6,10,10)));
+	}
+	
+	@Test
+	public void testQueryRectangle()
+	{
+		aIndex.put("A", new Rectangle(0,0,10,10));
+		aIndex.put("B", new Rectangle(50,50,10,10));
+		aIndex.put("C", new Rectangle(100,0,10,10));
+		assertEquals(new HashSet<>(Arrays.asList("A","B")), new HashSet<>(aIndex.query(new Rectangle(5,5,45,45))));
+		assertEquals(Arrays.asList("C"), aIndex.query(new Rectangle(70,0,30,5)));
+		assertTrue(aIndex.query(new Rectangle(20,20,20,20)).isEmpty());
+		assertEquals(3, aIndex.query(new Rectangle(-1000,-1000,2000,2000)).size());
+	}
+	
+	@Test
+	public void testPutReplacesBounds()
+	{
+		aIndex.put("A", new Rectangle(0,0,10,10));
+		aIndex.put("A", new Rectangle(100,100,10,10));
+		assertEquals(1, aIndex.size());
+		assertTrue(aIndex.query(new Point(5,5)).isEmpty());
+		assertEquals(Arrays.asList("A"), aIndex.query(new Point(105,105)));
+	}
+	
+	@Test
+	public void testRemove()
+	{
+		aIndex.put("A", new Rectangle(0,0,30,30));
+		aIndex.put("B", new Rectangle(0,0,30,30));
+		aIndex.remove("A");
+		aIndex.remove("C");
+		assertFalse(aIndex.contains("A"));
+		assertTrue(aIndex.contains("B"));
+		assertEquals(Arrays.asList("B"), aIndex.query(new Point(15,15)));
+		aIndex.clear();
+		assertEquals(0, aIndex.size());
+		assertTrue(aIndex.query(new Point(15,15)).isEmpty());
+	}
+	
+	@Test
+	public void testLargeElement()
+	{
+		aIndex.put("A", new Rectangle(0, Integer.MIN_VALUE / 2, 10, Integer.MAX_VALUE));
+		aIndex.put("B", new Rectangle(0,0,10,10));
+		assertEquals(Arrays.asList("A"), aIndex.query(new Point(5, 100000)));
+		assertEquals(new HashSet<>(Arrays.asList("A","B")), new HashSet<>(aIndex.query(new Point(5,5))));
+		assertEquals(Arrays.asList("A"), aIndex.query(new Rectangle(0,-500,5,5)));
+		aIndex.remove("A");
+		assertTrue(aIndex.query(new Point(5, 100000)).isEmpty());
+	}
+	
+	@Test
+	public void testGetBoundsAndExtent()
+	{
+		assertFalse(aIndex.getExtent().isPresent());
+		aIndex.put("A", new Rectangle(0,0,10,10));
+		aIndex.put("B", new Rectangle(50,-20,10,10));
+		assertEquals(new Rectangle(50,-20,10,10), aIndex.getBounds("B"));
+		assertNull(aIndex.getBounds("C"));
+		assertEquals(new Rectangle(0,-20,60,30), aIndex.getExtent().get());
+	}
+}
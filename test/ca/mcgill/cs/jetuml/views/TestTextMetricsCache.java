@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import javafx.geometry.BoundingBox;
+import javafx.scene.text.TextAlignment;
+
+public class TestTextMetricsCache
+{
+	private TextMetricsCache aCache;
+	
+	/**
+	 * Load JavaFX toolkit and environment.
+	 */
+	@BeforeClass
+	@SuppressWarnings("unused")
+	public static void setupClass()
+	{
+		JavaFXLoader loader = JavaFXLoader.instance();
+	}
+	
+	@Before
+	public void setup()
+	{
+		aCache = new TextMetricsCache(2, pText -> new BoundingBox(0, 0, pText.getText().length(), 10));
+	}
+	
+	@Test
+	public void testHitAndMiss()
+	{
+		assertEquals(0, aCache.getHitRate(), 0);
+		assertEquals(3, aCache.getBounds("abc", StringViewer.FONT, TextAlignment.LEFT, false).getWidth(), 0);
+		assertSame(aCache.getBounds("abc", StringViewer.FONT, TextAlignment.LEFT, false), 
+				aCache.getBounds("abc", StringViewer.FONT, TextAlignment.LEFT, false));
+		assertEquals(1, aCache.getMisses());
+		assertEquals(2, aCache.getHits());
+		assertEquals(2.0/3.0, aCache.getHitRate(), 0.0001);
+	}
+	
+	@Test
+	public void testKeyIncludesDecorations()
+	{
+		aCache.getBounds("abc", StringViewer.FONT, TextAlignment.LEFT, false);
+		aCache.getBounds("abc", StringViewer.FONT, TextAlignment.CENTER, false);
+		aCache.getBounds("abc", StringViewer.FONT, TextAlignment.LEFT, true);
+		assertEquals(3, aCache.getMisses());
+		assertEquals(0, aCache.getHits());
+	}
+	
+	@Test
+	public void testLeastRecentlyUsedEvicted()
+	{
+		aCache.getBounds("a", StringViewer.FONT, TextAlignment.LEFT, false);
+		aCache.getBounds("b", StringViewer.FONT, TextAlignment.LEFT, false);
+		aCache.getBounds("a", StringViewer.FONT, TextAlignment.LEFT, false); 
+		aCache.getBounds("c", StringViewer.FONT, TextAlignment.LEFT, false); // Evicts "b"
+		assertEquals(2, aCache.size());
+		assertEquals(1, aCache.getEvictions());
+		aCache.getBounds("a", StringViewer.FONT, TextAlignment.LEFT, false);
+		assertEquals(2, aCache.getHits());
+		aCache.getBounds("b", StringViewer.FONT, TextAlignment.LEFT, false);
+		assertEquals(4, aCache.getMisses());
+		assertEquals(2, aCache.getEvictions());
+	}
+}
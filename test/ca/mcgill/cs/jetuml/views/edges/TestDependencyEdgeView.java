@@ -21,6 +21,8 @@
 package ca.mcgill.cs.jetuml.views.edges;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -30,6 +32,8 @@ import ca.mcgill.cs.jetuml.JavaFXLoader;
 import ca.mcgill.cs.jetuml.diagram.ClassDiagram;
 import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
 import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 
 public class TestDependencyEdgeView
@@ -71,4 +75,33 @@ public class TestDependencyEdgeView
 		assertEquals(new Rectangle(99,23,102,12), aEdge.view().getBounds());
 
 	}
+	
+	@Test
+	public void testContains()
+	{
+		assertTrue(aEdge.view().contains(new Point(150,32)));
+		assertFalse(aEdge.view().contains(new Point(150,34)));
+		assertFalse(aEdge.view().contains(new Point(101,30))); // Too close to the connection point
+		assertTrue(aEdge.view().contains(new Point(192,25))); // On the arrowhead
+	}
+	
+	@Test
+	public void testConnectionPointsAfterNodeMoved()
+	{
+		assertEquals(new Line(new Point(100,30), new Point(200,30)), aEdge.view().getConnectionPoints());
+		aNode2.translate(0, 100);
+		assertEquals(new Line(new Point(100,30), new Point(200,130)), aEdge.view().getConnectionPoints());
+	}
+	
+	@Test
+	public void testConnectionPointsAfterEdgeAdded()
+	{
+		assertEquals(new Line(new Point(100,30), new Point(200,30)), aEdge.view().getConnectionPoints());
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(edge);
+		assertEquals(new Line(new Point(100,25), new Point(200,25)), aEdge.view().getConnectionPoints());
+		aDiagram.removeEdge(edge);
+		assertEquals(new Line(new Point(100,30), new Point(200,30)), aEdge.view().getConnectionPoints());
+	}
 }
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views.edges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.ClassDiagram;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.views.edges.SegmentationStyle.Side;
+
+public class TestPortLayout
+{
+	private ClassDiagram aDiagram;
+	private ClassNode aParent;
+	private ClassNode aChild1;
+	private ClassNode aChild2;
+	private GeneralizationEdge aEdge1;
+	private GeneralizationEdge aEdge2;
+	
+	/**
+	 * Load JavaFX toolkit and environment.
+	 */
+	@BeforeClass
+	@SuppressWarnings("unused")
+	public static void setupClass()
+	{
+		JavaFXLoader loader = JavaFXLoader.instance();
+	}
+	
+	@Before
+	public void setup()
+	{
+		aDiagram = new ClassDiagram();
+		aParent = new ClassNode();
+		aChild1 = new ClassNode();
+		aChild2 = new ClassNode();
+		aParent.translate(1000, 0);
+		aChild1.translate(900, 500);
+		aChild2.translate(1100, 500);
+		aDiagram.addRootNode(aParent);
+		aDiagram.addRootNode(aChild1);
+		aDiagram.addRootNode(aChild2);
+		aEdge1 = new GeneralizationEdge();
+		aEdge1.connect(aChild1, aParent, aDiagram);
+		aDiagram.addEdge(aEdge1);
+		aEdge2 = new GeneralizationEdge();
+		aEdge2.connect(aChild2, aParent, aDiagram);
+		aDiagram.addEdge(aEdge2);
+	}
+	
+	@Test
+	public void testGeneralizationsShareOnePort()
+	{
+		PortLayout layout = aDiagram.getView().portLayout();
+		assertEquals(1, layout.getNumberOfPorts(aParent, Side.SOUTH));
+		assertEquals(1, layout.getPort(aParent, aEdge1, Side.SOUTH));
+		assertEquals(1, layout.getPort(aParent, aEdge2, Side.SOUTH));
+		assertEquals(0, layout.getNumberOfPorts(aParent, Side.NORTH));
+		assertEquals(0, layout.getPort(aParent, aEdge1, Side.NORTH));
+		assertEquals(1, layout.getNumberOfPorts(aChild1, Side.NORTH));
+		assertFalse(layout.hasSelfEdge(aParent));
+	}
+	
+	@Test
+	public void testEdgesSortedByPosition()
+	{
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(aParent, aChild1, aDiagram);
+		aDiagram.addEdge(edge);
+		PortLayout layout = aDiagram.getView().portLayout();
+		assertEquals(2, layout.getNumberOfPorts(aParent, Side.SOUTH));
+		assertEquals(1, layout.getPort(aParent, edge, Side.SOUTH));
+		assertEquals(2, layout.getPort(aParent, aEdge2, Side.SOUTH));
+	}
+	
+	@Test
+	public void testRecomputedWhenNeighbourMoves()
+	{
+		PortLayout layout = aDiagram.getView().portLayout();
+		assertEquals(1, layout.getPort(aParent, aEdge2, Side.SOUTH));
+		aChild2.translate(0, -1000);
+		assertEquals(0, layout.getPort(aParent, aEdge2, Side.SOUTH));
+		assertEquals(1, layout.getPort(aParent, aEdge2, Side.NORTH));
+	}
+	
+	@Test
+	public void testRecomputedWhenEdgesChange()
+	{
+		PortLayout layout = aDiagram.getView().portLayout();
+		assertFalse(layout.hasSelfEdge(aParent));
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(aParent, aParent, aDiagram);
+		aDiagram.addEdge(edge);
+		assertTrue(layout.hasSelfEdge(aParent));
+		aDiagram.removeEdge(aEdge1);
+		aDiagram.removeEdge(aEdge2);
+		assertEquals(0, layout.getNumberOfPorts(aParent, Side.SOUTH));
+	}
+	
+	@Test
+	public void testRecomputedWhenEdgeChanges()
+	{
+		PortLayout layout = aDiagram.getView().portLayout();
+		assertEquals(1, layout.getNumberOfPorts(aParent, Side.SOUTH));
+		aEdge1.properties().get("Generalization Type").set("Implementation");
+		assertEquals(2, layout.getNumberOfPorts(aParent, Side.SOUTH));
+	}
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2018 by the contributors of the JetUML project.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views.edges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.StateDiagram;
+import ca.mcgill.cs.jetuml.diagram.edges.StateTransitionEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.StateNode;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+
+public class TestStateTransitionEdgeView
+{
+	private StateDiagram aDiagram;
+	private StateNode aNode1;
+	private StateNode aNode2;
+	private StateTransitionEdge aEdge1;
+	private StateTransitionEdge aEdge2;
+	
+	/**
+	 * Load JavaFX toolkit and environment.
+	 */
+	@BeforeClass
+	@SuppressWarnings("unused")
+	public static void setupClass()
+	{
+		JavaFXLoader loader = JavaFXLoader.instance();
+	}
+	
+	@Before
+	public void setup()
+	{
+		aDiagram = new StateDiagram();
+		aNode1 = new StateNode();
+		aNode2 = new StateNode();
+		aNode2.translate(200, 0);
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aEdge1 = new StateTransitionEdge();
+		aEdge1.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(aEdge1);
+		aEdge2 = new StateTransitionEdge();
+		aEdge2.connect(aNode1, aNode2, aDiagram);
+	}
+	
+	@Test
+	public void testBoundsFollowLabel()
+	{
+		Rectangle bounds = aEdge1.view().getBounds();
+		aEdge1.setMiddleLabel("a rather long transition label");
+		Rectangle labelled = aEdge1.view().getBounds();
+		assertFalse(bounds.equals(labelled));
+		aEdge1.setMiddleLabel("");
+		assertEquals(bounds, aEdge1.view().getBounds());
+	}
+	
+	@Test
+	public void testConnectionPointsFollowNodes()
+	{
+		Line points = aEdge1.view().getConnectionPoints();
+		aNode2.translate(0, 100);
+		assertFalse(points.equals(aEdge1.view().getConnectionPoints()));
+		aNode2.translate(0, -100);
+		assertEquals(points, aEdge1.view().getConnectionPoints());
+	}
+	
+	@Test
+	public void testParallelEdges()
+	{
+		Line first = aEdge1.view().getConnectionPoints();
+		aDiagram.addEdge(aEdge2);
+		assertEquals(first, aEdge1.view().getConnectionPoints());
+		assertFalse(first.equals(aEdge2.view().getConnectionPoints()));
+		aDiagram.removeEdge(aEdge1);
+		assertEquals(first, aEdge2.view().getConnectionPoints());
+	}
+	
+	@Test
+	public void testGeometryKeptWhenOtherEdgesChange()
+	{
+		Line points = aEdge1.view().getConnectionPoints();
+		StateNode node3 = new StateNode();
+		node3.translate(0, 200);
+		aDiagram.addRootNode(node3);
+		StateTransitionEdge edge = new StateTransitionEdge();
+		edge.connect(aNode1, node3, aDiagram);
+		aDiagram.addEdge(edge);
+		assertSame(points, aEdge1.view().getConnectionPoints());
+		aDiagram.removeEdge(edge);
+		assertSame(points, aEdge1.view().getConnectionPoints());
+	}
+}
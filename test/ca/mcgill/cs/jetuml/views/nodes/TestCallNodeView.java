@@ -91,5 +91,38 @@ public class TestCallNodeView
 		assertEquals(new Rectangle(32, 70, 16, 90), aDefaultCallNode1.view().getBounds());
 		assertEquals(new Rectangle(232, 80, 16, 30), aDefaultCallNode2.view().getBounds());
 		assertEquals(new Rectangle(232, 120, 16, 30), aCallNode1.view().getBounds());
-	}	
+	}
+	
+	@Test
+	public void testGetBoundsAfterCallRemoved()
+	{
+		aImplicitParameterNode1.addChild(aDefaultCallNode1);
+		aImplicitParameterNode2.addChild(aDefaultCallNode2);
+		aImplicitParameterNode2.addChild(aCallNode1);
+		aImplicitParameterNode2.translate(200, 0);
+		aDiagram.addRootNode(aImplicitParameterNode1);
+		aDiagram.addRootNode(aImplicitParameterNode2);
+		aCallEdge1.connect(aDefaultCallNode1, aDefaultCallNode2, aDiagram);
+		aDiagram.addEdge(aCallEdge1);
+		aCallEdge2.connect(aDefaultCallNode1, aCallNode1, aDiagram);
+		aDiagram.addEdge(aCallEdge2);
+		assertEquals(new Rectangle(232, 120, 16, 30), aCallNode1.view().getBounds());
+		
+		aDiagram.removeEdge(aCallEdge1);
+		assertEquals(new Rectangle(32, 70, 16, 50), aDefaultCallNode1.view().getBounds());
+		assertEquals(new Rectangle(232, 80, 16, 30), aCallNode1.view().getBounds());
+	}
+	
+	@Test
+	public void testGetBoundsNestedCallee()
+	{
+		aImplicitParameterNode1.addChild(aDefaultCallNode1);
+		aImplicitParameterNode1.addChild(aCallNode1);
+		aDiagram.addRootNode(aImplicitParameterNode1);
+		aCallEdge1.connect(aDefaultCallNode1, aCallNode1, aDiagram);
+		aDiagram.addEdge(aCallEdge1);
+		
+		assertEquals(new Rectangle(32, 70, 16, 60), aDefaultCallNode1.view().getBounds());
+		assertEquals(new Rectangle(40, 90, 16, 30), aCallNode1.view().getBounds());
+	}
 }
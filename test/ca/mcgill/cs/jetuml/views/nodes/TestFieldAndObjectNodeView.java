@@ -175,6 +175,21 @@ public class TestFieldAndObjectNodeView
 		assertEquals( new Rectangle(35,70,42,20), view.getBounds());
 	}
 	
+	@Test
+	public void testGetBoundsAttachedAfterRemoval()
+	{
+		FieldNode field2 = new FieldNode();
+		aObjectNode1.addChild(aFieldNode1);
+		aObjectNode1.addChild(field2);
+		assertEquals( new Rectangle(0,0,82,115), aObjectNode1.view().getBounds());
+		assertEquals( new Rectangle(35,70,42,20), aFieldNode1.view().getBounds());
+		assertEquals( new Rectangle(35,95,42,20), field2.view().getBounds());
+		
+		aObjectNode1.removeChild(aFieldNode1);
+		assertEquals( new Rectangle(0,0,82,90), aObjectNode1.view().getBounds());
+		assertEquals( new Rectangle(35,70,42,20), field2.view().getBounds());
+	}
+	
 	@After
 	public void teardown()
 	{
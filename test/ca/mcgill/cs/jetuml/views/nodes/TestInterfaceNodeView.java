@@ -22,10 +22,12 @@ package ca.mcgill.cs.jetuml.views.nodes;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.util.function.Supplier;
 
 import org.junit.After;
 import org.junit.Before;
@@ -125,4 +127,24 @@ public class TestInterfaceNodeView
 		assertTrue(new Rectangle(0,0,100,70).equals(((InterfaceNodeView)aNode1.view()).computeTop()) ||
 				new Rectangle(0,0,100,72).equals(((InterfaceNodeView)aNode1.view()).computeTop()));
 	}
+	
+	@Test
+	public void testBoundsCachedUntilNodeChanges()
+	{
+		InterfaceNodeView view = (InterfaceNodeView)aNode1.view();
+		int[] computations = {0};
+		Supplier<Rectangle> bounds = () -> 
+		{
+			computations[0]++;
+			return new Rectangle(aNode1.position().getX(), aNode1.position().getY(), 100, 60);
+		};
+		assertEquals(new Rectangle(0, 0, 100, 60), view.cachedBounds(bounds));
+		assertSame(view.cachedBounds(bounds), view.cachedBounds(bounds));
+		assertEquals(1, computations[0]);
+		aNode1.translate(10, 20);
+		assertEquals(new Rectangle(10, 20, 100, 60), view.cachedBounds(bounds));
+		aNode1.setMethods("Foo");
+		view.cachedBounds(bounds);
+		assertEquals(3, computations[0]);
+	}
 }
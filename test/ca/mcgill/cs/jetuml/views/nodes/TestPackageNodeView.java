@@ -140,6 +140,28 @@ public class TestPackageNodeView
 		assertEqualRectangles(0,20,100,60, getBottomBounds(aPackageNode1));
 	}
 	
+	@Test
+	public void testGetBoundsUpdatedByDescendants()
+	{
+		PackageNode inner = new PackageNode();
+		inner.moveTo(new Point(50,50));
+		aPackageNode1.addChild(inner);
+		assertEqualRectangles(0,0,160,140, aPackageNode1.view().getBounds());
+		
+		PackageNode innermost = new PackageNode();
+		innermost.moveTo(new Point(60,80));
+		inner.addChild(innermost);
+		assertEqualRectangles(50,50,120,120, inner.view().getBounds());
+		assertEqualRectangles(0,0,180,180, aPackageNode1.view().getBounds());
+		
+		innermost.translate(10, 10);
+		assertEqualRectangles(50,50,130,130, inner.view().getBounds());
+		assertEqualRectangles(0,0,190,190, aPackageNode1.view().getBounds());
+		
+		inner.removeChild(innermost);
+		assertEqualRectangles(0,0,160,140, aPackageNode1.view().getBounds());
+	}
+	
 	private static final void assertEqualRectangles(int pExpectedX, int pExpectedY, int pExpectedWidth, int pExpectedHeight, Rectangle pRectangle)
 	{
 		assertEquals( pExpectedX, pRectangle.getX());